@@ -14,24 +14,157 @@ CREATE TABLE IF NOT EXISTS store (
 
 CREATE INDEX IF NOT EXISTS idx_store_name ON store(store_name);
 
--- Product price table for storing extracted product prices from images
+-- Product price table for storing extracted product prices from images.
+-- Range-partitioned by month on extracted_at: product_price_yyyy_MM partitions are created ahead of time
+-- by the application (product-price.partitioning.*), rows outside them land in product_price_default.
+-- Existing non-partitioned installations: run migrate_product_price_partitioning.sql once.
+CREATE SEQUENCE IF NOT EXISTS product_price_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS product_price (
-    id SERIAL PRIMARY KEY,
+    id BIGINT NOT NULL DEFAULT nextval('product_price_id_seq'),
     product_name VARCHAR(200) NOT NULL,
     price DECIMAL(10,2) NOT NULL,
     image_path VARCHAR(500),
-    extracted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    extracted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     metadata JSONB,
     confidence_score DOUBLE PRECISION,
     status VARCHAR(50),
-    store_id BIGINT REFERENCES store(id) ON DELETE SET NULL
-);
+    store_id BIGINT REFERENCES store(id) ON DELETE SET NULL,
+    catalog_id BIGINT,
+    PRIMARY KEY (id, extracted_at)
+) PARTITION BY RANGE (extracted_at);
+
+CREATE TABLE IF NOT EXISTS product_price_default PARTITION OF product_price DEFAULT;
+
+-- Installations created before the product catalog
+ALTER TABLE product_price ADD COLUMN IF NOT EXISTS catalog_id BIGINT;
 
 CREATE INDEX IF NOT EXISTS idx_product_name ON product_price(product_name);
 CREATE INDEX IF NOT EXISTS idx_extracted_at ON product_price(extracted_at);
 CREATE INDEX IF NOT EXISTS idx_status ON product_price(status);
 CREATE INDEX IF NOT EXISTS idx_store_id ON product_price(store_id);
+-- Trigram index for product name search (LIKE '%...%' and similarity ranking)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product_price USING gin (LOWER(product_name) gin_trgm_ops);
+-- Keyset (cursor) pagination on (extracted_at, id)
+CREATE INDEX IF NOT EXISTS idx_product_price_keyset ON product_price(extracted_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_product_price_status_keyset ON product_price(status, extracted_at DESC, id DESC);
+-- Prices of one canonical catalog product, newest first
+CREATE INDEX IF NOT EXISTS idx_product_price_catalog ON product_price(catalog_id, extracted_at DESC);
+
+-- ProductPrice IDs are allocated in blocks of 50 (Hibernate pooled sequence, JDBC batch inserts)
+ALTER SEQUENCE product_price_id_seq INCREMENT BY 50;
+
+
+
+-- Per store / day / status product counters, maintained incrementally for the dashboard
+CREATE TABLE IF NOT EXISTS product_price_daily_stat (
+    store_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    product_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (store_id, stat_date, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_stat_date ON product_price_daily_stat(stat_date);
+
+-- Price history: approved price observations partitioned by month
+-- (the application also creates these tables and the monthly partitions on startup/demand)
+CREATE TABLE IF NOT EXISTS price_observation (
+    product_key VARCHAR(200) NOT NULL,
+    product_name VARCHAR(200) NOT NULL,
+    store_id BIGINT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    observed_at TIMESTAMP NOT NULL,
+    product_price_id BIGINT
+) PARTITION BY RANGE (observed_at);
+
+CREATE INDEX IF NOT EXISTS idx_price_observation_key ON price_observation(product_key, observed_at);
+
+-- Example monthly partition: price_observation_yyyy_MM
+-- CREATE TABLE IF NOT EXISTS price_observation_2024_01 PARTITION OF price_observation
+--     FOR VALUES FROM ('2024-01-01') TO ('2024-02-01');
 
+-- Daily / weekly (week starting Monday) min/max/avg rollups per product key and store
+CREATE TABLE IF NOT EXISTS price_rollup_daily (
+    product_key VARCHAR(200) NOT NULL,
+    bucket_date DATE NOT NULL,
+    store_id BIGINT NOT NULL,
+    min_price DECIMAL(10,2) NOT NULL,
+    max_price DECIMAL(10,2) NOT NULL,
+    sum_price DECIMAL(14,2) NOT NULL,
+    observation_count BIGINT NOT NULL,
+    PRIMARY KEY (product_key, bucket_date, store_id)
+);
+
+CREATE TABLE IF NOT EXISTS price_rollup_weekly (
+    product_key VARCHAR(200) NOT NULL,
+    bucket_date DATE NOT NULL,
+    store_id BIGINT NOT NULL,
+    min_price DECIMAL(10,2) NOT NULL,
+    max_price DECIMAL(10,2) NOT NULL,
+    sum_price DECIMAL(14,2) NOT NULL,
+    observation_count BIGINT NOT NULL,
+    PRIMARY KEY (product_key, bucket_date, store_id)
+);
+
+-- Async extraction job table (queued uploads survive restarts)
+CREATE TABLE IF NOT EXISTS extraction_job (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    image_path VARCHAR(500) NOT NULL,
+    store_id BIGINT,
+    location VARCHAR(200),
+    engine VARCHAR(20),
+    product_ids JSONB,
+    product_count INTEGER,
+    pending_review_count INTEGER,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_extraction_job_status ON extraction_job(status);
+
+-- Extraction result cache keyed by image content hash, model and prompt version
+CREATE TABLE IF NOT EXISTS extraction_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    image_hash VARCHAR(64) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    prompt_version VARCHAR(20) NOT NULL,
+    products JSONB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Uploaded shelf images with 64-bit perceptual hash (dHash) for near-duplicate detection
+CREATE TABLE IF NOT EXISTS shelf_image (
+    id SERIAL PRIMARY KEY,
+    image_path VARCHAR(500) NOT NULL,
+    store_id BIGINT,
+    dhash BIGINT,
+    duplicate_of_id BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 
+CREATE INDEX IF NOT EXISTS idx_shelf_image_store_created ON shelf_image(store_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_shelf_image_path ON shelf_image(image_path);
+
+-- Canonical product catalog: extracted names are linked to one entry by normalized name / fuzzy match
+CREATE TABLE IF NOT EXISTS product_catalog (
+    id BIGSERIAL PRIMARY KEY,
+    canonical_name VARCHAR(200) NOT NULL,
+    normalized_name VARCHAR(200) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Alternative spellings learned from reviewer corrections (extracted name -> catalog entry)
+CREATE TABLE IF NOT EXISTS product_catalog_alias (
+    id BIGSERIAL PRIMARY KEY,
+    normalized_name VARCHAR(200) NOT NULL UNIQUE,
+    catalog_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 
+CREATE INDEX IF NOT EXISTS idx_product_catalog_alias_catalog ON product_catalog_alias(catalog_id);
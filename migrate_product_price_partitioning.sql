@@ -0,0 +1,79 @@
+-- One-off migration: convert an existing (non-partitioned) product_price table into the
+-- month-partitioned layout from create_tables.sql. Run in a maintenance window; the table is
+-- rewritten inside a single transaction.
+
+BEGIN;
+
+ALTER TABLE product_price RENAME TO product_price_legacy;
+
+-- Keep the id sequence when the legacy table (which owns it as a SERIAL) is dropped
+ALTER SEQUENCE product_price_id_seq OWNED BY NONE;
+ALTER SEQUENCE product_price_id_seq INCREMENT BY 50;
+
+-- Free the index names for the new partitioned table
+DO $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN SELECT indexname FROM pg_indexes WHERE tablename = 'product_price_legacy' LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', r.indexname, r.indexname || '_legacy');
+    END LOOP;
+END $$;
+
+CREATE TABLE product_price (
+    id BIGINT NOT NULL DEFAULT nextval('product_price_id_seq'),
+    product_name VARCHAR(200) NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    image_path VARCHAR(500),
+    extracted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    metadata JSONB,
+    confidence_score DOUBLE PRECISION,
+    status VARCHAR(50),
+    store_id BIGINT REFERENCES store(id) ON DELETE SET NULL,
+    catalog_id BIGINT,
+    PRIMARY KEY (id, extracted_at)
+) PARTITION BY RANGE (extracted_at);
+
+CREATE TABLE product_price_default PARTITION OF product_price DEFAULT;
+
+-- One partition per month from the oldest row up to three months ahead
+DO $$
+DECLARE
+    m DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(COALESCE(extracted_at, created_at)), now()))::date
+      INTO m FROM product_price_legacy;
+    last_month := (date_trunc('month', now()) + interval '3 months')::date;
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF product_price FOR VALUES FROM (%L) TO (%L)',
+                       'product_price_' || to_char(m, 'YYYY_MM'), m, (m + interval '1 month')::date);
+        m := (m + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Legacy tables created before the product catalog have no catalog_id yet
+ALTER TABLE product_price_legacy ADD COLUMN IF NOT EXISTS catalog_id BIGINT;
+
+INSERT INTO product_price (id, product_name, price, image_path, extracted_at, created_at, metadata,
+                           confidence_score, status, store_id, catalog_id)
+SELECT id, product_name, price, image_path, COALESCE(extracted_at, created_at, now()), created_at, metadata,
+       confidence_score, status, store_id, catalog_id
+FROM product_price_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_product_name ON product_price(product_name);
+CREATE INDEX IF NOT EXISTS idx_extracted_at ON product_price(extracted_at);
+CREATE INDEX IF NOT EXISTS idx_status ON product_price(status);
+CREATE INDEX IF NOT EXISTS idx_store_id ON product_price(store_id);
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product_price USING gin (LOWER(product_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_price_keyset ON product_price(extracted_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_product_price_status_keyset ON product_price(status, extracted_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_product_price_catalog ON product_price(catalog_id, extracted_at DESC);
+
+DROP TABLE product_price_legacy;
+
+COMMIT;
+
+ANALYZE product_price;
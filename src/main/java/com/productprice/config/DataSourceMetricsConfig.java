@@ -0,0 +1,29 @@
+package com.productprice.config;
+
+import com.productprice.service.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataSourceMetricsConfig {
+
+    /**
+     * 풀이 시작되기 전에 HikariDataSource 에 대기/점유 시간 수집기를 연결한다.
+     * 수집기가 Micrometer 트래커를 감싸므로 /actuator/prometheus 의 hikaricp_* 지표도 그대로 나온다.
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<ConnectionPoolMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMetricsTrackerFactory(metrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
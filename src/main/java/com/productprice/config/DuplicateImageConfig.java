@@ -0,0 +1,17 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "duplicate-image")
+@Data
+public class DuplicateImageConfig {
+    private boolean enabled = true;
+    private int maxDistance = 6; // 64비트 dHash 기준 해밍 거리
+    private long windowMinutes = 30; // 같은 거래처에서 이 시간 안에 올라온 사진만 중복으로 본다
+    private boolean skipExtraction = true; // 중복이면 Vision API 호출 없이 기존 결과를 돌려준다
+    private int indexDays = 7; // 유사 사진 묶음 조회(/api/images/duplicates)의 기본 기간
+    private long pruneIntervalMs = 300_000L; // 시간 창을 벗어난 해시를 메모리 인덱스에서 빼는 주기 (@Scheduled 에서 직접 읽는다)
+}
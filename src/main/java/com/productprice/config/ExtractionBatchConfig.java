@@ -0,0 +1,14 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "extraction.batch")
+@Data
+public class ExtractionBatchConfig {
+    private int concurrency = 5; // 서버 전체의 동시 Vision API 호출 상한
+    private int maxFiles = 10;
+    private int maxQueueDepth = 50; // 대기 중인 이미지 수 상한, 배치가 다 들어가지 못하면 429 응답
+}
@@ -0,0 +1,14 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "extraction.cache")
+@Data
+public class ExtractionCacheConfig {
+    private boolean enabled = true;
+    private int maxEntries = 1000; // 메모리 캐시 최대 항목 수 (LRU)
+    private boolean persistent = true; // DB 캐시 사용 여부
+}
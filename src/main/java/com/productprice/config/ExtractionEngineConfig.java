@@ -0,0 +1,22 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "extraction.engine")
+@Data
+public class ExtractionEngineConfig {
+    private String defaultEngine = "openai"; // openai, local, tiered
+    private Map<Long, String> stores = new HashMap<>(); // 거래처별 엔진 재정의
+    private double tieredConfidenceThreshold = 0.8; // tiered 모드에서 로컬 결과를 그대로 쓰는 최소 신뢰도
+
+    // Local OCR (tesseract CLI)
+    private String tesseractPath = "tesseract";
+    private String tesseractLanguages = "kor+eng";
+    private long tesseractTimeoutSeconds = 30;
+}
@@ -0,0 +1,15 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "extraction.job")
+@Data
+public class ExtractionJobConfig {
+    private int concurrency = 4;
+    private int maxQueueDepth = 100; // 초과 시 429 응답
+    private long sseTimeoutMs = 300_000L;
+    private long requeueIntervalMs = 30_000L; // 대기열이 가득 차 밀린 QUEUED 작업을 다시 넣는 주기 (@Scheduled 에서 직접 읽는다)
+}
@@ -0,0 +1,15 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "extraction.stream")
+@Data
+public class ExtractionStreamConfig {
+    private int concurrency = 4;
+    private int maxQueueDepth = 50; // 초과 시 429 응답
+    private int saveBatchSize = 5; // 이만큼 모이면 한 트랜잭션으로 저장
+    private long sseTimeoutMs = 300_000L;
+}
@@ -0,0 +1,34 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.preprocess")
+@Data
+public class ImagePreprocessConfig {
+    private boolean enabled = true;
+    private int maxEdge = 2048; // 긴 변 기준 최대 픽셀
+    private float quality = 0.85f; // JPEG 재압축 품질 (0.0 ~ 1.0)
+    private Map<String, ModelSettings> models = new HashMap<>(); // 모델별 재정의
+
+    @Data
+    public static class ModelSettings {
+        private Integer maxEdge;
+        private Float quality;
+    }
+
+    public int maxEdgeFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getMaxEdge() != null ? settings.getMaxEdge() : maxEdge;
+    }
+
+    public float qualityFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getQuality() != null ? settings.getQuality() : quality;
+    }
+}
@@ -0,0 +1,19 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.tiling")
+@Data
+public class ImageTilingConfig {
+    private boolean enabled = true;
+    private int minLongEdge = 6000; // 긴 변이 이 이상이면 비율과 관계없이 타일로 나눈다
+    private double minAspectRatio = 2.0; // 파노라마(가로/세로 비율) 판정 기준
+    private int tileEdge = 2048; // 타일 한 변의 목표 크기 (px)
+    private double overlap = 0.15; // 인접 타일 겹침 비율, 경계에 걸친 가격표를 살리기 위함
+    private int maxTiles = 8;
+    private int concurrency = 4; // 이미지 한 장의 타일 동시 추출 수
+    private float quality = 0.9f;
+}
@@ -0,0 +1,18 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.variant")
+@Data
+public class ImageVariantConfig {
+    private List<Integer> widths = List.of(160, 320, 640, 960, 1280, 1920); // 허용 너비 (요청 너비는 이 중 다음 큰 값으로 올림)
+    private String cacheDir = "cache/image-variants"; // 생성한 변형 이미지 디스크 캐시
+    private float quality = 0.82f; // 변형 이미지 JPEG 품질
+    private int maxConcurrentGenerations = 2; // 원본 디코딩은 메모리를 많이 쓰므로 동시 생성 수를 제한
+    private long maxAgeDays = 365; // 업로드 원본/변형 이미지 Cache-Control max-age
+}
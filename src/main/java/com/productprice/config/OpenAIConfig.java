@@ -19,6 +19,29 @@ public class OpenAIConfig {
     private String apiKey;
     private String model = "gpt-4o-mini";
     private Double temperature = 0.1;
+    private String baseUrl = "https://api.openai.com/v1";
+
+    // HTTP client
+    private int connectTimeoutMs = 5_000;
+    private int readTimeoutMs = 60_000;
+    private int maxConnections = 50;
+    private int keepAliveSeconds = 30;
+
+    // Retry (429 / 5xx / I/O errors)
+    private int maxRetries = 3;
+    private long retryBaseDelayMs = 500;
+    private long retryMaxDelayMs = 20_000; // Retry-After 가 이보다 길면 재시도하지 않는다
+
+    // Circuit breaker
+    private int circuitFailureThreshold = 5;
+    private long circuitOpenMs = 30_000;
+
+    // Client-side rate limit (응답 헤더로 동적 보정)
+    private boolean rateLimitEnabled = true;
+    private long requestsPerMinute = 500;
+    private long tokensPerMinute = 200_000;
+    private long estimatedTokensPerRequest = 1_500;
+    private long rateLimitMaxWaitMs = 120_000;
 
     @PostConstruct
     public void loadSecretJson() {
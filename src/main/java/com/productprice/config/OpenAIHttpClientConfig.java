@@ -0,0 +1,65 @@
+package com.productprice.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class OpenAIHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient openAIHttpClient(OpenAIConfig openAIConfig) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(openAIConfig.getMaxConnections())
+                .setMaxConnPerRoute(openAIConfig.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(openAIConfig.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(openAIConfig.getReadTimeoutMs()))
+                        .build())
+                .build();
+
+        TimeValue keepAlive = TimeValue.ofSeconds(openAIConfig.getKeepAliveSeconds());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(openAIConfig.getReadTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                // 재시도는 OpenAIService 가 Retry-After 를 보고 직접 처리한다
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    /**
+     * OpenAI 전용 RestTemplate. 상태 코드별 재시도 판단을 위해 4xx/5xx 에서 예외를 던지지 않는다.
+     */
+    @Bean
+    public RestTemplate openAIRestTemplate(CloseableHttpClient openAIHttpClient) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(openAIHttpClient));
+        restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+                // status is inspected by the caller
+            }
+        });
+        return restTemplate;
+    }
+}
@@ -0,0 +1,13 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "price-history")
+@Data
+public class PriceHistoryConfig {
+    private boolean enabled = true;
+    private int dailyMaxDays = 92; // 조회 기간이 이보다 길면 granularity 미지정 시 주 단위 롤업 사용
+}
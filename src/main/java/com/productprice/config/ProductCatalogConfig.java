@@ -0,0 +1,15 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-catalog")
+@Data
+public class ProductCatalogConfig {
+    private boolean enabled = true;
+    private int maxDistance = 3; // 자모 단위 편집 거리 상한
+    private double maxDistanceRatio = 0.2; // 이름 길이(자모 수) 대비 허용 편집 거리, 짧은 이름은 정확히 일치해야 한다
+    private boolean autoCreate = true; // 맞는 항목이 없으면 추출된 이름으로 새 카탈로그 항목을 만든다
+}
@@ -0,0 +1,13 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-list")
+@Data
+public class ProductListConfig {
+    private long countCacheSeconds = 60; // 커서 페이지네이션의 대략적 전체 건수 캐시 유지 시간
+    private boolean trigramSearch = true; // pg_trgm 이 설치되어 있으면 제품명 검색에 사용
+}
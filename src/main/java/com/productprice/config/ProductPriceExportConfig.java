@@ -0,0 +1,16 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-price.export")
+@Data
+public class ProductPriceExportConfig {
+    private int fetchSize = 2_000; // 서버 측 커서에서 한 번에 가져올 행 수
+    private int flushRows = 5_000; // 이 행 수마다 응답을 flush 해 청크로 내보낸다
+    private long timeoutMs = 3_600_000L; // 응답 시간 제한, 0 이면 제한 없음 (spring.mvc.async.request-timeout 과 별개)
+    private int concurrency = 2; // 동시에 실행할 내보내기 수
+    private int maxQueueDepth = 10; // 초과 시 429 응답
+}
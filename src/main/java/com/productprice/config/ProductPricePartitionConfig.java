@@ -0,0 +1,16 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-price.partitioning")
+@Data
+public class ProductPricePartitionConfig {
+    private boolean enabled = true;
+    private int monthsAhead = 3; // 미리 만들어 둘 미래 월 파티션 수
+    private int retentionMonths = 24; // 이보다 오래된 월 파티션은 내보낸 뒤 분리/삭제 (0 = 보관 정책 끔)
+    private String archiveDir = "archive/product_price";
+    private String maintenanceCron = "0 30 3 * * *"; // @Scheduled 에서 직접 읽는다
+}
@@ -0,0 +1,13 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-price")
+@Data
+public class ProductPriceWriteConfig {
+    private int bulkInsertThreshold = 500; // 이 건수 이상이면 JdbcTemplate 배치 INSERT 사용
+    private int bulkInsertChunkSize = 1000; // executeBatch 한 번에 보내는 행 수
+}
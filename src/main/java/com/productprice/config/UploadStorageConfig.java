@@ -0,0 +1,13 @@
+package com.productprice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "upload.storage")
+@Data
+public class UploadStorageConfig {
+    private String dir = "uploads"; // 업로드 파일을 저장할 디렉터리 (/uploads/** 로 서빙)
+    private int shardDepth = 2; // 내용 해시 앞 2자리씩 몇 단계 하위 디렉터리로 나눌지
+}
@@ -1,15 +1,27 @@
 package com.productprice.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    // 내용 해시로 저장된 업로드 파일명 (<sha256>.<ext>)
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("([0-9a-f]{64})\\.[a-z0-9]+");
+
+    private final UploadStorageConfig uploadStorageConfig;
+    private final ImageVariantConfig imageVariantConfig;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -22,9 +34,15 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // 업로드된 이미지 파일 서빙
-        String uploadPath = Paths.get("uploads").toAbsolutePath().toString();
+        String uploadPath = Paths.get(uploadStorageConfig.getDir()).toAbsolutePath().toString();
+        // 파일 내용은 바뀌지 않으므로 오래 캐시하고, 해시 파일명은 그대로 강한 ETag 로 쓴다 (Range 는 기본 지원)
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPath + "/");
+                .addResourceLocations("file:" + uploadPath + "/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(imageVariantConfig.getMaxAgeDays())).cachePublic())
+                .setEtagGenerator(resource -> {
+                    Matcher matcher = CONTENT_ADDRESSED_NAME.matcher(String.valueOf(resource.getFilename()));
+                    return matcher.matches() ? matcher.group(1) : null;
+                });
     }
 }
 
@@ -0,0 +1,44 @@
+package com.productprice.controller;
+
+import com.productprice.dto.ProductPriceListResponse;
+import com.productprice.dto.ProductPriceSummary;
+import com.productprice.service.ProductCatalogService;
+import com.productprice.service.ProductPriceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/catalog")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogController {
+
+    private final ProductCatalogService productCatalogService;
+    private final ProductPriceService productPriceService;
+
+    @GetMapping("/match")
+    public ResponseEntity<ProductCatalogService.CatalogMatch> matchProductName(@RequestParam String product_name) {
+        return productCatalogService.match(product_name)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{catalogId}/products")
+    public ResponseEntity<ProductPriceListResponse> getCatalogProducts(
+            @PathVariable Long catalogId,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int pageSize) {
+
+        Page<ProductPriceSummary> productPage = productPriceService.getProductsByCatalog(catalogId, page, pageSize);
+        return ResponseEntity.ok(new ProductPriceListResponse(
+                productPage.getContent(),
+                productPage.getTotalElements(),
+                page,
+                pageSize,
+                productPage.getTotalPages()
+        ));
+    }
+}
@@ -1,5 +1,13 @@
 package com.productprice.controller;
 
+import com.productprice.repository.ProductPricePartitionRepository;
+import com.productprice.service.ConnectionPoolMetrics;
+import com.productprice.service.ExtractionCacheService;
+import com.productprice.service.ExtractionMetrics;
+import com.productprice.service.OpenAIRateLimiter;
+import com.productprice.service.OpenAIService;
+import com.productprice.service.ProductPricePartitionService;
+import com.productprice.service.ProductStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,6 +16,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,19 +26,117 @@ import java.util.Map;
 @Slf4j
 public class DashboardController {
 
+    private final ExtractionCacheService extractionCacheService;
+    private final OpenAIRateLimiter openAIRateLimiter;
+    private final OpenAIService openAIService;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final ProductStatsService productStatsService;
+    private final ProductPricePartitionService partitionService;
+    private final ExtractionMetrics extractionMetrics;
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats(
             @RequestParam(required = false) String store_name,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start_date,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end_date) {
 
-        // TODO: Implement dashboard statistics
+        // 제품 테이블을 세지 않고 거래처/일자/상태별로 미리 집계된 카운터만 합산한다
+        ProductStatsService.DashboardStats dashboardStats =
+                productStatsService.getDashboardStats(store_name, start_date, end_date);
+
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total_products", 0);
-        stats.put("total_stores", 0);
-        stats.put("pending_reviews", 0);
-        
+        stats.put("total_products", dashboardStats.totalProducts());
+        stats.put("total_stores", dashboardStats.totalStores());
+        stats.put("pending_reviews", dashboardStats.pendingReviews());
+        stats.put("status_counts", dashboardStats.statusCounts());
+        stats.put("daily_counts", dashboardStats.dailyCounts());
+
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/extraction-cache")
+    public ResponseEntity<Map<String, Object>> getExtractionCacheStats() {
+        ExtractionCacheService.CacheStats cacheStats = extractionCacheService.getStats();
+        long hits = cacheStats.memoryHits() + cacheStats.persistentHits();
+        long lookups = hits + cacheStats.misses();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("memory_hits", cacheStats.memoryHits());
+        stats.put("persistent_hits", cacheStats.persistentHits());
+        stats.put("misses", cacheStats.misses());
+        stats.put("hit_rate", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("memory_size", cacheStats.memorySize());
+
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/openai")
+    public ResponseEntity<Map<String, Object>> getOpenAIStats() {
+        OpenAIRateLimiter.RateLimiterStats limiterStats = openAIRateLimiter.getStats();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("circuit_state", openAIService.getCircuitState().name());
+        stats.put("available_requests", limiterStats.availableRequests());
+        stats.put("available_tokens", limiterStats.availableTokens());
+        stats.put("request_limit_per_minute", limiterStats.requestLimit());
+        stats.put("token_limit_per_minute", limiterStats.tokenLimit());
+        stats.put("queued_callers", limiterStats.queuedCallers());
+        stats.put("estimated_tokens_per_request", limiterStats.estimatedTokensPerRequest());
+        stats.put("queue_wait_count", limiterStats.waitCount());
+        stats.put("queue_wait_avg_ms", limiterStats.averageWaitMs());
+        stats.put("queue_wait_max_ms", limiterStats.maxWaitMs());
+
         return ResponseEntity.ok(stats);
     }
-}
 
+    @GetMapping("/extraction-metrics")
+    public ResponseEntity<Map<String, Object>> getExtractionMetrics() {
+        ExtractionMetrics.MetricsSummary summary = extractionMetrics.getSummary();
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        summary.stages().forEach((stage, timing) -> {
+            Map<String, Object> stageStats = new HashMap<>();
+            stageStats.put("count", timing.count());
+            stageStats.put("avg_ms", timing.avgMs());
+            stageStats.put("max_ms", timing.maxMs());
+            stageStats.put("p95_ms", timing.p95Ms());
+            stages.put(stage, stageStats);
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stages", stages);
+        stats.put("products_extracted", summary.productsByEngine());
+        stats.put("empty_results", summary.emptyResultsByEngine());
+        stats.put("errors", summary.errorsByStage());
+        stats.put("openai_tokens", summary.tokensByModel());
+
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/partitions")
+    public ResponseEntity<List<ProductPricePartitionRepository.PartitionInfo>> getPartitions() {
+        return ResponseEntity.ok(partitionService.getPartitions());
+    }
+
+    @GetMapping("/connection-pool")
+    public ResponseEntity<Map<String, Object>> getConnectionPoolStats() {
+        ConnectionPoolMetrics.PoolMetricsSnapshot snapshot = connectionPoolMetrics.getSnapshot();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pool_name", snapshot.poolName());
+        stats.put("active_connections", snapshot.activeConnections());
+        stats.put("idle_connections", snapshot.idleConnections());
+        stats.put("max_connections", snapshot.maxConnections());
+        stats.put("pending_threads", snapshot.pendingThreads());
+        stats.put("acquire_count", snapshot.acquireCount());
+        stats.put("acquire_avg_ms", snapshot.acquireAvgMs());
+        stats.put("acquire_max_ms", snapshot.acquireMaxMs());
+        stats.put("hold_count", snapshot.usageCount());
+        stats.put("hold_avg_ms", snapshot.usageAvgMs());
+        stats.put("hold_max_ms", snapshot.usageMaxMs());
+        stats.put("slow_holds", snapshot.slowHolds());
+        stats.put("acquire_timeouts", snapshot.timeouts());
+
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,81 @@
+package com.productprice.controller;
+
+import com.productprice.config.ImageVariantConfig;
+import com.productprice.dto.DuplicateClusterResponse;
+import com.productprice.service.ImageVariantService;
+import com.productprice.service.ShelfImageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@Slf4j
+public class ImageController {
+
+    private final ShelfImageService shelfImageService;
+    private final ImageVariantService imageVariantService;
+    private final ImageVariantConfig imageVariantConfig;
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateClusterResponse>> getDuplicateClusters(
+            @RequestParam Long store_id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start_date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end_date,
+            @RequestParam(required = false) Integer max_distance) {
+
+        return ResponseEntity.ok(shelfImageService.findDuplicateClusters(store_id, start_date, end_date, max_distance));
+    }
+
+    /**
+     * 업로드 사진의 축소본. 목록/검수 화면 미리보기용이며 Range 요청과 ETag 재검증을 지원한다.
+     */
+    @GetMapping("/variant")
+    public ResponseEntity<Resource> getImageVariant(
+            @RequestParam String image_path,
+            @RequestParam(defaultValue = "320") int width,
+            WebRequest request) {
+
+        if (width <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ImageVariantService.ImageVariant variant;
+        try {
+            variant = imageVariantService.getVariant(image_path, width);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            log.error("Error generating image variant for {}", image_path, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        String etag = "\"" + variant.etag() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // Resource 본문은 Spring MVC 가 Range 헤더를 보고 206 부분 응답으로 보낸다
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(variant.mediaType()))
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(imageVariantConfig.getMaxAgeDays())).cachePublic())
+                .body(new FileSystemResource(variant.file()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.productprice.controller;
+
+import com.productprice.dto.PriceHistoryResponse;
+import com.productprice.service.PriceHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/price-history")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryController {
+
+    private final PriceHistoryService priceHistoryService;
+
+    @GetMapping
+    public ResponseEntity<PriceHistoryResponse> getPriceHistory(
+            @RequestParam String product_name,
+            @RequestParam(required = false) Long store_id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start_date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end_date,
+            @RequestParam(required = false) String granularity) {
+
+        try {
+            return ResponseEntity.ok(priceHistoryService.getSeries(
+                    product_name, store_id, start_date, end_date, granularity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,29 +1,45 @@
 package com.productprice.controller;
 
+import com.productprice.config.ExtractionBatchConfig;
+import com.productprice.dto.ExtractionJobResponse;
 import com.productprice.dto.ProductPriceExtractResponse;
 import com.productprice.dto.ProductPriceListResponse;
+import com.productprice.dto.ProductPriceSummary;
 import com.productprice.dto.ReviewRequest;
+import com.productprice.model.ExtractionJob;
 import com.productprice.model.ProductPrice;
+import com.productprice.service.BatchExtractionService;
+import com.productprice.service.ExtractionEngineService;
+import com.productprice.service.ExtractionJobService;
+import com.productprice.service.ExtractionStreamService;
+import com.productprice.service.ProductPriceExportService;
 import com.productprice.service.ProductPriceService;
+import com.productprice.service.ShelfImageService;
+import com.productprice.service.UploadStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/products")
@@ -32,13 +48,21 @@ import java.util.List;
 public class ProductController {
 
     private final ProductPriceService productPriceService;
-    private static final String UPLOAD_DIR = "uploads";
+    private final ExtractionJobService extractionJobService;
+    private final BatchExtractionService batchExtractionService;
+    private final ExtractionBatchConfig extractionBatchConfig;
+    private final ShelfImageService shelfImageService;
+    private final ExtractionEngineService extractionEngineService;
+    private final ProductPriceExportService productPriceExportService;
+    private final UploadStorageService uploadStorageService;
+    private final ExtractionStreamService extractionStreamService;
 
     @PostMapping(value = "/extract", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductPriceExtractResponse> extractProductPrices(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "store_id", required = false) Long storeId,
-            @RequestParam(value = "location", required = false) String location) {
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "engine", required = false) String engine) {
 
         try {
             // Validate file
@@ -52,22 +76,31 @@ public class ProductController {
                         .body(new ProductPriceExtractResponse(false, List.of(), 0, 0, "File must be an image"));
             }
 
-            // Save image
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            if (!isValidEngine(storeId, engine)) {
+                return ResponseEntity.badRequest()
+                        .body(new ProductPriceExtractResponse(false, List.of(), 0, 0, "Unknown engine: " + engine));
             }
 
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "product_" + timestamp + "_" + file.getOriginalFilename();
-            Path filePath = uploadPath.resolve(filename);
-            Files.write(filePath, file.getBytes());
+            // Save image (streamed to disk, read back once for extraction)
+            String relativePath = uploadStorageService.store(file).imagePath();
+            byte[] imageBytes = uploadStorageService.readBytes(relativePath);
 
-            String relativePath = UPLOAD_DIR + "/" + filename;
+            // Reuse the results of a near-duplicate photo of the same store
+            Optional<List<ProductPrice>> reused = findReusableProducts(imageBytes, relativePath, storeId);
+            if (reused.isPresent()) {
+                List<ProductPrice> existing = reused.get();
+                return ResponseEntity.ok(new ProductPriceExtractResponse(
+                        true,
+                        existing,
+                        existing.size(),
+                        (int) existing.stream().filter(p -> "PENDING_REVIEW".equals(p.getStatus())).count(),
+                        "Near-duplicate image, reused " + existing.size() + " products"
+                ));
+            }
 
             // Extract products
             List<ProductPrice> products = productPriceService.extractAndSaveProducts(
-                    file.getBytes(), relativePath, storeId, location);
+                    imageBytes, relativePath, storeId, location, engine);
 
             long pendingCount = products.stream()
                     .filter(p -> "PENDING_REVIEW".equals(p.getStatus()))
@@ -92,6 +125,143 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/extract/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ExtractionJobResponse> submitExtractionJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "store_id", required = false) Long storeId,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "engine", required = false) String engine) {
+
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(jobError("File is empty"));
+        }
+
+        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            return ResponseEntity.badRequest().body(jobError("File must be an image"));
+        }
+
+        if (!isValidEngine(storeId, engine)) {
+            return ResponseEntity.badRequest().body(jobError("Unknown engine: " + engine));
+        }
+
+        try {
+            String relativePath = uploadStorageService.store(file).imagePath();
+            Optional<List<ProductPrice>> reused = findReusableProducts(
+                    uploadStorageService.readBytes(relativePath), relativePath, storeId);
+            ExtractionJob job = reused.isPresent()
+                    ? extractionJobService.completeWithExisting(relativePath, storeId, location, reused.get())
+                    : extractionJobService.submit(relativePath, storeId, location, engine);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(extractionJobService.getJob(job.getId()).orElseThrow());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(jobError("Extraction queue is full, please retry later"));
+        } catch (IOException e) {
+            log.error("Error processing file", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(jobError("File processing error"));
+        }
+    }
+
+    @PostMapping(value = "/extract/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProductPrices(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "store_id", required = false) Long storeId,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "engine", required = false) String engine) {
+
+        if (file.isEmpty() || file.getContentType() == null || !file.getContentType().startsWith("image/")
+                || !isValidEngine(storeId, engine)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            String relativePath = uploadStorageService.store(file).imagePath();
+            byte[] imageBytes = uploadStorageService.readBytes(relativePath);
+
+            Optional<List<ProductPrice>> reused = findReusableProducts(imageBytes, relativePath, storeId);
+            if (reused.isPresent()) {
+                List<ProductPrice> existing = reused.get();
+                return ResponseEntity.ok(extractionStreamService.completed(new ProductPriceExtractResponse(
+                        true,
+                        existing,
+                        existing.size(),
+                        (int) existing.stream().filter(p -> "PENDING_REVIEW".equals(p.getStatus())).count(),
+                        "Near-duplicate image, reused " + existing.size() + " products"
+                )));
+            }
+
+            return ResponseEntity.ok(extractionStreamService.stream(imageBytes, relativePath, storeId, location, engine));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        } catch (IOException e) {
+            log.error("Error processing file", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping(value = "/extract/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> extractProductPricesBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "store_id", required = false) Long storeId,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "engine", required = false) String engine) {
+
+        if (files.isEmpty() || files.size() > extractionBatchConfig.getMaxFiles() || !isValidEngine(storeId, engine)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // 멀티파트 파트는 요청 스레드가 끝나면 정리되므로 스트리밍 시작 전에 모두 저장해둔다
+        List<BatchExtractionService.BatchImage> images = new ArrayList<>();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                if (file.isEmpty() || file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+                    return ResponseEntity.badRequest().build();
+                }
+                String relativePath = uploadStorageService.store(file).imagePath();
+                byte[] imageBytes = uploadStorageService.readBytes(relativePath);
+                images.add(new BatchExtractionService.BatchImage(
+                        i, file.getOriginalFilename(), relativePath, imageBytes,
+                        findReusableProducts(imageBytes, relativePath, storeId).orElse(null)));
+            }
+        } catch (IOException e) {
+            log.error("Error processing batch upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        try {
+            StreamingResponseBody body = batchExtractionService.extractAndStream(images, storeId, location, engine);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(body);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ExtractionJobResponse> getExtractionJob(@PathVariable String jobId) {
+        return extractionJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExtractionJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(extractionJobService.subscribe(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/list")
     public ResponseEntity<ProductPriceListResponse> getProductList(
             @RequestParam(defaultValue = "1") int page,
@@ -99,9 +269,20 @@ public class ProductController {
             @RequestParam(required = false) String product_name,
             @RequestParam(required = false) Long store_id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start_date,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end_date) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end_date,
+            @RequestParam(required = false) String cursor) {
 
-        Page<ProductPrice> productPage = productPriceService.getProductList(
+        // cursor 파라미터가 있으면(빈 값 = 첫 페이지) OFFSET/COUNT 없는 키셋 페이지네이션
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(toListResponse(productPriceService.getProductListByCursor(
+                        cursor, pageSize, product_name, store_id, start_date, end_date), pageSize));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        Page<ProductPriceSummary> productPage = productPriceService.getProductList(
                 page, pageSize, product_name, store_id, start_date, end_date);
 
         ProductPriceListResponse response = new ProductPriceListResponse(
@@ -118,9 +299,19 @@ public class ProductController {
     @GetMapping("/review")
     public ResponseEntity<ProductPriceListResponse> getPendingReviewProducts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int pageSize) {
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(toListResponse(
+                        productPriceService.getPendingReviewProductsByCursor(cursor, pageSize), pageSize));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
 
-        Page<ProductPrice> productPage = productPriceService.getPendingReviewProducts(page, pageSize);
+        Page<ProductPriceSummary> productPage = productPriceService.getPendingReviewProducts(page, pageSize);
 
         ProductPriceListResponse response = new ProductPriceListResponse(
                 productPage.getContent(),
@@ -148,15 +339,52 @@ public class ProductController {
     }
 
     @GetMapping("/store/{storeId}")
-    public ResponseEntity<List<ProductPrice>> getProductsByStore(
+    public ResponseEntity<List<ProductPriceSummary>> getProductsByStore(
             @PathVariable Long storeId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         
         LocalDateTime dateTime = date != null ? date.atStartOfDay() : null;
-        List<ProductPrice> products = productPriceService.getProductsByStoreAndDate(storeId, dateTime);
+        List<ProductPriceSummary> products = productPriceService.getProductsByStoreAndDate(storeId, dateTime);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * 기간 단위 전체 내보내기. 페이지 없이 서버 측 커서에서 읽은 행을 청크 응답으로 바로 흘려보낸다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<ResponseBodyEmitter> exportProducts(
+            @RequestParam(defaultValue = ProductPriceExportService.FORMAT_CSV) String format,
+            @RequestParam(required = false) Long store_id,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start_date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end_date,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (!ProductPriceExportService.FORMATS.contains(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "product_prices_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+                + "." + format + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : ProductPriceExportService.FORMAT_NDJSON.equals(format) ? MediaType.APPLICATION_NDJSON
+                : MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+        try {
+            // StreamingResponseBody 는 전역 async 시간 제한에 묶이므로 제한을 직접 정한 emitter 로 내보낸다
+            ResponseBodyEmitter body = productPriceExportService.stream(
+                    start_date, end_date, store_id, status, format, gzip);
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .body(body);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
     @PostMapping("/manual")
     public ResponseEntity<ProductPrice> createProductManually(
             @RequestParam Long store_id,
@@ -167,5 +395,53 @@ public class ProductController {
         ProductPrice product = productPriceService.createProductManually(store_id, product_name, price, extracted_at);
         return ResponseEntity.ok(product);
     }
-}
 
+    /**
+     * 업로드 사진의 perceptual hash 를 기록하고, 같은 거래처의 최근 유사 사진에 이미 추출된 제품이 있으면 돌려준다.
+     */
+    private Optional<List<ProductPrice>> findReusableProducts(byte[] imageBytes, String imagePath, Long storeId) {
+        ShelfImageService.Registration registration = shelfImageService.register(imageBytes, imagePath, storeId);
+        if (registration.duplicateOf().isEmpty() || !shelfImageService.isSkipExtraction()) {
+            return Optional.empty();
+        }
+
+        String duplicatePath = registration.duplicateOf().get().getImagePath();
+        // 같은 내용의 파일은 경로를 공유하므로 다른 거래처에서 추출된 제품은 제외한다
+        List<ProductPrice> existing = productPriceService.getProductsByImagePath(duplicatePath).stream()
+                .filter(p -> Objects.equals(p.getStore() != null ? p.getStore().getId() : null, storeId))
+                .toList();
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        log.info("Upload {} is a near-duplicate of {}; skipping extraction", imagePath, duplicatePath);
+        return Optional.of(existing);
+    }
+
+    private ProductPriceListResponse toListResponse(ProductPriceService.ProductSlice slice, int pageSize) {
+        return new ProductPriceListResponse(
+                slice.items(),
+                slice.approximateTotal(),
+                null,
+                pageSize,
+                null,
+                slice.nextCursor()
+        );
+    }
+
+    private boolean isValidEngine(Long storeId, String engine) {
+        try {
+            extractionEngineService.resolveMode(storeId, engine);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private ExtractionJobResponse jobError(String message) {
+        ExtractionJobResponse response = new ExtractionJobResponse();
+        response.setStatus("FAILED");
+        response.setExtractedProducts(List.of());
+        response.setMessage(message);
+        return response;
+    }
+}
@@ -4,10 +4,13 @@ import com.productprice.model.Store;
 import com.productprice.service.StoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,15 +26,30 @@ public class StoreController {
     public ResponseEntity<List<Store>> getAllStores(
             @RequestParam(required = false) String store_name,
             @RequestParam(required = false) String channel,
-            @RequestParam(required = false) String branch) {
-        
+            @RequestParam(required = false) String branch,
+            WebRequest request) {
+
+        // 목록은 거래처 디렉터리 내용 해시를 ETag 로 내려 브라우저가 304 로 재검증하게 한다
+        StoreService.StoreDirectory directory = storeService.getDirectory();
+        String etag = "\"" + directory.etag() + "\"";
+        long lastModified = directory.lastModified() != null
+                ? directory.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
         List<Store> stores;
         if (store_name != null || channel != null || branch != null) {
             stores = storeService.searchStores(store_name, channel, branch);
         } else {
-            stores = storeService.getAllStores();
+            stores = directory.stores();
         }
-        return ResponseEntity.ok(stores);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(stores);
     }
 
     @GetMapping("/{id}")
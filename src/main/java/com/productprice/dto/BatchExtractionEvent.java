@@ -0,0 +1,26 @@
+package com.productprice.dto;
+
+import com.productprice.model.ProductPrice;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 일괄 추출 응답 스트림(NDJSON)의 한 줄.
+ * type 이 IMAGE 이면 이미지 한 장의 결과, DONE 이면 저장까지 끝난 전체 요약이다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExtractionEvent {
+    private String type; // IMAGE, DONE
+    private Integer index;
+    private String filename;
+    private Boolean success;
+    private List<ProductPrice> extractedProducts;
+    private Integer count;
+    private Integer pendingReviewCount;
+    private String message;
+}
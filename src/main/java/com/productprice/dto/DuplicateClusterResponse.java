@@ -0,0 +1,17 @@
+package com.productprice.dto;
+
+import com.productprice.model.ShelfImage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateClusterResponse {
+    private Long storeId;
+    private Integer size;
+    private List<ShelfImage> images;
+}
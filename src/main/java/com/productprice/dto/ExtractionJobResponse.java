@@ -0,0 +1,25 @@
+package com.productprice.dto;
+
+import com.productprice.model.ProductPrice;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionJobResponse {
+    private String jobId;
+    private String status;
+    private String imagePath;
+    private Integer count;
+    private Integer pendingReviewCount;
+    private List<ProductPrice> extractedProducts;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
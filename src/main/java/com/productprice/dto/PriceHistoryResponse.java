@@ -0,0 +1,25 @@
+package com.productprice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryResponse {
+    private String productKey;
+    private String granularity; // daily, weekly
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<StoreSeries> series;
+
+    public record StoreSeries(Long storeId, String storeName, List<PricePoint> points) {}
+
+    public record PricePoint(LocalDate date, BigDecimal minPrice, BigDecimal maxPrice, BigDecimal avgPrice,
+                             long count) {}
+}
@@ -0,0 +1,6 @@
+package com.productprice.dto;
+
+/**
+ * 추출 엔진이 이미지에서 읽어낸 제품 한 건 (저장 전).
+ */
+public record ProductInfo(String productName, Double price, Double confidenceScore) {}
@@ -1,6 +1,5 @@
 package com.productprice.dto;
 
-import com.productprice.model.ProductPrice;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +10,16 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductPriceListResponse {
-    private List<ProductPrice> items;
+    private List<ProductPriceSummary> items;
     private Long total;
     private Integer page;
     private Integer pageSize;
     private Integer totalPages;
+    private String nextCursor; // 커서 페이지네이션일 때 다음 페이지 커서 (마지막 페이지면 null)
+
+    public ProductPriceListResponse(List<ProductPriceSummary> items, Long total, Integer page, Integer pageSize,
+                                    Integer totalPages) {
+        this(items, total, page, pageSize, totalPages, null);
+    }
 }
 
@@ -0,0 +1,12 @@
+package com.productprice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 목록/검수/거래처별 화면에 표시하는 컬럼만 담은 읽기 전용 행.
+ * JPQL 생성자 표현식으로 store 를 한 번에 조인해 읽으므로 엔티티와 metadata(JSONB) 를 로딩하지 않는다.
+ */
+public record ProductPriceSummary(Long id, String productName, BigDecimal price, String imagePath,
+                                  LocalDateTime extractedAt, Double confidenceScore, String status,
+                                  Long storeId, String storeName, String location) {}
@@ -0,0 +1,37 @@
+package com.productprice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 검수자가 제품명을 고쳤을 때 원래 추출된 표기를 고친 이름의 카탈로그 항목에 연결한다.
+ */
+@Entity
+@Table(name = "product_catalog_alias", indexes = {
+    @Index(name = "idx_product_catalog_alias_normalized_name", columnList = "normalized_name", unique = true),
+    @Index(name = "idx_product_catalog_alias_catalog", columnList = "catalog_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogAlias {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "normalized_name", nullable = false, length = 200)
+    private String normalizedName;
+
+    @Column(name = "catalog_id", nullable = false)
+    private Long catalogId;
+
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
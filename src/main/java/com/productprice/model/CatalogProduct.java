@@ -0,0 +1,33 @@
+package com.productprice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "product_catalog", indexes = {
+    @Index(name = "idx_product_catalog_normalized_name", columnList = "normalized_name", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogProduct {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "canonical_name", nullable = false, length = 200)
+    private String canonicalName; // 화면에 보여줄 대표 이름
+
+    @Column(name = "normalized_name", nullable = false, length = 200)
+    private String normalizedName; // ProductNameNormalizer 결과
+
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,64 @@
+package com.productprice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Entity
+@Table(name = "extraction_job", indexes = {
+    @Index(name = "idx_extraction_job_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    @Column(name = "image_path", nullable = false, length = 500)
+    private String imagePath;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "location", length = 200)
+    private String location;
+
+    @Column(name = "engine", length = 20)
+    private String engine; // 요청에서 지정한 추출 엔진 (없으면 거래처/기본 설정)
+
+    @Column(name = "product_ids", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<Long> productIds; // 추출 완료 후 저장된 product_price id 목록
+
+    @Column(name = "product_count")
+    private Integer productCount;
+
+    @Column(name = "pending_review_count")
+    private Integer pendingReviewCount;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "product_price", indexes = {
     @Index(name = "idx_product_name", columnList = "product_name"),
-    @Index(name = "idx_extracted_at", columnList = "extracted_at")
+    @Index(name = "idx_extracted_at", columnList = "extracted_at"),
+    @Index(name = "idx_product_price_keyset", columnList = "extracted_at DESC, id DESC"),
+    @Index(name = "idx_product_price_status_keyset", columnList = "status, extracted_at DESC, id DESC"),
+    @Index(name = "idx_product_price_catalog", columnList = "catalog_id, extracted_at DESC")
 })
 @Data
 @NoArgsConstructor
@@ -23,8 +26,15 @@ import java.time.LocalDateTime;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ProductPrice {
 
+    public static final String ID_SEQUENCE = "product_price_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // IDENTITY 는 INSERT 마다 생성 키를 돌려받아야 해서 JDBC 배치가 꺼진다.
+    // 시퀀스를 50 단위로 증가시키고 pooled 방식으로 메모리에서 ID 를 나눠준다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_price_id_gen")
+    @SequenceGenerator(name = "product_price_id_gen", sequenceName = ID_SEQUENCE,
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "product_name", nullable = false, length = 200)
@@ -36,7 +46,7 @@ public class ProductPrice {
     @Column(name = "image_path", length = 500)
     private String imagePath;
 
-    @Column(name = "extracted_at")
+    @Column(name = "extracted_at", nullable = false) // 월 단위 파티션 키
     @CreationTimestamp
     private LocalDateTime extractedAt;
 
@@ -58,5 +68,8 @@ public class ProductPrice {
     @JoinColumn(name = "store_id")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Store store; // 거래처 정보
+
+    @Column(name = "catalog_id")
+    private Long catalogId; // product_catalog 대표 제품, 표기가 달라도 같은 제품이면 같은 값
 }
 
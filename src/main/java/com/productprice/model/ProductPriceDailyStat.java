@@ -0,0 +1,48 @@
+package com.productprice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 거래처 · 추출일 · 상태별 제품 수. 제품 저장/검수 시 증감으로 갱신하며 대시보드 통계는 이 표만 읽는다.
+ */
+@Entity
+@Table(name = "product_price_daily_stat", indexes = {
+    @Index(name = "idx_daily_stat_date", columnList = "stat_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPriceDailyStat {
+
+    public static final long NO_STORE = 0L;
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "store_id", nullable = false)
+        private Long storeId; // 거래처 없음 = 0
+
+        @Column(name = "stat_date", nullable = false)
+        private LocalDate statDate;
+
+        @Column(name = "status", nullable = false, length = 50)
+        private String status;
+    }
+}
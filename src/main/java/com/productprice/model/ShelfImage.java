@@ -0,0 +1,40 @@
+package com.productprice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "shelf_image", indexes = {
+    @Index(name = "idx_shelf_image_store_created", columnList = "store_id, created_at"),
+    @Index(name = "idx_shelf_image_path", columnList = "image_path")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShelfImage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "image_path", nullable = false, length = 500)
+    private String imagePath;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "dhash")
+    private Long dhash; // 64비트 perceptual hash, 디코딩 실패 시 null
+
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId; // 업로드 시점에 찾은 가장 가까운 유사 이미지
+
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.productprice.repository;
+
+import com.productprice.model.CatalogAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogAliasRepository extends JpaRepository<CatalogAlias, Long> {
+
+    Optional<CatalogAlias> findByNormalizedName(String normalizedName);
+}
@@ -0,0 +1,29 @@
+package com.productprice.repository;
+
+import com.productprice.model.CatalogProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogProductRepository extends JpaRepository<CatalogProduct, Long> {
+
+    Optional<CatalogProduct> findByNormalizedName(String normalizedName);
+
+    /**
+     * 없을 때만 만든다. 같은 이름이 이미 있으면(다른 트랜잭션이 먼저 만든 경우 포함) 오류 대신 빈 목록을 돌려주므로
+     * 호출한 쪽 트랜잭션이 중단되지 않는다. 이때는 findByNormalizedName 으로 기존 행을 읽는다.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO product_catalog (canonical_name, normalized_name, created_at) " +
+                   "VALUES (:canonicalName, :normalizedName, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (normalized_name) DO NOTHING RETURNING id",
+           nativeQuery = true)
+    List<Long> insertIfAbsent(@Param("canonicalName") String canonicalName,
+                              @Param("normalizedName") String normalizedName);
+}
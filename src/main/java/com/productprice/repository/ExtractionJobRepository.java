@@ -0,0 +1,14 @@
+package com.productprice.repository;
+
+import com.productprice.model.ExtractionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExtractionJobRepository extends JpaRepository<ExtractionJob, String> {
+
+    List<ExtractionJob> findByStatusInOrderByCreatedAtAsc(Collection<String> statuses);
+}
@@ -0,0 +1,139 @@
+package com.productprice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 가격 관측값(월 단위 파티션)과 일/주 단위 롤업 표에 대한 JDBC 접근.
+ * 파티션 테이블은 JPA 스키마 자동 생성으로 만들 수 없으므로 엔티티 대신 SQL 로 직접 다룬다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceHistoryRepository {
+
+    public static final String GRANULARITY_DAILY = "daily";
+    public static final String GRANULARITY_WEEKLY = "weekly";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Observation(String productKey, String productName, long storeId, BigDecimal price,
+                              LocalDateTime observedAt, Long productPriceId) {}
+
+    public record RollupRow(String productKey, long storeId, LocalDate bucket, BigDecimal minPrice, BigDecimal maxPrice,
+                            BigDecimal sumPrice, long count) {}
+
+    public void createSchemaIfMissing() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS price_observation (" +
+                "product_key VARCHAR(200) NOT NULL, " +
+                "product_name VARCHAR(200) NOT NULL, " +
+                "store_id BIGINT NOT NULL, " +
+                "price DECIMAL(10,2) NOT NULL, " +
+                "observed_at TIMESTAMP NOT NULL, " +
+                "product_price_id BIGINT" +
+                ") PARTITION BY RANGE (observed_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_price_observation_key " +
+                "ON price_observation(product_key, observed_at)");
+        for (String table : List.of(rollupTable(GRANULARITY_DAILY), rollupTable(GRANULARITY_WEEKLY))) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "product_key VARCHAR(200) NOT NULL, " +
+                    "bucket_date DATE NOT NULL, " +
+                    "store_id BIGINT NOT NULL, " +
+                    "min_price DECIMAL(10,2) NOT NULL, " +
+                    "max_price DECIMAL(10,2) NOT NULL, " +
+                    "sum_price DECIMAL(14,2) NOT NULL, " +
+                    "observation_count BIGINT NOT NULL, " +
+                    "PRIMARY KEY (product_key, bucket_date, store_id))");
+        }
+    }
+
+    public void createMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS price_observation_" + month.format(PARTITION_SUFFIX) +
+                " PARTITION OF price_observation FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                month.plusMonths(1).atDay(1) + "')");
+    }
+
+    public void insertObservations(List<Observation> observations) {
+        jdbcTemplate.batchUpdate("INSERT INTO price_observation " +
+                        "(product_key, product_name, store_id, price, observed_at, product_price_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                observations, observations.size(), (ps, observation) -> {
+                    ps.setString(1, observation.productKey());
+                    ps.setString(2, observation.productName());
+                    ps.setLong(3, observation.storeId());
+                    ps.setBigDecimal(4, observation.price());
+                    ps.setTimestamp(5, Timestamp.valueOf(observation.observedAt()));
+                    if (observation.productPriceId() != null) {
+                        ps.setLong(6, observation.productPriceId());
+                    } else {
+                        ps.setNull(6, Types.BIGINT);
+                    }
+                });
+    }
+
+    /**
+     * 롤업 행에 관측값 묶음을 합친다. min/max 는 LEAST/GREATEST, 합계와 건수는 더한다.
+     */
+    public void mergeRollups(String granularity, List<RollupRow> rows) {
+        String table = rollupTable(granularity);
+        jdbcTemplate.batchUpdate("INSERT INTO " + table +
+                        " (product_key, bucket_date, store_id, min_price, max_price, sum_price, observation_count) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (product_key, bucket_date, store_id) DO UPDATE SET " +
+                        "min_price = LEAST(" + table + ".min_price, EXCLUDED.min_price), " +
+                        "max_price = GREATEST(" + table + ".max_price, EXCLUDED.max_price), " +
+                        "sum_price = " + table + ".sum_price + EXCLUDED.sum_price, " +
+                        "observation_count = " + table + ".observation_count + EXCLUDED.observation_count",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.productKey());
+                    ps.setDate(2, Date.valueOf(row.bucket()));
+                    ps.setLong(3, row.storeId());
+                    ps.setBigDecimal(4, row.minPrice());
+                    ps.setBigDecimal(5, row.maxPrice());
+                    ps.setBigDecimal(6, row.sumPrice());
+                    ps.setLong(7, row.count());
+                });
+    }
+
+    /**
+     * 한 제품의 기간 내 롤업을 거래처 · 구간 순으로 읽는다. storeId 가 null 이면 전체 거래처.
+     */
+    public List<RollupRow> findRollups(String granularity, String productKey, Long storeId,
+                                       LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT product_key, store_id, bucket_date, min_price, max_price, sum_price, observation_count FROM " +
+                rollupTable(granularity) + " WHERE product_key = ? AND bucket_date BETWEEN ? AND ?" +
+                (storeId != null ? " AND store_id = ?" : "") +
+                " ORDER BY store_id, bucket_date";
+        Object[] args = storeId != null
+                ? new Object[]{productKey, Date.valueOf(startDate), Date.valueOf(endDate), storeId}
+                : new Object[]{productKey, Date.valueOf(startDate), Date.valueOf(endDate)};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RollupRow(
+                rs.getString("product_key"),
+                rs.getLong("store_id"),
+                rs.getDate("bucket_date").toLocalDate(),
+                rs.getBigDecimal("min_price"),
+                rs.getBigDecimal("max_price"),
+                rs.getBigDecimal("sum_price"),
+                rs.getLong("observation_count")), args);
+    }
+
+    private static String rollupTable(String granularity) {
+        return switch (granularity) {
+            case GRANULARITY_DAILY -> "price_rollup_daily";
+            case GRANULARITY_WEEKLY -> "price_rollup_weekly";
+            default -> throw new IllegalArgumentException("Unknown granularity: " + granularity);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.productprice.repository;
+
+import com.productprice.model.ProductPrice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 제품 저장용 JDBC 경로. 영속성 컨텍스트와 엔티티 상태 추적을 거치지 않고
+ * reWriteBatchedInserts 로 multi-row INSERT 가 되도록 배치로 보낸다.
+ * ID 는 JPA 와 같은 pooled 시퀀스에서 블록 단위로 받아 충돌하지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductPriceBulkRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO product_price "
+            + "(id, product_name, price, image_path, extracted_at, created_at, metadata, confidence_score, status, store_id, "
+            + "catalog_id) VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 제품을 배치로 INSERT 하고 할당한 ID 와 생성 시각을 엔티티에 채워 돌려준다.
+     * 반환된 엔티티는 영속성 컨텍스트에 없는(detached) 상태다.
+     */
+    public List<ProductPrice> insertAll(List<ProductPrice> products, int chunkSize) {
+        if (products.isEmpty()) {
+            return products;
+        }
+
+        List<Long> ids = allocateIds(products.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < products.size(); i++) {
+            ProductPrice product = products.get(i);
+            product.setId(ids.get(i));
+            if (product.getExtractedAt() == null) {
+                product.setExtractedAt(now);
+            }
+            if (product.getCreatedAt() == null) {
+                product.setCreatedAt(now);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, chunkSize, (ps, product) -> {
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getProductName());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setString(4, product.getImagePath());
+            ps.setTimestamp(5, Timestamp.valueOf(product.getExtractedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(product.getCreatedAt()));
+            ps.setString(7, product.getMetadata());
+            if (product.getConfidenceScore() != null) {
+                ps.setDouble(8, product.getConfidenceScore());
+            } else {
+                ps.setNull(8, Types.DOUBLE);
+            }
+            ps.setString(9, product.getStatus());
+            if (product.getStore() != null) {
+                ps.setLong(10, product.getStore().getId());
+            } else {
+                ps.setNull(10, Types.BIGINT);
+            }
+            if (product.getCatalogId() != null) {
+                ps.setLong(11, product.getCatalogId());
+            } else {
+                ps.setNull(11, Types.BIGINT);
+            }
+        });
+        return products;
+    }
+
+    /**
+     * nextval 한 번이 (값 - 49 .. 값) 블록을 뜻하는 Hibernate pooled 규칙대로 ID 를 할당한다.
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ProductPrice.ID_ALLOCATION_SIZE - 1) / ProductPrice.ID_ALLOCATION_SIZE;
+            List<Long> highs = jdbcTemplate.queryForList(
+                    "SELECT nextval('" + ProductPrice.ID_SEQUENCE + "') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long high : highs) {
+                // 새 시퀀스의 첫 값(1)은 블록 하한이 음수가 되므로 1 부터 쓴다
+                long low = Math.max(1, high - ProductPrice.ID_ALLOCATION_SIZE + 1);
+                for (long id = low; id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
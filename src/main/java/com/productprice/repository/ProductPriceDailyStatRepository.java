@@ -0,0 +1,46 @@
+package com.productprice.repository;
+
+import com.productprice.model.ProductPriceDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductPriceDailyStatRepository
+        extends JpaRepository<ProductPriceDailyStat, ProductPriceDailyStat.Key> {
+
+    /**
+     * 카운터를 delta 만큼 원자적으로 증감한다 (행이 없으면 생성).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_price_daily_stat (store_id, stat_date, status, product_count) " +
+                   "VALUES (:storeId, :statDate, :status, :delta) " +
+                   "ON CONFLICT (store_id, stat_date, status) " +
+                   "DO UPDATE SET product_count = product_price_daily_stat.product_count + EXCLUDED.product_count",
+           nativeQuery = true)
+    int increment(@Param("storeId") long storeId,
+                  @Param("statDate") LocalDate statDate,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    /**
+     * product_price 전체를 한 번 집계해 카운터를 다시 만든다. 통계 표가 비어 있을 때만 사용한다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_price_daily_stat (store_id, stat_date, status, product_count) " +
+                   "SELECT COALESCE(store_id, 0), CAST(COALESCE(extracted_at, created_at) AS DATE), " +
+                   "COALESCE(status, 'UNKNOWN'), COUNT(*) FROM product_price GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int rebuildFromProducts();
+
+    List<ProductPriceDailyStat> findByIdStatDateBetween(LocalDate startDate, LocalDate endDate);
+
+    List<ProductPriceDailyStat> findByIdStoreIdInAndIdStatDateBetween(
+            Collection<Long> storeIds, LocalDate startDate, LocalDate endDate);
+}
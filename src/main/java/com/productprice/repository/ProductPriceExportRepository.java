@@ -0,0 +1,60 @@
+package com.productprice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 제품 가격 대량 내보내기용 JDBC 접근. 엔티티를 만들지 않고 ResultSet 을 그대로 넘긴다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductPriceExportRepository {
+
+    public static final List<String> EXPORT_COLUMNS = List.of(
+            "id", "product_name", "price", "extracted_at", "status", "confidence_score",
+            "store_id", "store_name", "location", "image_path");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 조건에 맞는 행을 (extracted_at, id) 순으로 커서에서 한 묶음씩 읽어 handler 에 넘긴다.
+     * PostgreSQL 드라이버는 자동 커밋이 꺼진 트랜잭션 안에서만 fetch size 만큼 나눠 읽으므로 트랜잭션 안에서 호출해야 한다.
+     */
+    public void streamRows(LocalDateTime startDate, LocalDateTime endDate, Long storeId, String status,
+                           int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.id, p.product_name, p.price, p.extracted_at, p.status, p.confidence_score, " +
+                "p.store_id, s.store_name, p.metadata ->> 'location' AS location, p.image_path " +
+                "FROM product_price p LEFT JOIN store s ON s.id = p.store_id WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        // extracted_at 조건은 파티션 프루닝에도 쓰인다
+        if (startDate != null) {
+            sql.append(" AND p.extracted_at >= ?");
+            args.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND p.extracted_at <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        if (storeId != null) {
+            sql.append(" AND p.store_id = ?");
+            args.add(storeId);
+        }
+        if (status != null) {
+            sql.append(" AND p.status = ?");
+            args.add(status);
+        }
+        sql.append(" ORDER BY p.extracted_at, p.id");
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        streaming.query(sql.toString(), handler, args.toArray());
+    }
+}
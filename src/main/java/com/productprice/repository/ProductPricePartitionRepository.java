@@ -0,0 +1,95 @@
+package com.productprice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * product_price 월 파티션의 생성 · 조회 · 내보내기 · 분리를 위한 JDBC 접근.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductPricePartitionRepository {
+
+    public static final String PARTITION_PREFIX = "product_price_";
+    public static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    public static final String EXPORT_COLUMNS = "id, product_name, price, image_path, extracted_at, created_at, "
+            + "metadata, confidence_score, status, store_id, catalog_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record PartitionInfo(String name, long estimatedRows) {}
+
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'product_price' AND relkind = 'p')",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    public List<PartitionInfo> findPartitions() {
+        return jdbcTemplate.query(
+                "SELECT c.relname, CAST(GREATEST(c.reltuples, 0) AS BIGINT) AS estimated_rows " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'product_price' ORDER BY c.relname",
+                (rs, rowNum) -> new PartitionInfo(rs.getString("relname"), rs.getLong("estimated_rows")));
+    }
+
+    public void createMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                " PARTITION OF product_price FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                month.plusMonths(1).atDay(1) + "')");
+    }
+
+    public long countRows(YearMonth month) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partitionName(month), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 파티션의 행을 커서로 한 묶음씩 읽어 handler 에 넘긴다. 트랜잭션 안에서 호출해야 fetch size 가 적용된다.
+     */
+    public void streamRows(YearMonth month, int fetchSize, RowCallbackHandler handler) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        streaming.query("SELECT " + EXPORT_COLUMNS + " FROM " + partitionName(month) + " ORDER BY id", handler);
+    }
+
+    public void detachPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE product_price DETACH PARTITION " + partitionName(month));
+    }
+
+    /**
+     * 파티션의 행을 product_price_daily_stat 카운터에서 뺀다. 집계 기준은 ProductPriceDailyStatRepository.rebuildFromProducts
+     * 와 같으며, 0 이 된 그 달의 카운터 행은 지운다.
+     */
+    public int subtractDailyStats(YearMonth month) {
+        int updated = jdbcTemplate.update(
+                "UPDATE product_price_daily_stat s SET product_count = s.product_count - a.product_count " +
+                "FROM (SELECT COALESCE(store_id, 0) AS store_id, " +
+                "CAST(COALESCE(extracted_at, created_at) AS DATE) AS stat_date, " +
+                "COALESCE(status, 'UNKNOWN') AS status, COUNT(*) AS product_count " +
+                "FROM " + partitionName(month) + " GROUP BY 1, 2, 3) a " +
+                "WHERE s.store_id = a.store_id AND s.stat_date = a.stat_date AND s.status = a.status");
+        jdbcTemplate.update("DELETE FROM product_price_daily_stat " +
+                "WHERE product_count <= 0 AND stat_date >= ? AND stat_date < ?",
+                month.atDay(1), month.plusMonths(1).atDay(1));
+        return updated;
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
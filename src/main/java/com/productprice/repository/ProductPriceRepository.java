@@ -1,5 +1,6 @@
 package com.productprice.repository;
 
+import com.productprice.dto.ProductPriceSummary;
 import com.productprice.model.ProductPrice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,14 +17,23 @@ public interface ProductPriceRepository extends JpaRepository<ProductPrice, Long
 
     Page<ProductPrice> findByProductNameContainingIgnoreCase(String productName, Pageable pageable);
 
-    Page<ProductPrice> findByStatus(String status, Pageable pageable);
+    /**
+     * 목록 조회용 프로젝션. store 는 같은 쿼리에서 LEFT JOIN 으로 읽고, location 만 metadata 에서 꺼낸다.
+     */
+    String SUMMARY_SELECT = "SELECT new com.productprice.dto.ProductPriceSummary(" +
+           "p.id, p.productName, p.price, p.imagePath, p.extractedAt, p.confidenceScore, p.status, " +
+           "s.id, s.storeName, CAST(FUNCTION('jsonb_extract_path_text', p.metadata, 'location') AS String)) " +
+           "FROM ProductPrice p LEFT JOIN p.store s ";
 
-    @Query("SELECT p FROM ProductPrice p WHERE " +
+    String FILTER_CONDITIONS =
            "(:productName IS NULL OR :productName = '' OR LOWER(p.productName) LIKE LOWER(CONCAT('%', :productName, '%'))) AND " +
            "(:storeId IS NULL OR p.store.id = :storeId) AND " +
            "(:startDate IS NULL OR p.extractedAt >= :startDate) AND " +
-           "(:endDate IS NULL OR p.extractedAt <= :endDate)")
-    Page<ProductPrice> findWithFilters(
+           "(:endDate IS NULL OR p.extractedAt <= :endDate)";
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS + " ORDER BY p.extractedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM ProductPrice p WHERE " + FILTER_CONDITIONS)
+    Page<ProductPriceSummary> findSummariesWithFilters(
             @Param("productName") String productName,
             @Param("storeId") Long storeId,
             @Param("startDate") LocalDateTime startDate,
@@ -31,14 +41,132 @@ public interface ProductPriceRepository extends JpaRepository<ProductPrice, Long
             Pageable pageable
     );
 
-    List<ProductPrice> findByStoreIdOrderByExtractedAtDesc(Long storeId);
-    
-    List<ProductPrice> findByStoreIdAndExtractedAtBetweenOrderByExtractedAtDesc(
-            Long storeId, 
-            LocalDateTime startDate, 
-            LocalDateTime endDate
+    @Query(value = SUMMARY_SELECT + "WHERE p.status = :status ORDER BY p.extractedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM ProductPrice p WHERE p.status = :status")
+    Page<ProductPriceSummary> findSummariesByStatus(@Param("status") String status, Pageable pageable);
+
+    /**
+     * 표기와 상관없이 같은 카탈로그 제품으로 연결된 행. LIKE 대신 (catalog_id, extracted_at) 인덱스를 탄다.
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.catalogId = :catalogId ORDER BY p.extractedAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM ProductPrice p WHERE p.catalogId = :catalogId")
+    Page<ProductPriceSummary> findSummariesByCatalogId(@Param("catalogId") Long catalogId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductPriceSummary> findSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE p.store.id = :storeId AND " +
+           "(:startDate IS NULL OR p.extractedAt >= :startDate) AND " +
+           "(:endDate IS NULL OR p.extractedAt <= :endDate) " +
+           "ORDER BY p.extractedAt DESC, p.id DESC")
+    List<ProductPriceSummary> findSummariesByStore(
+            @Param("storeId") Long storeId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
+
+    /**
+     * pg_trgm 기반 제품명 검색. 부분 일치(LIKE)와 단어 유사도(<%) 후보를 GIN 인덱스로 찾고 유사도 순으로 정렬한다.
+     * 순위가 매겨진 ID 만 돌려주며 표시 컬럼은 findSummariesByIdIn 으로 읽는다.
+     */
+    @Query(value = "SELECT p.id FROM product_price p WHERE " +
+           "(LOWER(p.product_name) LIKE '%' || LOWER(:productName) || '%' " +
+           " OR LOWER(:productName) <% LOWER(p.product_name)) AND " +
+           "(CAST(:storeId AS BIGINT) IS NULL OR p.store_id = :storeId) AND " +
+           "(CAST(:startDate AS TIMESTAMP) IS NULL OR p.extracted_at >= :startDate) AND " +
+           "(CAST(:endDate AS TIMESTAMP) IS NULL OR p.extracted_at <= :endDate) " +
+           "ORDER BY word_similarity(LOWER(:productName), LOWER(p.product_name)) DESC, p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM product_price p WHERE " +
+           "(LOWER(p.product_name) LIKE '%' || LOWER(:productName) || '%' " +
+           " OR LOWER(:productName) <% LOWER(p.product_name)) AND " +
+           "(CAST(:storeId AS BIGINT) IS NULL OR p.store_id = :storeId) AND " +
+           "(CAST(:startDate AS TIMESTAMP) IS NULL OR p.extracted_at >= :startDate) AND " +
+           "(CAST(:endDate AS TIMESTAMP) IS NULL OR p.extracted_at <= :endDate)",
+           nativeQuery = true)
+    Page<Long> searchIdsByProductName(
+            @Param("productName") String productName,
+            @Param("storeId") Long storeId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
     );
 
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", nativeQuery = true)
+    boolean isTrigramExtensionInstalled();
+
+    /**
+     * (extractedAt, id) 키셋 페이지네이션 다음 페이지 조건. 앞의 extractedAt <= :cursorAt 이 인덱스 범위의 상한이 되고,
+     * 괄호 안은 같은 시각의 행 중 이미 읽은 것만 걸러낸다. (:cursorAt IS NULL OR ...) 형태는 플래너가 범위로 쓰지 못한다.
+     */
+    String CURSOR_CONDITION =
+           "p.extractedAt <= :cursorAt AND (p.extractedAt < :cursorAt OR p.id < :cursorId)";
+
+    /**
+     * 키셋 페이지네이션 첫 페이지. pageable 은 LIMIT 용으로만 쓰며 COUNT 쿼리를 실행하지 않는다.
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS + " ORDER BY p.extractedAt DESC, p.id DESC")
+    List<ProductPriceSummary> findFirstSummariesWithFilters(
+            @Param("productName") String productName,
+            @Param("storeId") Long storeId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
+
+    /**
+     * 커서 (cursorAt, cursorId) 다음 페이지. 두 값 모두 null 이면 안 된다.
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS + " AND " + CURSOR_CONDITION +
+           " ORDER BY p.extractedAt DESC, p.id DESC")
+    List<ProductPriceSummary> findSummariesWithFiltersAfter(
+            @Param("productName") String productName,
+            @Param("storeId") Long storeId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(p) FROM ProductPrice p WHERE " + FILTER_CONDITIONS)
+    long countWithFilters(
+            @Param("productName") String productName,
+            @Param("storeId") Long storeId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status ORDER BY p.extractedAt DESC, p.id DESC")
+    List<ProductPriceSummary> findFirstSummariesByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND " + CURSOR_CONDITION +
+           " ORDER BY p.extractedAt DESC, p.id DESC")
+    List<ProductPriceSummary> findSummariesByStatusAfter(
+            @Param("status") String status,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    long countByStatus(String status);
+
+    /**
+     * 통계 정보(ANALYZE)에 기록된 행 수 추정치. 파티션된 부모 테이블은 autovacuum 이 분석하지 않아 reltuples 가
+     * 비어 있으므로 파티션들의 추정치를 더한다 (분석 전인 파티션은 -1 이라 뺀다). 파티션이 아니면 테이블 자체의 값.
+     * 분석된 것이 하나도 없으면 -1.
+     */
+    String ESTIMATE_ROW_COUNT = "SELECT COALESCE(" +
+           "(SELECT CAST(SUM(c.reltuples) AS BIGINT) FROM pg_inherits i " +
+           " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+           " WHERE p.relname = 'product_price' AND c.reltuples >= 0), " +
+           "(SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = 'product_price' AND relkind = 'r'), " +
+           "-1)";
+
+    @Query(value = ESTIMATE_ROW_COUNT, nativeQuery = true)
+    Long estimateRowCount();
+
     List<ProductPrice> findByStatusOrderByExtractedAtDesc(String status);
+
+    List<ProductPrice> findByImagePathOrderByIdAsc(String imagePath);
 }
 
@@ -0,0 +1,20 @@
+package com.productprice.repository;
+
+import com.productprice.model.ShelfImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ShelfImageRepository extends JpaRepository<ShelfImage, Long> {
+
+    List<ShelfImage> findByDhashIsNotNullAndCreatedAtAfter(LocalDateTime createdAt);
+
+    List<ShelfImage> findByStoreIdAndDhashIsNotNullAndCreatedAtBetweenOrderByCreatedAtAsc(
+            Long storeId,
+            LocalDateTime startDate,
+            LocalDateTime endDate
+    );
+}
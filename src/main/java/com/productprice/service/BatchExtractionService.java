@@ -0,0 +1,192 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ExtractionBatchConfig;
+import com.productprice.dto.BatchExtractionEvent;
+import com.productprice.dto.ProductInfo;
+import com.productprice.model.ProductPrice;
+import com.productprice.model.Store;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchExtractionService {
+
+    private final ExtractionEngineService extractionEngineService;
+    private final ProductPriceService productPriceService;
+    private final ExtractionBatchConfig batchConfig;
+    private final ObjectMapper objectMapper;
+
+    private ThreadPoolExecutor extractionBatchExecutor;
+
+    @PostConstruct
+    public void initExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        extractionBatchExecutor = new ThreadPoolExecutor(
+                batchConfig.getConcurrency(),
+                batchConfig.getConcurrency(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchConfig.getMaxQueueDepth()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "extraction-batch-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        extractionBatchExecutor.shutdownNow();
+    }
+
+    /**
+     * reusedProducts 가 있으면 중복 사진이므로 추출하지 않고 기존 결과를 그대로 돌려준다.
+     */
+    public record BatchImage(int index, String filename, String imagePath, byte[] imageBytes,
+                             List<ProductPrice> reusedProducts) {}
+
+    private record ImageResult(BatchImage image, List<ProductPrice> products, String error) {
+
+        private boolean reused() {
+            return image.reusedProducts() != null;
+        }
+    }
+
+    /**
+     * 이미지 추출을 모두 대기열에 넣고, 끝나는 순서대로 결과를 한 줄씩 쓰는 응답 본문을 돌려준다.
+     * 대기열에 다 들어가지 못하면 이미 넣은 이미지를 취소하고 RejectedExecutionException 을 던진다 (응답 시작 전).
+     * 각 이미지의 제품은 추출이 끝나는 즉시 작업 스레드에서 저장하므로, 클라이언트가 중간에 끊겨도
+     * 이미 비용을 들여 추출한 결과는 남는다. 끊기면 아직 시작하지 않은 이미지는 취소한다.
+     */
+    public StreamingResponseBody extractAndStream(List<BatchImage> images, Long storeId, String location,
+                                                  String engine) {
+        Store store = productPriceService.findStore(storeId);
+
+        // 끝난 작업이 끝난 순서대로 쌓인다. 작업을 감싸지 않고 그대로 넣어야 취소 후 purge 로 대기열에서 뺄 수 있다
+        BlockingQueue<Future<ImageResult>> completed = new LinkedBlockingQueue<>();
+        List<Future<ImageResult>> futures = new ArrayList<>();
+        try {
+            for (BatchImage image : images) {
+                FutureTask<ImageResult> task = new FutureTask<>(() -> extract(image, store, location, engine)) {
+                    @Override
+                    protected void done() {
+                        completed.add(this);
+                    }
+                };
+                extractionBatchExecutor.execute(task);
+                futures.add(task);
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            // 취소한 작업이 대기열 자리를 차지하지 않도록 바로 걷어낸다
+            extractionBatchExecutor.purge();
+            throw e;
+        }
+        return out -> streamResults(images, completed, futures, out);
+    }
+
+    private void streamResults(List<BatchImage> images, BlockingQueue<Future<ImageResult>> completed,
+                               List<Future<ImageResult>> futures, OutputStream out) throws IOException {
+        try {
+            List<ProductPrice> savedProducts = new ArrayList<>();
+            int failCount = 0;
+            for (int i = 0; i < images.size(); i++) {
+                ImageResult result = take(completed);
+                if (result.error() != null) {
+                    failCount++;
+                    writeLine(out, new BatchExtractionEvent("IMAGE", result.image().index(),
+                            result.image().filename(), false, List.of(), 0, 0, result.error()));
+                    continue;
+                }
+
+                String message;
+                if (result.reused()) {
+                    message = "Near-duplicate image, reused " + result.products().size() + " products";
+                } else {
+                    savedProducts.addAll(result.products());
+                    message = "Successfully extracted " + result.products().size() + " products";
+                }
+                writeLine(out, new BatchExtractionEvent("IMAGE", result.image().index(), result.image().filename(),
+                        true, result.products(), result.products().size(), countPending(result.products()),
+                        message));
+            }
+
+            writeLine(out, new BatchExtractionEvent("DONE", null, null, true, savedProducts, savedProducts.size(),
+                    countPending(savedProducts),
+                    "Processed " + images.size() + " images (" + failCount + " failed), saved "
+                            + savedProducts.size() + " products"));
+        } finally {
+            // 정상 종료면 모두 끝난 뒤라 영향이 없다. 진행 중인 이미지는 끝까지 돌아 스스로 저장한다
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private ImageResult extract(BatchImage image, Store store, String location, String engine) {
+        if (image.reusedProducts() != null) {
+            return new ImageResult(image, image.reusedProducts(), null);
+        }
+        List<ProductPrice> products;
+        try {
+            List<ProductInfo> infos = extractionEngineService.extract(image.imageBytes(),
+                    UploadStorageService.contentHashOf(image.imagePath()), store != null ? store.getId() : null, engine);
+            products = productPriceService.buildProductPrices(infos, image.imagePath(), store, location);
+        } catch (Exception e) {
+            log.error("Error extracting products from {}", image.filename(), e);
+            return new ImageResult(image, List.of(), "Failed to extract products");
+        }
+        try {
+            return new ImageResult(image, productPriceService.saveExtractedProducts(products), null);
+        } catch (Exception e) {
+            log.error("Error saving products extracted from {}", image.filename(), e);
+            return new ImageResult(image, List.of(), "Failed to save extracted products");
+        }
+    }
+
+    private ImageResult take(BlockingQueue<Future<ImageResult>> completed) throws IOException {
+        try {
+            Future<ImageResult> future = completed.take();
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch extraction interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch extraction failed", e.getCause());
+        }
+    }
+
+    private int countPending(List<ProductPrice> products) {
+        return (int) products.stream()
+                .filter(p -> "PENDING_REVIEW".equals(p.getStatus()))
+                .count();
+    }
+
+    private void writeLine(OutputStream out, BatchExtractionEvent event) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(event));
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -0,0 +1,118 @@
+package com.productprice.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HikariCP 가 알려주는 커넥션 대기 시간(acquire)과 점유 시간(usage)을 모은다.
+ * 외부 API 호출 중에 커넥션을 붙잡고 있으면 점유 시간이 초 단위로 튀므로 이 값으로 확인한다.
+ * 풀에는 트래커 팩토리를 하나만 붙일 수 있고 이미 붙어 있으면 Spring Boot 가 hikaricp_* 지표를 연결하지 않으므로,
+ * 같은 기록을 Micrometer 트래커에도 넘긴다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private static final long SLOW_HOLD_MS = 1_000;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timing acquire = new Timing();
+    private final Timing usage = new Timing();
+    private volatile PoolStats poolStats;
+    private volatile String poolName;
+    private long timeouts;
+    private long slowHolds;
+
+    public record PoolMetricsSnapshot(String poolName, int activeConnections, int idleConnections,
+                                      int maxConnections, int pendingThreads,
+                                      long acquireCount, double acquireAvgMs, double acquireMaxMs,
+                                      long usageCount, double usageAvgMs, double usageMaxMs,
+                                      long slowHolds, long timeouts) {}
+
+    private static final class Timing {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private double averageMs() {
+            return count > 0 ? totalNanos / (double) count / 1_000_000.0 : 0.0;
+        }
+
+        private double maxMs() {
+            return maxNanos / 1_000_000.0;
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        IMetricsTracker micrometer = new MicrometerMetricsTrackerFactory(meterRegistry).create(poolName, poolStats);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                micrometer.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                micrometer.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+                synchronized (ConnectionPoolMetrics.this) {
+                    acquire.record(elapsedAcquiredNanos);
+                }
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                micrometer.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                synchronized (ConnectionPoolMetrics.this) {
+                    usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+                    if (elapsedBorrowedMillis >= SLOW_HOLD_MS) {
+                        slowHolds++;
+                    }
+                }
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                micrometer.recordConnectionTimeout();
+                synchronized (ConnectionPoolMetrics.this) {
+                    timeouts++;
+                }
+            }
+
+            @Override
+            public void close() {
+                micrometer.close();
+            }
+        };
+    }
+
+    public synchronized PoolMetricsSnapshot getSnapshot() {
+        PoolStats stats = poolStats;
+        return new PoolMetricsSnapshot(
+                poolName,
+                stats != null ? stats.getActiveConnections() : 0,
+                stats != null ? stats.getIdleConnections() : 0,
+                stats != null ? stats.getMaxConnections() : 0,
+                stats != null ? stats.getPendingThreads() : 0,
+                acquire.count, acquire.averageMs(), acquire.maxMs(),
+                usage.count, usage.averageMs(), usage.maxMs(),
+                slowHolds, timeouts
+        );
+    }
+}
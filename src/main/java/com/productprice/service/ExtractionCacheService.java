@@ -0,0 +1,168 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ExtractionCacheConfig;
+import com.productprice.config.OpenAIConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.model.ExtractionCacheEntry;
+import com.productprice.repository.ExtractionCacheRepository;
+import com.productprice.util.PromptUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이미지 내용 해시 기준의 추출 결과 캐시.
+ * 같은 사진을 다시 올리면 OpenAI 호출 없이 이전 결과를 돌려준다.
+ * 메모리(LRU) → DB 순서로 조회하며, 모델이나 프롬프트 버전이 바뀌면 키가 달라져 자연히 무효화된다.
+ * 적중/미스 횟수는 Micrometer(extraction.cache.lookups, extraction.cache.size)로도 노출한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionCacheService {
+
+    private static final TypeReference<List<ProductInfo>> PRODUCT_LIST_TYPE = new TypeReference<>() {};
+    private static final String LOOKUPS_COUNTER = "extraction.cache.lookups";
+    private static final String SIZE_GAUGE = "extraction.cache.size";
+
+    private final ExtractionCacheConfig cacheConfig;
+    private final OpenAIConfig openAIConfig;
+    private final ExtractionCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private Map<String, List<ProductInfo>> memoryCache;
+
+    public record CacheKey(String imageHash, String model, String promptVersion, String value) {}
+
+    public record CacheStats(long memoryHits, long persistentHits, long misses, int memorySize) {}
+
+    @PostConstruct
+    public void initMemoryCache() {
+        int maxEntries = cacheConfig.getMaxEntries();
+        memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<ProductInfo>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        registerLookupCounter("memory_hit", memoryHits);
+        registerLookupCounter("persistent_hit", persistentHits);
+        registerLookupCounter("miss", misses);
+        Gauge.builder(SIZE_GAUGE, this, cache -> cache.getStats().memorySize())
+                .description("Entries in the in-memory extraction cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param knownHash 업로드 때 계산한 이미지 내용 해시(SHA-256 hex). 있으면 그대로 쓰고, null 이면 여기서 계산한다
+     */
+    public CacheKey keyFor(byte[] imageBytes, String knownHash) {
+        String imageHash = knownHash != null ? knownHash : sha256(imageBytes);
+        String model = openAIConfig.getModel();
+        String promptVersion = PromptUtil.PRODUCT_PRICE_EXTRACTION_PROMPT_VERSION;
+        String value = sha256((imageHash + ":" + model + ":" + promptVersion).getBytes(StandardCharsets.UTF_8));
+        return new CacheKey(imageHash, model, promptVersion, value);
+    }
+
+    public Optional<List<ProductInfo>> get(CacheKey key) {
+        if (!cacheConfig.isEnabled()) {
+            return Optional.empty();
+        }
+
+        List<ProductInfo> cached;
+        synchronized (this) {
+            cached = memoryCache.get(key.value());
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        if (cacheConfig.isPersistent()) {
+            try {
+                Optional<ExtractionCacheEntry> entry = repository.findById(key.value());
+                if (entry.isPresent()) {
+                    List<ProductInfo> products =
+                            objectMapper.readValue(entry.get().getProducts(), PRODUCT_LIST_TYPE);
+                    synchronized (this) {
+                        memoryCache.put(key.value(), products);
+                    }
+                    persistentHits.incrementAndGet();
+                    return Optional.of(products);
+                }
+            } catch (Exception e) {
+                log.warn("Could not read extraction cache entry {}: {}", key.value(), e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(CacheKey key, List<ProductInfo> products) {
+        if (!cacheConfig.isEnabled()) {
+            return;
+        }
+
+        List<ProductInfo> copy = List.copyOf(products);
+        synchronized (this) {
+            memoryCache.put(key.value(), copy);
+        }
+
+        if (cacheConfig.isPersistent()) {
+            try {
+                repository.save(new ExtractionCacheEntry(
+                        key.value(),
+                        key.imageHash(),
+                        key.model(),
+                        key.promptVersion(),
+                        objectMapper.writeValueAsString(copy),
+                        null
+                ));
+            } catch (Exception e) {
+                log.warn("Could not persist extraction cache entry {}: {}", key.value(), e.getMessage());
+            }
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(memoryHits.get(), persistentHits.get(), misses.get(), memoryCache.size());
+    }
+
+    private void registerLookupCounter(String result, AtomicLong count) {
+        FunctionCounter.builder(LOOKUPS_COUNTER, count, AtomicLong::get)
+                .description("Extraction cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.productprice.service;
+
+import com.productprice.dto.ProductInfo;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 이미지에서 제품명/가격을 읽어내는 추출 엔진.
+ * 구현체는 빈으로 등록되며 ExtractionEngineService 가 이름으로 골라 쓴다.
+ */
+public interface ExtractionEngine {
+
+    String ENGINE_OPENAI = "openai";
+    String ENGINE_LOCAL = "local";
+
+    String getName();
+
+    boolean isAvailable();
+
+    /**
+     * @param storeId 요청 한도 공정성 등 엔진별 부가 판단에 쓰는 거래처 ID (없으면 null)
+     */
+    List<ProductInfo> extract(byte[] imageBytes, Long storeId);
+
+    /**
+     * 제품 하나를 읽을 때마다 onProduct 로 넘긴다. 스트리밍을 지원하지 않는 엔진은 전체 결과를 받은 뒤 차례로 넘긴다.
+     */
+    default List<ProductInfo> extractStreaming(byte[] imageBytes, Long storeId, Consumer<ProductInfo> onProduct) {
+        List<ProductInfo> products = extract(imageBytes, storeId);
+        products.forEach(onProduct);
+        return products;
+    }
+
+    /**
+     * @param imageHash 업로드 때 계산한 이미지 내용 해시(SHA-256 hex, 없으면 null).
+     *                  결과를 내용 해시로 캐시하는 엔진은 이 값을 써서 바이트를 다시 해시하지 않는다
+     */
+    default List<ProductInfo> extract(byte[] imageBytes, String imageHash, Long storeId) {
+        return extract(imageBytes, storeId);
+    }
+
+    default List<ProductInfo> extractStreaming(byte[] imageBytes, String imageHash, Long storeId,
+                                               Consumer<ProductInfo> onProduct) {
+        return extractStreaming(imageBytes, storeId, onProduct);
+    }
+}
@@ -0,0 +1,143 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionEngineConfig;
+import com.productprice.dto.ProductInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 요청/거래처/기본 설정 순서로 추출 엔진을 고른다.
+ * tiered 모드는 로컬 엔진을 먼저 돌리고, 결과가 없거나 신뢰도가 낮을 때만 OpenAI 로 넘긴다.
+ */
+@Service
+@Slf4j
+public class ExtractionEngineService {
+
+    public static final String MODE_TIERED = "tiered";
+
+    private final Map<String, ExtractionEngine> engines;
+    private final ExtractionEngineConfig engineConfig;
+    private final ImageTilingService imageTilingService;
+    private final ExtractionMetrics extractionMetrics;
+
+    public ExtractionEngineService(List<ExtractionEngine> engines, ExtractionEngineConfig engineConfig,
+                                   ImageTilingService imageTilingService, ExtractionMetrics extractionMetrics) {
+        this.engines = engines.stream()
+                .collect(Collectors.toMap(ExtractionEngine::getName, Function.identity()));
+        this.engineConfig = engineConfig;
+        this.imageTilingService = imageTilingService;
+        this.extractionMetrics = extractionMetrics;
+    }
+
+    /**
+     * 큰 이미지는 타일로 나눠 타일마다 같은 엔진(모드)으로 추출한다.
+     *
+     * @param imageHash 업로드 때 계산한 내용 해시 (없으면 null). 타일은 바이트가 원본과 다르므로 넘기지 않는다
+     */
+    public List<ProductInfo> extract(byte[] imageBytes, String imageHash, Long storeId, String requestedEngine) {
+        String mode = resolveMode(storeId, requestedEngine);
+        return measure(mode, () -> imageTilingService.extract(imageBytes,
+                bytes -> extractWith(mode, bytes, bytes == imageBytes ? imageHash : null, storeId, null)));
+    }
+
+    /**
+     * 제품을 읽는 대로 onProduct 로 넘긴다. 타일로 나누는 이미지는 겹침 영역 중복을 모든 타일이 끝난 뒤에야
+     * 걸러낼 수 있으므로, 합친 결과를 받은 다음 차례로 넘긴다.
+     */
+    public List<ProductInfo> extractStreaming(byte[] imageBytes, String imageHash, Long storeId, String requestedEngine,
+                                              Consumer<ProductInfo> onProduct) {
+        if (imageTilingService.shouldTile(imageBytes)) {
+            List<ProductInfo> products = extract(imageBytes, imageHash, storeId, requestedEngine);
+            products.forEach(onProduct);
+            return products;
+        }
+        String mode = resolveMode(storeId, requestedEngine);
+        return measure(mode, () -> extractWith(mode, imageBytes, imageHash, storeId, onProduct));
+    }
+
+    private List<ProductInfo> measure(String mode, Supplier<List<ProductInfo>> extraction) {
+        long start = extractionMetrics.start();
+        try {
+            List<ProductInfo> products = extraction.get();
+            extractionMetrics.recordExtraction(mode, products.size());
+            return products;
+        } catch (RuntimeException e) {
+            extractionMetrics.recordError(ExtractionMetrics.STAGE_EXTRACT, e);
+            throw e;
+        } finally {
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_EXTRACT, start);
+        }
+    }
+
+    /**
+     * @param onProduct null 이면 스트리밍 없이 전체 결과만 돌려준다
+     */
+    private List<ProductInfo> extractWith(String mode, byte[] imageBytes, String imageHash, Long storeId,
+                                          Consumer<ProductInfo> onProduct) {
+        if (MODE_TIERED.equals(mode)) {
+            return extractTiered(imageBytes, imageHash, storeId, onProduct);
+        }
+        return extractWith(getEngine(mode), imageBytes, imageHash, storeId, onProduct);
+    }
+
+    private List<ProductInfo> extractWith(ExtractionEngine engine, byte[] imageBytes, String imageHash, Long storeId,
+                                          Consumer<ProductInfo> onProduct) {
+        return onProduct != null
+                ? engine.extractStreaming(imageBytes, imageHash, storeId, onProduct)
+                : engine.extract(imageBytes, imageHash, storeId);
+    }
+
+    public String resolveMode(Long storeId, String requestedEngine) {
+        String mode = requestedEngine;
+        if (mode == null || mode.isBlank()) {
+            mode = storeId != null ? engineConfig.getStores().get(storeId) : null;
+        }
+        if (mode == null || mode.isBlank()) {
+            mode = engineConfig.getDefaultEngine();
+        }
+        mode = mode.toLowerCase();
+        if (!MODE_TIERED.equals(mode) && !engines.containsKey(mode)) {
+            throw new IllegalArgumentException("Unknown extraction engine: " + mode);
+        }
+        return mode;
+    }
+
+    private List<ProductInfo> extractTiered(byte[] imageBytes, String imageHash, Long storeId,
+                                            Consumer<ProductInfo> onProduct) {
+        ExtractionEngine local = engines.get(ExtractionEngine.ENGINE_LOCAL);
+        if (local != null && local.isAvailable()) {
+            try {
+                List<ProductInfo> products = local.extract(imageBytes, storeId);
+                boolean confident = !products.isEmpty() && products.stream()
+                        .allMatch(p -> p.confidenceScore() != null
+                                && p.confidenceScore() >= engineConfig.getTieredConfidenceThreshold());
+                if (confident) {
+                    if (onProduct != null) {
+                        products.forEach(onProduct);
+                    }
+                    return products;
+                }
+                log.debug("Local OCR result not confident ({} products), escalating to remote engine",
+                        products.size());
+            } catch (Exception e) {
+                log.warn("Local OCR failed, escalating to remote engine: {}", e.getMessage());
+            }
+        }
+        return extractWith(getEngine(ExtractionEngine.ENGINE_OPENAI), imageBytes, imageHash, storeId, onProduct);
+    }
+
+    private ExtractionEngine getEngine(String name) {
+        ExtractionEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown extraction engine: " + name);
+        }
+        return engine;
+    }
+}
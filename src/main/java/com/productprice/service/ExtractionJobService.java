@@ -0,0 +1,326 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionJobConfig;
+import com.productprice.dto.ExtractionJobResponse;
+import com.productprice.model.ExtractionJob;
+import com.productprice.model.ProductPrice;
+import com.productprice.repository.ExtractionJobRepository;
+import com.productprice.repository.ProductPriceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionJobService {
+
+    private static final Set<String> UNFINISHED_STATUSES = Set.of("QUEUED", "RUNNING");
+    private static final Set<String> QUEUED_STATUS = Set.of("QUEUED");
+
+    private final ExtractionJobRepository jobRepository;
+    private final ProductPriceRepository productPriceRepository;
+    private final ProductPriceService productPriceService;
+    private final ExtractionJobConfig jobConfig;
+    private final UploadStorageService uploadStorageService;
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    // 실행기에 넘긴(대기 중이거나 실행 중인) 작업. 주기적 재등록이 같은 작업을 두 번 넣지 않게 한다
+    private final Set<String> enqueuedJobIds = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor extractionJobExecutor;
+
+    @PostConstruct
+    public void initExecutor() {
+        // 대기열이 가득 차면 AbortPolicy 가 RejectedExecutionException 을 던진다
+        AtomicInteger counter = new AtomicInteger();
+        extractionJobExecutor = new ThreadPoolExecutor(
+                jobConfig.getConcurrency(),
+                jobConfig.getConcurrency(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(jobConfig.getMaxQueueDepth()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "extraction-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        // 남은 작업은 QUEUED 상태로 DB 에 남아 다음 기동 시 재개된다
+        extractionJobExecutor.shutdownNow();
+    }
+
+    /**
+     * 저장된 이미지에 대한 추출 작업을 대기열에 등록한다.
+     * 대기열이 가득 찬 경우 RejectedExecutionException 을 던진다.
+     */
+    public ExtractionJob submit(String imagePath, Long storeId, String location, String engine) {
+        if (extractionJobExecutor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Extraction queue is full");
+        }
+
+        ExtractionJob job = new ExtractionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus("QUEUED");
+        job.setImagePath(imagePath);
+        job.setStoreId(storeId);
+        job.setLocation(location);
+        job.setEngine(engine);
+        ExtractionJob saved = jobRepository.save(job);
+
+        if (!enqueue(saved.getId())) {
+            jobRepository.deleteById(saved.getId());
+            throw new RejectedExecutionException("Extraction queue is full");
+        }
+        return saved;
+    }
+
+    /**
+     * 추출 없이 기존 결과로 바로 완료된 작업을 만든다 (중복 사진 재사용 시).
+     */
+    public ExtractionJob completeWithExisting(String imagePath, Long storeId, String location,
+                                              List<ProductPrice> products) {
+        ExtractionJob job = new ExtractionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus("COMPLETED");
+        job.setImagePath(imagePath);
+        job.setStoreId(storeId);
+        job.setLocation(location);
+        job.setProductIds(products.stream().map(ProductPrice::getId).toList());
+        job.setProductCount(products.size());
+        job.setPendingReviewCount((int) products.stream()
+                .filter(p -> "PENDING_REVIEW".equals(p.getStatus()))
+                .count());
+        job.setStartedAt(LocalDateTime.now());
+        job.setCompletedAt(LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    public Optional<ExtractionJobResponse> getJob(String jobId) {
+        return jobRepository.findById(jobId).map(this::toResponse);
+    }
+
+    public SseEmitter subscribe(String jobId) {
+        ExtractionJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
+
+        SseEmitter emitter = new SseEmitter(jobConfig.getSseTimeoutMs());
+        if (!UNFINISHED_STATUSES.contains(job.getStatus())) {
+            send(emitter, toResponse(job));
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        // 구독 직후 현재 상태를 한 번 보내 클라이언트가 즉시 화면을 그릴 수 있게 한다
+        send(emitter, toResponse(job));
+
+        // 상태 확인과 등록 사이에 작업이 끝났으면 run() 이 이미 emitter 목록을 치웠으므로 여기서 마무리한다
+        Optional<ExtractionJob> latest = jobRepository.findById(jobId);
+        if (latest.isPresent() && !UNFINISHED_STATUSES.contains(latest.get().getStatus())) {
+            jobEmitters.remove(emitter);
+            send(emitter, toResponse(latest.get()));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 재시작 전에 끝나지 못한 작업을 다시 대기열에 넣는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<ExtractionJob> unfinished;
+        try {
+            unfinished = jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED_STATUSES);
+        } catch (Exception e) {
+            log.warn("Could not load unfinished extraction jobs: {}", e.getMessage());
+            return;
+        }
+
+        int resumed = 0;
+        for (ExtractionJob job : unfinished) {
+            job.setStatus("QUEUED");
+            job.setStartedAt(null);
+            jobRepository.save(job);
+            if (enqueue(job.getId())) {
+                resumed++;
+            }
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("Resumed {} unfinished extraction jobs ({} left queued for the periodic re-enqueue)",
+                    resumed, unfinished.size() - resumed);
+        }
+    }
+
+    /**
+     * 대기열이 가득 차 실행기에 넣지 못한 QUEUED 작업을 자리가 나는 대로 다시 넣는다.
+     */
+    @Scheduled(fixedDelayString = "${extraction.job.requeue-interval-ms:30000}",
+            initialDelayString = "${extraction.job.requeue-interval-ms:30000}")
+    public void requeueWaitingJobs() {
+        if (extractionJobExecutor.getQueue().remainingCapacity() == 0) {
+            return;
+        }
+        List<ExtractionJob> queued;
+        try {
+            queued = jobRepository.findByStatusInOrderByCreatedAtAsc(QUEUED_STATUS);
+        } catch (Exception e) {
+            log.warn("Could not load queued extraction jobs: {}", e.getMessage());
+            return;
+        }
+
+        int requeued = 0;
+        for (ExtractionJob job : queued) {
+            if (enqueuedJobIds.contains(job.getId())) {
+                continue;
+            }
+            if (!enqueue(job.getId())) {
+                break;
+            }
+            requeued++;
+        }
+        if (requeued > 0) {
+            log.info("Re-enqueued {} waiting extraction jobs", requeued);
+        }
+    }
+
+    /**
+     * 실행기에 작업을 넣는다. 이미 넣은 작업이면 아무것도 하지 않고, 대기열이 가득 차 있으면 false.
+     */
+    private boolean enqueue(String jobId) {
+        if (!enqueuedJobIds.add(jobId)) {
+            return true;
+        }
+        try {
+            extractionJobExecutor.execute(() -> run(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            enqueuedJobIds.remove(jobId);
+            return false;
+        }
+    }
+
+    private void run(String jobId) {
+        try {
+            runJob(jobId);
+        } finally {
+            enqueuedJobIds.remove(jobId);
+        }
+    }
+
+    private void runJob(String jobId) {
+        ExtractionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !"QUEUED".equals(job.getStatus())) {
+            return;
+        }
+
+        job.setStatus("RUNNING");
+        job.setStartedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        publish(job);
+
+        try {
+            byte[] imageBytes = uploadStorageService.readBytes(job.getImagePath());
+            List<ProductPrice> products = productPriceService.extractAndSaveProducts(
+                    imageBytes, job.getImagePath(), job.getStoreId(), job.getLocation(), job.getEngine());
+
+            job.setProductIds(products.stream().map(ProductPrice::getId).toList());
+            job.setProductCount(products.size());
+            job.setPendingReviewCount((int) products.stream()
+                    .filter(p -> "PENDING_REVIEW".equals(p.getStatus()))
+                    .count());
+            job.setStatus("COMPLETED");
+        } catch (IOException e) {
+            log.error("Error reading image for job {}", jobId, e);
+            job.setStatus("FAILED");
+            job.setErrorMessage("File processing error");
+        } catch (Exception e) {
+            log.error("Error running extraction job {}", jobId, e);
+            job.setStatus("FAILED");
+            job.setErrorMessage("Failed to extract products");
+        }
+
+        job.setCompletedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        publish(job);
+
+        List<SseEmitter> jobEmitters = emitters.remove(jobId);
+        if (jobEmitters != null) {
+            jobEmitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void publish(ExtractionJob job) {
+        List<SseEmitter> jobEmitters = emitters.get(job.getId());
+        if (jobEmitters == null || jobEmitters.isEmpty()) {
+            return;
+        }
+        ExtractionJobResponse response = toResponse(job);
+        jobEmitters.forEach(emitter -> send(emitter, response));
+    }
+
+    private void send(SseEmitter emitter, ExtractionJobResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(response));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private ExtractionJobResponse toResponse(ExtractionJob job) {
+        List<ProductPrice> products = job.getProductIds() != null && !job.getProductIds().isEmpty()
+                ? productPriceRepository.findAllById(job.getProductIds())
+                : List.of();
+
+        String message = switch (job.getStatus()) {
+            case "QUEUED" -> "Waiting in queue";
+            case "RUNNING" -> "Extracting products";
+            case "COMPLETED" -> "Successfully extracted " + products.size() + " products";
+            default -> job.getErrorMessage();
+        };
+
+        return new ExtractionJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getImagePath(),
+                job.getProductCount(),
+                job.getPendingReviewCount(),
+                products,
+                message,
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
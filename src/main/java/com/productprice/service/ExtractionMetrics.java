@@ -0,0 +1,132 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추출 파이프라인의 단계별 소요 시간, 추출 건수/오류, OpenAI 토큰 사용량을 Micrometer 로 기록한다.
+ * 같은 값이 /actuator/prometheus 와 대시보드 요약(/api/dashboard/extraction-metrics)에 함께 노출된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExtractionMetrics {
+
+    public static final String STAGE_UPLOAD_IO = "upload_io";
+    public static final String STAGE_PREPROCESS = "preprocess";
+    public static final String STAGE_REQUEST_ENCODE = "request_encode";
+    public static final String STAGE_RATE_LIMIT_WAIT = "rate_limit_wait";
+    public static final String STAGE_API_CALL = "api_call";
+    public static final String STAGE_RESPONSE_PARSE = "response_parse";
+    public static final String STAGE_EXTRACT = "extract";
+    public static final String STAGE_DB_SAVE = "db_save";
+
+    private static final String STAGE_TIMER = "extraction.stage";
+    private static final String PRODUCTS_COUNTER = "extraction.products";
+    private static final String EMPTY_RESULTS_COUNTER = "extraction.empty_results";
+    private static final String ERRORS_COUNTER = "extraction.errors";
+    private static final String TOKENS_COUNTER = "openai.tokens";
+    private static final List<String> TOKEN_TYPES = List.of("prompt_tokens", "completion_tokens", "total_tokens");
+
+    private final MeterRegistry meterRegistry;
+
+    public record StageTiming(long count, double avgMs, double maxMs, double p95Ms) {}
+
+    public record MetricsSummary(Map<String, StageTiming> stages, Map<String, Long> productsByEngine,
+                                 Map<String, Long> emptyResultsByEngine, Map<String, Long> errorsByStage,
+                                 Map<String, Map<String, Long>> tokensByModel) {}
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordStage(String stage, long startNanos) {
+        stageTimer(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 한 번의 추출(타일 포함) 결과를 엔진(모드)별로 센다. 빈 결과는 따로 센다.
+     */
+    public void recordExtraction(String engine, int productCount) {
+        if (productCount == 0) {
+            meterRegistry.counter(EMPTY_RESULTS_COUNTER, "engine", engine).increment();
+        } else {
+            meterRegistry.counter(PRODUCTS_COUNTER, "engine", engine).increment(productCount);
+        }
+    }
+
+    public void recordError(String stage, Throwable error) {
+        meterRegistry.counter(ERRORS_COUNTER, "stage", stage, "exception", error.getClass().getSimpleName())
+                .increment();
+    }
+
+    /**
+     * OpenAI 응답의 usage 노드(prompt/completion/total_tokens)를 모델별로 누적한다.
+     */
+    public void recordTokenUsage(String model, JsonNode usage) {
+        for (String type : TOKEN_TYPES) {
+            long tokens = usage.path(type).asLong(0);
+            if (tokens > 0) {
+                meterRegistry.counter(TOKENS_COUNTER, "model", model, "type", type.replace("_tokens", ""))
+                        .increment(tokens);
+            }
+        }
+    }
+
+    public MetricsSummary getSummary() {
+        Map<String, StageTiming> stages = new LinkedHashMap<>();
+        meterRegistry.find(STAGE_TIMER).timers().stream()
+                .sorted((a, b) -> a.getId().getTag("stage").compareTo(b.getId().getTag("stage")))
+                .forEach(timer -> stages.put(timer.getId().getTag("stage"), toTiming(timer)));
+
+        Map<String, Map<String, Long>> tokensByModel = new TreeMap<>();
+        meterRegistry.find(TOKENS_COUNTER).counters().forEach(counter -> tokensByModel
+                .computeIfAbsent(counter.getId().getTag("model"), model -> new TreeMap<>())
+                .merge(counter.getId().getTag("type"), (long) counter.count(), Long::sum));
+
+        return new MetricsSummary(
+                stages,
+                sumByTag(PRODUCTS_COUNTER, "engine"),
+                sumByTag(EMPTY_RESULTS_COUNTER, "engine"),
+                sumByTag(ERRORS_COUNTER, "stage"),
+                tokensByModel);
+    }
+
+    private Timer stageTimer(String stage) {
+        // 레지스트리가 이름+태그로 캐시하므로 같은 단계는 같은 Timer 를 돌려받는다
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in each extraction pipeline stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    private Map<String, Long> sumByTag(String name, String tag) {
+        Map<String, Long> totals = new TreeMap<>();
+        for (Counter counter : meterRegistry.find(name).counters()) {
+            totals.merge(counter.getId().getTag(tag), (long) counter.count(), Long::sum);
+        }
+        return totals;
+    }
+
+    private static StageTiming toTiming(Timer timer) {
+        double p95 = 0.0;
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                p95 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return new StageTiming(timer.count(), timer.mean(TimeUnit.MILLISECONDS),
+                timer.max(TimeUnit.MILLISECONDS), p95);
+    }
+}
@@ -0,0 +1,145 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionStreamConfig;
+import com.productprice.dto.ProductPriceExtractResponse;
+import com.productprice.model.ProductPrice;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 사진 한 장의 추출 결과를 SSE 로 흘려보낸다. 제품이 완성되는 즉시 product 이벤트를, 작은 배치로 저장될 때마다
+ * saved 이벤트(ID 포함)를, 끝나면 complete 이벤트를 보낸다. 첫 제품이 모델의 첫 토큰 직후에 화면에 뜬다.
+ * 제품 일부를 보낸 뒤 추출이 끊기면 저장된 만큼을 담은 partial 이벤트로 끝낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionStreamService {
+
+    public static final String EVENT_PRODUCT = "product";
+    public static final String EVENT_SAVED = "saved";
+    public static final String EVENT_COMPLETE = "complete";
+    public static final String EVENT_PARTIAL = "partial";
+    public static final String EVENT_ERROR = "error";
+
+    private final ProductPriceService productPriceService;
+    private final ExtractionStreamConfig streamConfig;
+
+    private ThreadPoolExecutor extractionStreamExecutor;
+
+    @PostConstruct
+    public void initExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        extractionStreamExecutor = new ThreadPoolExecutor(
+                streamConfig.getConcurrency(),
+                streamConfig.getConcurrency(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(streamConfig.getMaxQueueDepth()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "extraction-stream-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        extractionStreamExecutor.shutdownNow();
+    }
+
+    /**
+     * 저장된 이미지의 추출을 시작하고 이벤트를 받을 emitter 를 돌려준다.
+     * 대기열이 가득 찬 경우 RejectedExecutionException 을 던진다.
+     */
+    public SseEmitter stream(byte[] imageBytes, String imagePath, Long storeId, String location, String engine) {
+        SseEmitter emitter = new SseEmitter(streamConfig.getSseTimeoutMs());
+        extractionStreamExecutor.execute(() -> run(emitter, imageBytes, imagePath, storeId, location, engine));
+        return emitter;
+    }
+
+    /**
+     * 추출 없이 이미 결과가 있는 경우(중복 사진 재사용) complete 이벤트 하나만 보내는 emitter.
+     */
+    public SseEmitter completed(ProductPriceExtractResponse response) {
+        SseEmitter emitter = new SseEmitter(streamConfig.getSseTimeoutMs());
+        send(emitter, new AtomicBoolean(true), EVENT_COMPLETE, response);
+        emitter.complete();
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, byte[] imageBytes, String imagePath, Long storeId, String location,
+                     String engine) {
+        // 클라이언트가 끊겨도 추출과 저장은 끝까지 진행하고 이벤트만 더 보내지 않는다
+        AtomicBoolean connected = new AtomicBoolean(true);
+        emitter.onCompletion(() -> connected.set(false));
+        emitter.onTimeout(() -> connected.set(false));
+        emitter.onError(e -> connected.set(false));
+
+        try {
+            List<ProductPrice> products = productPriceService.extractAndSaveProductsStreaming(
+                    imageBytes, imagePath, storeId, location, engine, streamConfig.getSaveBatchSize(),
+                    product -> send(emitter, connected, EVENT_PRODUCT, product),
+                    batch -> send(emitter, connected, EVENT_SAVED, batch));
+
+            send(emitter, connected, EVENT_COMPLETE, new ProductPriceExtractResponse(
+                    true,
+                    products,
+                    products.size(),
+                    countPendingReview(products),
+                    "Successfully extracted " + products.size() + " products"
+            ));
+            emitter.complete();
+        } catch (ProductPriceService.PartialExtractionException e) {
+            log.error("Streaming extraction for {} stopped after {} products", imagePath,
+                    e.getSavedProducts().size(), e);
+            List<ProductPrice> products = e.getSavedProducts();
+            send(emitter, connected, EVENT_PARTIAL, new ProductPriceExtractResponse(
+                    false,
+                    products,
+                    products.size(),
+                    countPendingReview(products),
+                    "Extraction stopped after " + products.size() + " products; the result is incomplete"
+            ));
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("Error streaming extraction for {}", imagePath, e);
+            send(emitter, connected, EVENT_ERROR,
+                    new ProductPriceExtractResponse(false, List.of(), 0, 0, "Failed to extract products"));
+            emitter.complete();
+        }
+    }
+
+    private static int countPendingReview(List<ProductPrice> products) {
+        return (int) products.stream()
+                .filter(p -> "PENDING_REVIEW".equals(p.getStatus()))
+                .count();
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean connected, String event, Object data) {
+        if (!connected.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            connected.set(false);
+            emitter.completeWithError(e);
+        }
+    }
+}
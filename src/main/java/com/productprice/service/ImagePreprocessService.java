@@ -0,0 +1,230 @@
+package com.productprice.service;
+
+import com.productprice.config.ImagePreprocessConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Vision API 로 보내기 전에 이미지를 디코딩 → EXIF 방향 보정 → 축소 → JPEG 재압축한다.
+ * 디코딩에 실패하거나 결과가 원본보다 크면 원본을 그대로 보낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImagePreprocessService {
+
+    private final ImagePreprocessConfig preprocessConfig;
+
+    public record PreparedImage(byte[] bytes, String mediaType, int originalSize) {
+
+        public int bytesSaved() {
+            return originalSize - bytes.length;
+        }
+    }
+
+    public PreparedImage prepare(byte[] imageBytes, String model) {
+        PreparedImage original = new PreparedImage(imageBytes, detectMediaType(imageBytes), imageBytes.length);
+        if (!preprocessConfig.isEnabled()) {
+            return original;
+        }
+
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            if (image == null) {
+                log.debug("Unsupported image format, sending original ({} bytes)", imageBytes.length);
+                return original;
+            }
+
+            image = applyOrientation(image, readExifOrientation(imageBytes));
+            image = downscale(image, preprocessConfig.maxEdgeFor(model));
+            byte[] encoded = encodeJpeg(image, preprocessConfig.qualityFor(model));
+
+            if (encoded.length >= imageBytes.length) {
+                return original;
+            }
+
+            PreparedImage prepared = new PreparedImage(encoded, "image/jpeg", imageBytes.length);
+            log.debug("Preprocessed image {}x{}: {} -> {} bytes (saved {})",
+                    image.getWidth(), image.getHeight(), imageBytes.length, encoded.length, prepared.bytesSaved());
+            return prepared;
+        } catch (Exception e) {
+            log.warn("Image preprocessing failed, sending original: {}", e.getMessage());
+            return original;
+        }
+    }
+
+    static BufferedImage downscale(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longest = Math.max(width, height);
+        BufferedImage current = toRgb(image);
+        if (longest <= maxEdge) {
+            return current;
+        }
+
+        double scale = (double) maxEdge / longest;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // 한 번에 크게 줄이면 bilinear 가 픽셀을 건너뛰므로 절반씩 단계적으로 줄인다
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return resize(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return resized;
+    }
+
+    static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        // JPEG 는 알파 채널을 지원하지 않으므로 흰 배경 위에 그린다
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return rgb;
+    }
+
+    static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(-Math.PI / 2); transform.scale(-1, 1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.scale(-1, 1); transform.translate(-height, width); transform.rotate(3 * Math.PI / 2); }
+            case 8 -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    /**
+     * JPEG APP1(Exif) 세그먼트의 IFD0 에서 Orientation(0x0112) 태그를 읽는다. 없으면 1.
+     */
+    static int readExifOrientation(byte[] bytes) {
+        if (bytes.length < 4 || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+
+        int offset = 2;
+        while (offset + 4 <= bytes.length && (bytes[offset] & 0xFF) == 0xFF) {
+            int marker = bytes[offset + 1] & 0xFF;
+            int length = ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+            if (marker == 0xDA || length < 2) {
+                break; // start of scan, 이후에는 메타데이터가 없다
+            }
+
+            int segment = offset + 4;
+            if (marker == 0xE1 && segment + 14 <= bytes.length
+                    && bytes[segment] == 'E' && bytes[segment + 1] == 'x' && bytes[segment + 2] == 'i'
+                    && bytes[segment + 3] == 'f') {
+                int tiff = segment + 6;
+                boolean littleEndian = bytes[tiff] == 'I';
+                int ifd = tiff + readInt(bytes, tiff + 4, littleEndian);
+                if (ifd + 2 > bytes.length) {
+                    return 1;
+                }
+                int entries = readShort(bytes, ifd, littleEndian);
+                for (int i = 0; i < entries; i++) {
+                    int entry = ifd + 2 + i * 12;
+                    if (entry + 12 > bytes.length) {
+                        break;
+                    }
+                    if (readShort(bytes, entry, littleEndian) == 0x0112) {
+                        return readShort(bytes, entry + 8, littleEndian);
+                    }
+                }
+                return 1;
+            }
+            offset += 2 + length;
+        }
+        return 1;
+    }
+
+    static String detectMediaType(byte[] bytes) {
+        if (bytes.length >= 8 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+            return "image/png";
+        }
+        if (bytes.length >= 6 && bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F') {
+            return "image/gif";
+        }
+        if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+                && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+            return "image/webp";
+        }
+        return "image/jpeg";
+    }
+
+    private static int readShort(byte[] bytes, int offset, boolean littleEndian) {
+        int b0 = bytes[offset] & 0xFF;
+        int b1 = bytes[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] bytes, int offset, boolean littleEndian) {
+        int b0 = bytes[offset] & 0xFF;
+        int b1 = bytes[offset + 1] & 0xFF;
+        int b2 = bytes[offset + 2] & 0xFF;
+        int b3 = bytes[offset + 3] & 0xFF;
+        return littleEndian
+                ? (b3 << 24) | (b2 << 16) | (b1 << 8) | b0
+                : (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+    }
+}
@@ -0,0 +1,266 @@
+package com.productprice.service;
+
+import com.productprice.config.ImageTilingConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.util.ProductNameNormalizer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 가로로 긴 매대 파노라마처럼 큰 이미지를 겹치는 타일로 나눠 병렬로 추출하고 결과를 합친다.
+ * 한 번에 보내면 축소로 글자가 뭉개지거나 응답이 잘려 가격표를 놓치기 때문이다.
+ * 겹치는 타일에서 두 번 읽힌 제품은 정규화한 제품명 + 가격으로 중복 제거한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageTilingService {
+
+    private final ImageTilingConfig tilingConfig;
+
+    private ExecutorService imageTileExecutor;
+
+    @PostConstruct
+    public void initExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        imageTileExecutor = Executors.newFixedThreadPool(tilingConfig.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "image-tile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        imageTileExecutor.shutdownNow();
+    }
+
+    /**
+     * 이미지 크기가 타일링 조건에 맞으면 타일별로 extractor 를 호출해 합친 결과를, 아니면 한 번 호출한 결과를 돌려준다.
+     */
+    public List<ProductInfo> extract(byte[] imageBytes, Function<byte[], List<ProductInfo>> extractor) {
+        if (!shouldTile(imageBytes)) {
+            return extractor.apply(imageBytes);
+        }
+
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        } catch (IOException e) {
+            image = null;
+        }
+        if (image == null) {
+            return extractor.apply(imageBytes);
+        }
+        BufferedImage oriented = ImagePreprocessService.toRgb(ImagePreprocessService.applyOrientation(
+                image, ImagePreprocessService.readExifOrientation(imageBytes)));
+
+        long start = System.currentTimeMillis();
+        List<Rectangle> tiles = computeTiles(oriented.getWidth(), oriented.getHeight());
+        List<Future<List<ProductInfo>>> futures = new ArrayList<>();
+        for (Rectangle tile : tiles) {
+            futures.add(imageTileExecutor.submit(() -> extractor.apply(ImagePreprocessService.encodeJpeg(
+                    oriented.getSubimage(tile.x, tile.y, tile.width, tile.height), tilingConfig.getQuality()))));
+        }
+
+        List<List<ProductInfo>> tileResults = new ArrayList<>();
+        try {
+            for (Future<List<ProductInfo>> future : futures) {
+                tileResults.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Tiled extraction interrupted", e);
+        } catch (ExecutionException e) {
+            // 일부 타일만 반영하면 누락을 알아챌 수 없으므로 한 장 전체를 실패로 처리한다
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Tile extraction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<ProductInfo> merged = mergeTileResults(tiles, tileResults);
+        log.info("Tiled extraction {}x{} into {} tiles: {} products ({} before merge) in {} ms",
+                oriented.getWidth(), oriented.getHeight(), tiles.size(), merged.size(),
+                tileResults.stream().mapToInt(List::size).sum(), System.currentTimeMillis() - start);
+        return merged;
+    }
+
+    /**
+     * 헤더의 크기만 읽어 타일로 나눌 이미지인지 판단한다.
+     */
+    public boolean shouldTile(byte[] imageBytes) {
+        int[] size = tilingConfig.isEnabled() ? readSize(imageBytes) : null;
+        return size != null && shouldTile(size[0], size[1]);
+    }
+
+    boolean shouldTile(int width, int height) {
+        int longEdge = Math.max(width, height);
+        int shortEdge = Math.max(1, Math.min(width, height));
+        return longEdge > tilingConfig.getTileEdge()
+                && (longEdge >= tilingConfig.getMinLongEdge()
+                || (double) longEdge / shortEdge >= tilingConfig.getMinAspectRatio());
+    }
+
+    /**
+     * 축마다 겹침을 둔 같은 크기의 타일로 나눈다. 최대 타일 수를 넘으면 타일을 키운다.
+     */
+    List<Rectangle> computeTiles(int width, int height) {
+        int tileEdge = tilingConfig.getTileEdge();
+        int[] xs;
+        int[] ys;
+        while (true) {
+            xs = splitAxis(width, tileEdge);
+            ys = splitAxis(height, tileEdge);
+            if ((xs.length / 2) * (ys.length / 2) <= tilingConfig.getMaxTiles()) {
+                break;
+            }
+            tileEdge = (int) Math.ceil(tileEdge * 1.25);
+        }
+
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int row = 0; row < ys.length; row += 2) {
+            for (int col = 0; col < xs.length; col += 2) {
+                tiles.add(new Rectangle(xs[col], ys[row], xs[col + 1], ys[row + 1]));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * [시작, 길이] 쌍을 이어 붙인 배열을 돌려준다.
+     */
+    private int[] splitAxis(int length, int tileEdge) {
+        if (length <= tileEdge) {
+            return new int[]{0, length};
+        }
+        int overlap = (int) Math.round(tileEdge * tilingConfig.getOverlap());
+        int count = (int) Math.ceil((double) (length - overlap) / (tileEdge - overlap));
+        int tileLength = (int) Math.ceil((double) (length + (count - 1) * overlap) / count);
+        int step = tileLength - overlap;
+
+        int[] segments = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            int start = Math.min(i * step, length - tileLength);
+            segments[i * 2] = start;
+            segments[i * 2 + 1] = tileLength;
+        }
+        return segments;
+    }
+
+    /**
+     * 서로 겹치는 타일에서 읽힌 같은 정규화 제품명 + 가격은 같은 가격표로 보고 신뢰도가 가장 높은 것만 남긴다.
+     * 겹침 영역의 가격표는 타일마다 한 번씩 읽히므로, 한 항목에는 타일마다 하나씩만 합친다.
+     * 같은 타일 안이나 서로 겹치지 않는 타일의 같은 제품은 실제로 다른 진열(페이싱)이므로 따로 남긴다.
+     * 타일 순서를 유지한다.
+     */
+    static List<ProductInfo> mergeTileResults(List<Rectangle> tiles, List<List<ProductInfo>> tileResults) {
+        List<MergedProduct> merged = new ArrayList<>();
+        Map<String, List<MergedProduct>> byKey = new HashMap<>();
+        for (int tile = 0; tile < tileResults.size(); tile++) {
+            for (ProductInfo product : tileResults.get(tile)) {
+                List<MergedProduct> candidates = byKey.computeIfAbsent(mergeKey(product), key -> new ArrayList<>());
+                MergedProduct match = null;
+                for (MergedProduct candidate : candidates) {
+                    if (candidate.canAbsorb(tile, tiles)) {
+                        match = candidate;
+                        break;
+                    }
+                }
+                if (match != null) {
+                    match.absorb(tile, product);
+                } else {
+                    MergedProduct created = new MergedProduct(tile, product);
+                    candidates.add(created);
+                    merged.add(created);
+                }
+            }
+        }
+        return merged.stream().map(MergedProduct::product).toList();
+    }
+
+    /**
+     * 합쳐진 한 가격표와 그것을 읽은 타일들.
+     */
+    private static final class MergedProduct {
+
+        private final Set<Integer> tiles = new HashSet<>();
+        private ProductInfo product;
+
+        MergedProduct(int tile, ProductInfo product) {
+            this.tiles.add(tile);
+            this.product = product;
+        }
+
+        boolean canAbsorb(int tile, List<Rectangle> tileBounds) {
+            if (tiles.contains(tile)) {
+                return false;
+            }
+            Rectangle bounds = tileBounds.get(tile);
+            return tiles.stream().anyMatch(seen -> tileBounds.get(seen).intersects(bounds));
+        }
+
+        void absorb(int tile, ProductInfo candidate) {
+            tiles.add(tile);
+            if (confidence(candidate) > confidence(product)) {
+                product = candidate;
+            }
+        }
+
+        ProductInfo product() {
+            return product;
+        }
+    }
+
+    private static String mergeKey(ProductInfo product) {
+        return ProductNameNormalizer.normalize(product.productName()) + "|" + product.price();
+    }
+
+    private static double confidence(ProductInfo product) {
+        return product.confidenceScore() != null ? product.confidenceScore() : 0.0;
+    }
+
+    /**
+     * 픽셀을 디코딩하지 않고 헤더만 읽어 크기를 얻는다.
+     */
+    private static int[] readSize(byte[] imageBytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.productprice.service;
+
+import com.productprice.config.ImageVariantConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 업로드 사진의 축소본(썸네일 등)을 요청 시 만들어 디스크에 캐시한다.
+ * 너비는 설정된 몇 단계로만 만들어 캐시 크기를 제한하고, 같은 원본 · 너비에는 항상 같은 파일을 돌려준다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantService {
+
+    private final ImageVariantConfig variantConfig;
+    private final UploadStorageService uploadStorageService;
+
+    private Semaphore generationPermits;
+
+    /**
+     * 응답할 파일과 강한 ETag. 디코딩할 수 없는 형식이면 원본 파일을 그대로 돌려준다.
+     */
+    public record ImageVariant(Path file, String mediaType, String etag) {}
+
+    @PostConstruct
+    public void initPermits() {
+        generationPermits = new Semaphore(Math.max(1, variantConfig.getMaxConcurrentGenerations()));
+    }
+
+    public ImageVariant getVariant(String imagePath, int requestedWidth) throws IOException {
+        Path original = uploadStorageService.resolve(imagePath);
+        if (!Files.isRegularFile(original)) {
+            throw new NoSuchFileException(imagePath);
+        }
+
+        int width = snapWidth(requestedWidth);
+        // 경로 + 크기 + 수정 시각이 같으면 같은 원본으로 본다 (내용 해시 파일명은 원본이 바뀌지 않는다)
+        String key = sha256(imagePath + ":" + Files.size(original) + ":" + Files.getLastModifiedTime(original).toMillis());
+        String etag = key + "-w" + width;
+        Path variant = Paths.get(variantConfig.getCacheDir(), String.valueOf(width), key.substring(0, 2), key + ".jpg");
+        if (Files.exists(variant)) {
+            return new ImageVariant(variant, "image/jpeg", etag);
+        }
+
+        try {
+            generationPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to generate image variant");
+        }
+        try {
+            if (Files.exists(variant)) {
+                return new ImageVariant(variant, "image/jpeg", etag);
+            }
+            byte[] bytes = Files.readAllBytes(original);
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                String mediaType = MediaTypeFactory.getMediaType(original.getFileName().toString())
+                        .map(MediaType::toString)
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                return new ImageVariant(original, mediaType, key + "-orig");
+            }
+
+            image = ImagePreprocessService.applyOrientation(image, ImagePreprocessService.readExifOrientation(bytes));
+            byte[] encoded = ImagePreprocessService.encodeJpeg(
+                    ImagePreprocessService.downscale(image, widthToMaxEdge(image, width)), variantConfig.getQuality());
+
+            Files.createDirectories(variant.getParent());
+            Path temp = Files.createTempFile(variant.getParent(), key, ".part");
+            try {
+                Files.write(temp, encoded);
+                Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("Generated {}px variant of {}: {} -> {} bytes", width, imagePath, bytes.length, encoded.length);
+            return new ImageVariant(variant, "image/jpeg", etag);
+        } finally {
+            generationPermits.release();
+        }
+    }
+
+    /**
+     * 요청 너비를 허용 너비 중 같거나 큰 가장 작은 값으로 올린다. 최대값보다 크면 최대값.
+     */
+    int snapWidth(int requestedWidth) {
+        int largest = 0;
+        for (int width : variantConfig.getWidths().stream().sorted().toList()) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+            largest = width;
+        }
+        return largest;
+    }
+
+    /**
+     * downscale 은 긴 변 기준이므로, 너비를 width 로 맞추는 긴 변 길이로 바꾼다. 원본보다 키우지는 않는다.
+     */
+    private static int widthToMaxEdge(BufferedImage image, int width) {
+        if (image.getWidth() <= width) {
+            return Math.max(image.getWidth(), image.getHeight());
+        }
+        double scale = (double) width / image.getWidth();
+        return (int) Math.round(Math.max(image.getWidth(), image.getHeight()) * scale);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
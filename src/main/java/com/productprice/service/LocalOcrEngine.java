@@ -0,0 +1,169 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionEngineConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.util.PriceTagParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 Tesseract CLI 로 가격표를 읽는 오프라인 추출 엔진.
+ * TSV 출력의 단어를 줄 단위로 묶어 줄별 평균 신뢰도와 함께 PriceTagParser 에 넘긴다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocalOcrEngine implements ExtractionEngine {
+
+    private final ExtractionEngineConfig engineConfig;
+
+    private volatile Boolean available;
+
+    @Override
+    public String getName() {
+        return ENGINE_LOCAL;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        if (available == null) {
+            available = checkTesseract();
+        }
+        return available;
+    }
+
+    @Override
+    public List<ProductInfo> extract(byte[] imageBytes, Long storeId) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Local OCR engine is not available (tesseract not found)");
+        }
+
+        Path imageFile = null;
+        Path outputFile = null;
+        try {
+            imageFile = Files.createTempFile("ocr_", ".img");
+            Files.write(imageFile, imageBytes);
+            outputFile = Files.createTempFile("ocr_", ".tsv");
+
+            // stdout 을 파일로 받아야 waitFor 가 바로 불려 시간 제한이 걸린다.
+            // 파이프를 먼저 끝까지 읽으면 tesseract 가 멈췄을 때 작업 스레드도 함께 멈춘다
+            Process process = new ProcessBuilder(
+                    engineConfig.getTesseractPath(),
+                    imageFile.toString(),
+                    "stdout",
+                    "-l", engineConfig.getTesseractLanguages(),
+                    "--psm", "11", // sparse text: 가격표는 흩어진 짧은 텍스트 블록이다
+                    "tsv")
+                    .redirectOutput(outputFile.toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+
+            if (!process.waitFor(engineConfig.getTesseractTimeoutSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("tesseract timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException("tesseract exited with " + process.exitValue());
+            }
+
+            String tsv = Files.readString(outputFile, StandardCharsets.UTF_8);
+            List<ProductInfo> products = PriceTagParser.parse(toLines(tsv));
+            log.debug("Local OCR extracted {} products", products.size());
+            return products;
+        } catch (IOException e) {
+            throw new IllegalStateException("Local OCR failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Local OCR interrupted", e);
+        } finally {
+            deleteTempFile(imageFile);
+            deleteTempFile(outputFile);
+        }
+    }
+
+    private void deleteTempFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete OCR temp file {}", file);
+        }
+    }
+
+    /**
+     * tesseract TSV (level, page, block, par, line, word, left, top, width, height, conf, text) 를 줄 단위로 묶는다.
+     */
+    private List<PriceTagParser.OcrLine> toLines(String tsv) {
+        Map<String, StringBuilder> texts = new LinkedHashMap<>();
+        Map<String, double[]> confidences = new LinkedHashMap<>();
+
+        String[] rows = tsv.split("\n");
+        for (int i = 1; i < rows.length; i++) {
+            String[] columns = rows[i].split("\t", -1);
+            if (columns.length < 12 || !"5".equals(columns[0]) || columns[11].isBlank()) {
+                continue;
+            }
+            double confidence;
+            try {
+                confidence = Double.parseDouble(columns[10]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (confidence < 0) {
+                continue;
+            }
+
+            String key = columns[1] + ":" + columns[2] + ":" + columns[3] + ":" + columns[4];
+            StringBuilder text = texts.computeIfAbsent(key, k -> new StringBuilder());
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(columns[11].trim());
+            double[] sum = confidences.computeIfAbsent(key, k -> new double[2]);
+            sum[0] += confidence;
+            sum[1]++;
+        }
+
+        List<PriceTagParser.OcrLine> lines = new ArrayList<>();
+        texts.forEach((key, text) -> {
+            double[] sum = confidences.get(key);
+            lines.add(new PriceTagParser.OcrLine(text.toString(), sum[0] / sum[1] / 100.0));
+        });
+        return lines;
+    }
+
+    private boolean checkTesseract() {
+        try {
+            Process process = new ProcessBuilder(engineConfig.getTesseractPath(), "--version")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            boolean exited = process.waitFor(5, TimeUnit.SECONDS);
+            if (!exited) {
+                process.destroyForcibly();
+            }
+            boolean ok = exited && process.exitValue() == 0;
+            log.info("Local OCR engine (tesseract) {}", ok ? "available" : "not available");
+            return ok;
+        } catch (IOException e) {
+            log.info("Local OCR engine not available: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.productprice.service;
+
+import com.productprice.config.OpenAIConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI 호출 전 요청 수(RPM)와 예상 토큰 수(TPM) 두 개의 토큰 버킷을 확인하는 스케줄러.
+ * 대기자는 키(거래처)별 FIFO 큐에 들어가고 키 사이에서는 라운드 로빈으로 차례를 받으므로,
+ * 한 거래처의 대량 업로드가 다른 거래처 요청을 굶기지 않는다.
+ * 응답의 x-ratelimit-* 헤더로 한도와 잔량을 보정한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OpenAIRateLimiter {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    private final OpenAIConfig openAIConfig;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Deque<Waiter>> queues = new LinkedHashMap<>();
+
+    private Bucket requestBucket;
+    private Bucket tokenBucket;
+    private double estimatedTokensPerRequest;
+
+    private long waitCount;
+    private long totalWaitMs;
+    private long maxWaitMs;
+
+    public record Permit(long estimatedTokens, long waitMs) {}
+
+    public record RateLimiterStats(double availableRequests, double availableTokens, long requestLimit,
+                                   long tokenLimit, int queuedCallers, long estimatedTokensPerRequest,
+                                   long waitCount, double averageWaitMs, long maxWaitMs) {}
+
+    private static final class Waiter {
+    }
+
+    /**
+     * 분당 한도를 용량으로 하고 1ms 단위로 연속 충전하는 버킷.
+     */
+    private static class Bucket {
+        private long limit;
+        private double available;
+        private long lastRefill = System.currentTimeMillis();
+
+        private Bucket(long limit) {
+            this.limit = limit;
+            this.available = limit;
+        }
+
+        private void refill(long now) {
+            available = Math.min(limit, available + (now - lastRefill) * (limit / 60_000.0));
+            lastRefill = now;
+        }
+
+        private long millisUntil(double amount) {
+            double missing = amount - available;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing / (limit / 60_000.0));
+        }
+    }
+
+    @PostConstruct
+    public void initBuckets() {
+        requestBucket = new Bucket(openAIConfig.getRequestsPerMinute());
+        tokenBucket = new Bucket(openAIConfig.getTokensPerMinute());
+        estimatedTokensPerRequest = openAIConfig.getEstimatedTokensPerRequest();
+    }
+
+    /**
+     * 요청 1건과 예상 토큰만큼 예산이 생길 때까지 공정 순서로 기다린다.
+     */
+    public Permit acquire(String fairnessKey) throws InterruptedException {
+        if (!openAIConfig.isRateLimitEnabled()) {
+            return new Permit(0, 0);
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = start + openAIConfig.getRateLimitMaxWaitMs();
+
+        lock.lock();
+        try {
+            // 한 번에 분당 한도보다 큰 토큰을 요구하면 영원히 못 받으므로 상한을 둔다
+            long tokens = Math.min(Math.round(estimatedTokensPerRequest), tokenBucket.limit);
+            Waiter waiter = new Waiter();
+            queues.computeIfAbsent(fairnessKey, key -> new ArrayDeque<>()).addLast(waiter);
+
+            boolean served = false;
+            try {
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    requestBucket.refill(now);
+                    tokenBucket.refill(now);
+
+                    if (isNext(fairnessKey, waiter) && requestBucket.available >= 1 && tokenBucket.available >= tokens) {
+                        requestBucket.available -= 1;
+                        tokenBucket.available -= tokens;
+                        served = true;
+                        break;
+                    }
+
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Timed out waiting for OpenAI rate limit budget");
+                    }
+                    // 차례인 대기자만 충전 시점에 맞춰 깨어난다. 나머지는 앞사람이 빠지거나 한도가 바뀔 때
+                    // signalAll 로 깨어나므로 자기 기한까지 기다리면 된다
+                    long wait = remaining;
+                    if (isNext(fairnessKey, waiter)) {
+                        long refillWait = Math.max(requestBucket.millisUntil(1), tokenBucket.millisUntil(tokens));
+                        wait = Math.max(1, Math.min(remaining, refillWait));
+                    }
+                    changed.await(wait, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                dequeue(fairnessKey, waiter, served);
+                changed.signalAll();
+            }
+
+            long waitMs = System.currentTimeMillis() - start;
+            waitCount++;
+            totalWaitMs += waitMs;
+            maxWaitMs = Math.max(maxWaitMs, waitMs);
+            if (waitMs > 1_000) {
+                log.info("Waited {} ms for OpenAI rate limit budget (key={})", waitMs, fairnessKey);
+            }
+            return new Permit(tokens, waitMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 받은 예산을 쓰지 않았을 때(서킷이 열려 요청을 보내지 못한 경우) 돌려준다.
+     */
+    public void release(Permit permit) {
+        if (!openAIConfig.isRateLimitEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            requestBucket.refill(now);
+            tokenBucket.refill(now);
+            requestBucket.available = Math.min(requestBucket.limit, requestBucket.available + 1);
+            tokenBucket.available = Math.min(tokenBucket.limit, tokenBucket.available + permit.estimatedTokens());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 실제 사용 토큰으로 버킷을 정산하고 다음 요청의 예상치를 지수 이동 평균으로 갱신한다.
+     */
+    public void recordUsage(Permit permit, long actualTokens) {
+        if (!openAIConfig.isRateLimitEnabled() || actualTokens <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            tokenBucket.available -= actualTokens - permit.estimatedTokens();
+            estimatedTokensPerRequest = estimatedTokensPerRequest * 0.8 + actualTokens * 0.2;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * x-ratelimit-limit-* 로 한도를, x-ratelimit-remaining-* 로 현재 잔량을 서버 값에 맞춘다.
+     */
+    public void updateFromHeaders(HttpHeaders headers) {
+        if (!openAIConfig.isRateLimitEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            adjust(requestBucket, now,
+                    parseLong(headers.getFirst("x-ratelimit-limit-requests")),
+                    parseLong(headers.getFirst("x-ratelimit-remaining-requests")));
+            adjust(tokenBucket, now,
+                    parseLong(headers.getFirst("x-ratelimit-limit-tokens")),
+                    parseLong(headers.getFirst("x-ratelimit-remaining-tokens")));
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 429 응답 시 서버가 알려준 초기화 시점까지 해당 버킷을 비워 다른 대기자도 함께 멈추게 한다.
+     */
+    public void onRateLimited(HttpHeaders headers) {
+        if (!openAIConfig.isRateLimitEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            Long requestReset = parseDurationMs(headers.getFirst("x-ratelimit-reset-requests"));
+            Long tokenReset = parseDurationMs(headers.getFirst("x-ratelimit-reset-tokens"));
+            drainUntil(requestBucket, now, requestReset);
+            drainUntil(tokenBucket, now, tokenReset);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RateLimiterStats getStats() {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            requestBucket.refill(now);
+            tokenBucket.refill(now);
+            int queued = queues.values().stream().mapToInt(Deque::size).sum();
+            return new RateLimiterStats(
+                    requestBucket.available,
+                    tokenBucket.available,
+                    requestBucket.limit,
+                    tokenBucket.limit,
+                    queued,
+                    Math.round(estimatedTokensPerRequest),
+                    waitCount,
+                    waitCount > 0 ? (double) totalWaitMs / waitCount : 0.0,
+                    maxWaitMs
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isNext(String fairnessKey, Waiter waiter) {
+        // 라운드 로빈의 현재 차례는 가장 앞에 있는 키의 첫 대기자
+        Map.Entry<String, Deque<Waiter>> first = queues.entrySet().iterator().next();
+        return first.getKey().equals(fairnessKey) && first.getValue().peekFirst() == waiter;
+    }
+
+    private void dequeue(String fairnessKey, Waiter waiter, boolean served) {
+        Deque<Waiter> queue = queues.get(fairnessKey);
+        if (queue == null) {
+            return;
+        }
+        queue.remove(waiter);
+        if (queue.isEmpty()) {
+            queues.remove(fairnessKey);
+        } else if (served) {
+            // 차례를 쓴 키는 맨 뒤로 보내 다른 거래처에 차례를 넘긴다
+            queues.remove(fairnessKey);
+            queues.put(fairnessKey, queue);
+        }
+    }
+
+    private void adjust(Bucket bucket, long now, Long limit, Long remaining) {
+        bucket.refill(now);
+        if (limit != null && limit > 0 && limit != bucket.limit) {
+            log.info("OpenAI rate limit changed: {} -> {}", bucket.limit, limit);
+            bucket.limit = limit;
+        }
+        if (remaining != null) {
+            bucket.available = Math.min(bucket.available, remaining);
+        }
+    }
+
+    private void drainUntil(Bucket bucket, long now, Long resetMs) {
+        if (resetMs == null) {
+            return;
+        }
+        bucket.refill(now);
+        // 충전 속도를 고려해 resetMs 뒤에야 1 이상이 되도록 음수로 내린다
+        bucket.available = Math.min(bucket.available, 1 - resetMs * (bucket.limit / 60_000.0));
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * "1s", "6m0s", "20ms" 형식의 초기화 시간을 밀리초로 바꾼다.
+     */
+    static Long parseDurationMs(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double total = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            found = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            total += switch (matcher.group(2)) {
+                case "ms" -> amount;
+                case "s" -> amount * 1_000;
+                case "m" -> amount * 60_000;
+                default -> amount * 3_600_000;
+            };
+        }
+        return found ? (long) total : null;
+    }
+}
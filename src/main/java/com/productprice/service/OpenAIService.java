@@ -1,89 +1,421 @@
 package com.productprice.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.productprice.config.OpenAIConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.util.CircuitBreaker;
 import com.productprice.util.PromptUtil;
+import com.productprice.util.StreamingProductParser;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class OpenAIService {
+public class OpenAIService implements ExtractionEngine {
+
+    // Default confidence score (OpenAI doesn't provide this, so we estimate)
+    private static final double DEFAULT_CONFIDENCE_SCORE = 0.9;
 
     private final OpenAIConfig openAIConfig;
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ExtractionCacheService extractionCacheService;
+    private final ImagePreprocessService imagePreprocessService;
+    private final RestTemplate openAIRestTemplate;
+    private final OpenAIRateLimiter rateLimiter;
+    private final ExtractionMetrics extractionMetrics;
+
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    public void initCircuitBreaker() {
+        circuitBreaker = new CircuitBreaker(
+                openAIConfig.getCircuitFailureThreshold(), openAIConfig.getCircuitOpenMs());
+    }
+
+    @Override
+    public String getName() {
+        return ENGINE_OPENAI;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return openAIConfig.getApiKey() != null && !openAIConfig.getApiKey().isEmpty();
+    }
+
+    @Override
+    public List<ProductInfo> extract(byte[] imageBytes, Long storeId) {
+        return extractProductsFromImage(imageBytes, storeId);
+    }
+
+    @Override
+    public List<ProductInfo> extract(byte[] imageBytes, String imageHash, Long storeId) {
+        return extractProducts(imageBytes, imageHash, storeId, null);
+    }
 
     public List<ProductInfo> extractProductsFromImage(byte[] imageBytes) {
+        return extractProductsFromImage(imageBytes, null);
+    }
+
+    /**
+     * @param storeId 요청 한도를 나눌 때 공정성 기준으로 쓰는 거래처 ID (없으면 공용 큐)
+     */
+    public List<ProductInfo> extractProductsFromImage(byte[] imageBytes, Long storeId) {
+        return extractProducts(imageBytes, null, storeId, null);
+    }
+
+    @Override
+    public List<ProductInfo> extractStreaming(byte[] imageBytes, Long storeId, Consumer<ProductInfo> onProduct) {
+        return extractProducts(imageBytes, null, storeId, onProduct);
+    }
+
+    @Override
+    public List<ProductInfo> extractStreaming(byte[] imageBytes, String imageHash, Long storeId,
+                                              Consumer<ProductInfo> onProduct) {
+        return extractProducts(imageBytes, imageHash, storeId, onProduct);
+    }
+
+    /**
+     * onProduct 가 있으면 stream: true 로 호출해 products 배열을 토큰이 도착하는 대로 읽고,
+     * 제품 객체가 완성될 때마다 넘긴다. 반환값은 두 방식 모두 전체 응답을 파싱한 결과다.
+     * imageHash 가 없으면(타일, 예전 경로) 캐시 키를 만들 때 바이트를 해시한다.
+     */
+    private List<ProductInfo> extractProducts(byte[] imageBytes, String imageHash, Long storeId,
+                                              Consumer<ProductInfo> onProduct) {
         try {
             if (openAIConfig.getApiKey() == null || openAIConfig.getApiKey().isEmpty()) {
                 log.error("OpenAI API key is not configured");
                 return new ArrayList<>();
             }
 
-            // Encode image to base64
-            String imageBase64 = Base64.getEncoder().encodeToString(imageBytes);
-
-            // Prepare request to OpenAI API
-            String url = "https://api.openai.com/v1/chat/completions";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openAIConfig.getApiKey());
+            // Return the previous result if the same image was already extracted
+            ExtractionCacheService.CacheKey cacheKey = extractionCacheService.keyFor(imageBytes, imageHash);
+            Optional<List<ProductInfo>> cached = extractionCacheService.get(cacheKey);
+            if (cached.isPresent()) {
+                log.debug("Extraction cache hit for image {}", cacheKey.imageHash());
+                if (onProduct != null) {
+                    cached.get().forEach(onProduct);
+                }
+                return new ArrayList<>(cached.get());
+            }
 
-            // Build request body
-            String requestBody = buildRequestBody(imageBase64);
+            // Downscale and recompress before sending to cut payload size and token cost
+            long preprocessStart = extractionMetrics.start();
+            ImagePreprocessService.PreparedImage prepared =
+                    imagePreprocessService.prepare(imageBytes, openAIConfig.getModel());
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_PREPROCESS, preprocessStart);
+            if (prepared.bytesSaved() > 0) {
+                log.info("Image preprocessing saved {} bytes ({} -> {})",
+                        prepared.bytesSaved(), prepared.originalSize(), prepared.bytes().length);
+            }
 
-            HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
+            // Stream the JSON envelope and Base64 image straight into the request body,
+            // so no full-size Base64 String or JSON String is ever materialised
+            RequestCallback requestCallback = request -> {
+                request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                request.getHeaders().setBearerAuth(openAIConfig.getApiKey());
+                // Base64 encoding is streamed, so this covers encoding plus writing the body
+                long encodeStart = extractionMetrics.start();
+                writeRequestBody(request.getBody(), prepared.bytes(), prepared.mediaType(), onProduct != null);
+                extractionMetrics.recordStage(ExtractionMetrics.STAGE_REQUEST_ENCODE, encodeStart);
+            };
 
-            // Call OpenAI API
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url, HttpMethod.POST, request, String.class);
+            // Call OpenAI API with retry and parse the response straight from the response stream
+            String fairnessKey = storeId != null ? "store:" + storeId : "default";
+            BodyReader bodyReader = onProduct != null ? body -> readStream(body, onProduct) : objectMapper::readTree;
+            JsonNode responseJson = executeWithRetry(requestCallback, fairnessKey, bodyReader);
 
             // Parse response
-            return parseResponse(response.getBody());
+            long parseStart = extractionMetrics.start();
+            List<ProductInfo> products = parseResponse(responseJson);
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_RESPONSE_PARSE, parseStart);
+
+            // Empty results may come from a swallowed API/parse error, so only cache real results
+            if (!products.isEmpty()) {
+                extractionCacheService.put(cacheKey, products);
+            }
+            return products;
 
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error extracting products from image", e);
-            return new ArrayList<>();
+            throw new RuntimeException("OpenAI extraction failed: " + e.getMessage(), e);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private record ApiResponse(int status, JsonNode body, Long retryAfterMs) {}
+
+    @FunctionalInterface
+    private interface BodyReader {
+        JsonNode read(InputStream body) throws IOException;
+    }
+
+    /**
+     * 429 / 5xx / I/O 오류는 지수 백오프(또는 Retry-After)로 재시도하고, 연속 실패가 쌓이면 서킷을 연다.
+     */
+    private JsonNode executeWithRetry(RequestCallback requestCallback, String fairnessKey, BodyReader bodyReader)
+            throws InterruptedException {
+        String url = openAIConfig.getBaseUrl() + "/chat/completions";
+        int maxRetries = openAIConfig.getMaxRetries();
+
+        for (int attempt = 0; ; attempt++) {
+            // 서킷이 열려 있으면 한도 대기열에 서지 않고 바로 실패한다
+            if (circuitBreaker.isOpen()) {
+                throw new IllegalStateException("OpenAI circuit breaker is open");
+            }
+
+            // 한도 대기(시간 초과, 인터럽트)는 HALF_OPEN 시험 요청 자리를 잡기 전에 끝낸다
+            long waitStart = extractionMetrics.start();
+            OpenAIRateLimiter.Permit permit = rateLimiter.acquire(fairnessKey);
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_RATE_LIMIT_WAIT, waitStart);
+
+            if (!circuitBreaker.allowRequest()) {
+                rateLimiter.release(permit);
+                throw new IllegalStateException("OpenAI circuit breaker is open");
+            }
+
+            try {
+                ApiResponse response;
+                long callStart = extractionMetrics.start();
+                try {
+                    response = openAIRestTemplate.execute(url, HttpMethod.POST, requestCallback,
+                            clientResponse -> readResponse(clientResponse, bodyReader));
+                } catch (ResourceAccessException e) {
+                    extractionMetrics.recordStage(ExtractionMetrics.STAGE_API_CALL, callStart);
+                    circuitBreaker.recordFailure();
+                    if (attempt >= maxRetries) {
+                        throw e;
+                    }
+                    long delay = backoffDelay(attempt);
+                    log.warn("OpenAI request failed ({}), retrying in {} ms (attempt {}/{})",
+                            e.getMessage(), delay, attempt + 1, maxRetries);
+                    Thread.sleep(delay);
+                    continue;
+                } catch (RuntimeException e) {
+                    // 응답 처리 중의 다른 예외(스트림 중단, 본문 변환 오류, 콜백 오류 등)도 실패로 센다
+                    extractionMetrics.recordStage(ExtractionMetrics.STAGE_API_CALL, callStart);
+                    circuitBreaker.recordFailure();
+                    throw e;
+                }
+                extractionMetrics.recordStage(ExtractionMetrics.STAGE_API_CALL, callStart);
+
+                if (response.status() >= 200 && response.status() < 300) {
+                    circuitBreaker.recordSuccess();
+                    JsonNode usage = response.body().path("usage");
+                    rateLimiter.recordUsage(permit, usage.path("total_tokens").asLong(0));
+                    extractionMetrics.recordTokenUsage(openAIConfig.getModel(), usage);
+                    return response.body();
+                }
+
+                boolean retryable = response.status() == 429 || response.status() >= 500;
+                if (!retryable) {
+                    // 4xx 는 요청 자체의 문제이므로 서킷 실패로 세지 않는다
+                    circuitBreaker.recordSuccess();
+                    throw new IllegalStateException("OpenAI API returned " + response.status());
+                }
+
+                circuitBreaker.recordFailure();
+                long delay = response.retryAfterMs() != null ? response.retryAfterMs() : backoffDelay(attempt);
+                if (attempt >= maxRetries || delay > openAIConfig.getRetryMaxDelayMs()) {
+                    throw new IllegalStateException("OpenAI API returned " + response.status() + " after "
+                            + (attempt + 1) + " attempts");
+                }
+                log.warn("OpenAI API returned {}, retrying in {} ms (attempt {}/{})",
+                        response.status(), delay, attempt + 1, maxRetries);
+                Thread.sleep(delay);
+            } finally {
+                // 결과를 기록하지 못하고 빠져나간 HALF_OPEN 시험 요청(인터럽트, Error 등)이
+                // 서킷을 영구히 막지 않게 한다. 결과를 기록한 경우에는 아무 일도 하지 않는다
+                circuitBreaker.releaseProbe();
+            }
+        }
+    }
+
+    private ApiResponse readResponse(ClientHttpResponse response, BodyReader bodyReader) throws IOException {
+        int status = response.getStatusCode().value();
+        rateLimiter.updateFromHeaders(response.getHeaders());
+        if (status == 429) {
+            rateLimiter.onRateLimited(response.getHeaders());
+        }
+        if (status >= 200 && status < 300) {
+            return new ApiResponse(status, bodyReader.read(response.getBody()), null);
+        }
+        String errorBody = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+        log.debug("OpenAI error response {}: {}", status, errorBody);
+        return new ApiResponse(status, null, parseRetryAfter(response.getHeaders()));
+    }
+
+    /**
+     * SSE(data: {...}) 청크의 delta.content 를 증분 파서에 흘려 넣고, 다 읽으면 비스트리밍 응답과 같은 모양
+     * ({"choices":[{"message":{"content":..}}],"usage":..})으로 되돌려 이후 처리(토큰 집계, 파싱, 캐시)를 공유한다.
+     */
+    private JsonNode readStream(InputStream body, Consumer<ProductInfo> onProduct) throws IOException {
+        StreamingProductParser parser = new StreamingProductParser(
+                objectMapper.getFactory(), DEFAULT_CONFIDENCE_SCORE, onProduct);
+        StringBuilder content = new StringBuilder();
+        JsonNode usage = null;
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring("data:".length()).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                JsonNode chunk = objectMapper.readTree(data);
+                JsonNode delta = chunk.path("choices").path(0).path("delta").path("content");
+                if (delta.isTextual()) {
+                    content.append(delta.asText());
+                    parser.feed(delta.asText());
+                }
+                if (chunk.hasNonNull("usage")) {
+                    usage = chunk.get("usage");
+                }
+            }
+            parser.end();
+        } catch (IOException e) {
+            if (parser.getEmitted() > 0) {
+                // 이미 넘긴 제품이 있으면 재시도하면 중복되므로 ResourceAccessException 으로 바뀌지 않게 한다
+                throw new UncheckedIOException("OpenAI stream broke after " + parser.getEmitted() + " products", e);
+            }
+            throw e;
+        }
+
+        ObjectNode completion = objectMapper.createObjectNode();
+        completion.putArray("choices").addObject().putObject("message").put("content", content.toString());
+        if (usage != null) {
+            completion.set("usage", usage);
         }
+        return completion;
+    }
+
+    private long backoffDelay(int attempt) {
+        long exponential = openAIConfig.getRetryBaseDelayMs() * (1L << Math.min(attempt, 20));
+        long capped = Math.min(exponential, openAIConfig.getRetryMaxDelayMs());
+        // full jitter 로 동시에 실패한 요청들이 한꺼번에 재시도하지 않게 한다
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
     }
 
-    private String buildRequestBody(String imageBase64) {
+    private Long parseRetryAfter(HttpHeaders headers) {
+        String retryAfterMs = headers.getFirst("retry-after-ms");
+        if (retryAfterMs != null) {
+            try {
+                return (long) Double.parseDouble(retryAfterMs);
+            } catch (NumberFormatException ignored) {
+                // fall through to Retry-After
+            }
+        }
+
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return null;
+        }
         try {
+            return (long) (Double.parseDouble(retryAfter) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(), date).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    void writeRequestBody(OutputStream out, byte[] imageBytes, String mediaType, boolean stream)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
             // Build JSON request body for OpenAI Vision API
-            String content = String.format(
-                    "{\"role\":\"user\",\"content\":[{\"type\":\"text\",\"text\":\"%s\"}," +
-                    "{\"type\":\"image_url\",\"image_url\":{\"url\":\"data:image/jpeg;base64,%s\"}}]}",
-                    PromptUtil.PRODUCT_PRICE_EXTRACTION_PROMPT.replace("\"", "\\\"").replace("\n", "\\n"),
-                    imageBase64
-            );
-
-            return String.format(
-                    "{\"model\":\"%s\",\"messages\":[%s],\"temperature\":%f,\"response_format\":{\"type\":\"json_object\"}}",
-                    openAIConfig.getModel(),
-                    content,
-                    openAIConfig.getTemperature()
-            );
-        } catch (Exception e) {
-            log.error("Error building request body", e);
-            throw new RuntimeException("Failed to build request body", e);
+            generator.writeStartObject();
+            generator.writeStringField("model", openAIConfig.getModel());
+            generator.writeArrayFieldStart("messages");
+            generator.writeStartObject();
+            generator.writeStringField("role", "user");
+            generator.writeArrayFieldStart("content");
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "text");
+            generator.writeStringField("text", PromptUtil.PRODUCT_PRICE_EXTRACTION_PROMPT);
+            generator.writeEndObject();
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "image_url");
+            generator.writeObjectFieldStart("image_url");
+            generator.writeFieldName("url");
+            // Open the string value as raw JSON, then encode the image bytes directly onto the stream
+            generator.writeRawValue("\"data:" + mediaType + ";base64,");
+            generator.flush();
+            try (OutputStream base64Out = Base64.getEncoder().wrap(StreamUtils.nonClosing(out))) {
+                base64Out.write(imageBytes);
+            }
+            generator.writeRaw('"');
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeNumberField("temperature", openAIConfig.getTemperature());
+            generator.writeObjectFieldStart("response_format");
+            generator.writeStringField("type", "json_object");
+            generator.writeEndObject();
+            if (stream) {
+                generator.writeBooleanField("stream", true);
+                // 마지막 청크에 usage 가 실려 와야 토큰 한도/지표를 비스트리밍과 똑같이 집계할 수 있다
+                generator.writeObjectFieldStart("stream_options");
+                generator.writeBooleanField("include_usage", true);
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
         }
     }
 
-    private List<ProductInfo> parseResponse(String responseBody) {
+    private List<ProductInfo> parseResponse(JsonNode root) {
         List<ProductInfo> products = new ArrayList<>();
         try {
-            JsonNode root = objectMapper.readTree(responseBody);
             JsonNode choices = root.get("choices");
             if (choices != null && choices.isArray() && choices.size() > 0) {
                 String content = choices.get(0).get("message").get("content").asText();
@@ -94,10 +426,7 @@ public class OpenAIService {
                     for (JsonNode productNode : productsNode) {
                         String productName = productNode.get("product_name").asText();
                         double price = productNode.get("price").asDouble();
-                        // Default confidence score (OpenAI doesn't provide this, so we estimate)
-                        double confidenceScore = 0.9;
-                        
-                        products.add(new ProductInfo(productName, price, confidenceScore));
+                        products.add(new ProductInfo(productName, price, DEFAULT_CONFIDENCE_SCORE));
                     }
                 }
             }
@@ -107,6 +436,5 @@ public class OpenAIService {
         return products;
     }
 
-    public record ProductInfo(String productName, Double price, Double confidenceScore) {}
 }
 
@@ -0,0 +1,202 @@
+package com.productprice.service;
+
+import com.productprice.config.PriceHistoryConfig;
+import com.productprice.dto.PriceHistoryResponse;
+import com.productprice.model.ProductPrice;
+import com.productprice.model.Store;
+import com.productprice.repository.PriceHistoryRepository;
+import com.productprice.util.ProductNameNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 승인된 가격 관측값을 월 파티션 표에 쌓고, 제품 키 · 거래처 · 일/주 단위 min/max/avg 롤업을 증분으로 갱신한다.
+ * 추이 조회는 관측값이 아닌 롤업만 읽는다.
+ * 검수 대기 가격은 승인될 때 기록되며, 이미 기록된 가격의 사후 수정은 롤업에 반영되지 않는다 (min/max 는 되돌릴 수 없음).
+ */
+@Service
+@Slf4j
+public class PriceHistoryService {
+
+    private static final Set<String> TRUSTED_STATUSES = Set.of("AUTO_APPROVED", "APPROVED");
+
+    private final PriceHistoryRepository historyRepository;
+    private final PriceHistoryConfig historyConfig;
+    private final StoreService storeService;
+    private final TransactionTemplate partitionTransaction;
+
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+    private volatile boolean schemaReady;
+
+    public PriceHistoryService(PriceHistoryRepository historyRepository, PriceHistoryConfig historyConfig,
+                               StoreService storeService, PlatformTransactionManager transactionManager) {
+        this.historyRepository = historyRepository;
+        this.historyConfig = historyConfig;
+        this.storeService = storeService;
+        // 파티션 DDL 이 실패해도 제품 저장 트랜잭션이 함께 롤백되지 않도록 별도 트랜잭션에서 실행한다
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initSchema() {
+        if (!historyConfig.isEnabled()) {
+            return;
+        }
+        try {
+            partitionTransaction.executeWithoutResult(status -> historyRepository.createSchemaIfMissing());
+            YearMonth current = YearMonth.now();
+            ensurePartition(current);
+            ensurePartition(current.plusMonths(1));
+            schemaReady = true;
+        } catch (Exception e) {
+            log.warn("Price history disabled, could not prepare tables: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 신뢰할 수 있는 상태(AUTO_APPROVED, APPROVED)의 제품만 관측값과 롤업에 반영한다.
+     */
+    @Transactional
+    public void recordTrusted(List<ProductPrice> products) {
+        if (!schemaReady) {
+            return;
+        }
+        List<PriceHistoryRepository.Observation> observations = products.stream()
+                .filter(product -> TRUSTED_STATUSES.contains(product.getStatus()) && product.getPrice() != null)
+                .map(this::toObservation)
+                .toList();
+        if (observations.isEmpty()) {
+            return;
+        }
+
+        observations.stream()
+                .map(observation -> YearMonth.from(observation.observedAt()))
+                .distinct()
+                .forEach(this::ensurePartition);
+        historyRepository.insertObservations(observations);
+        historyRepository.mergeRollups(PriceHistoryRepository.GRANULARITY_DAILY,
+                rollup(observations, observedAt -> observedAt.toLocalDate()));
+        historyRepository.mergeRollups(PriceHistoryRepository.GRANULARITY_WEEKLY,
+                rollup(observations, PriceHistoryService::weekStart));
+    }
+
+    public boolean isTrusted(String status) {
+        return TRUSTED_STATUSES.contains(status);
+    }
+
+    /**
+     * 제품의 거래처별 가격 추이. granularity 가 없으면 기간 길이에 따라 일/주 단위를 고른다.
+     */
+    public PriceHistoryResponse getSeries(String productName, Long storeId, LocalDate startDate, LocalDate endDate,
+                                          String granularity) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1);
+        String resolved = granularity != null && !granularity.isBlank()
+                ? granularity.toLowerCase()
+                : ChronoUnit.DAYS.between(start, end) > historyConfig.getDailyMaxDays()
+                        ? PriceHistoryRepository.GRANULARITY_WEEKLY
+                        : PriceHistoryRepository.GRANULARITY_DAILY;
+
+        String productKey = ProductNameNormalizer.normalize(productName);
+        List<PriceHistoryRepository.RollupRow> rows = schemaReady
+                ? historyRepository.findRollups(resolved, productKey, storeId, start, end)
+                : List.of();
+
+        Map<Long, String> storeNames = rows.isEmpty() ? Map.of() : storeService.getAllStores().stream()
+                .collect(Collectors.toMap(Store::getId, Store::getStoreName));
+
+        // 행은 store_id, bucket_date 순으로 정렬되어 온다
+        Map<Long, List<PriceHistoryResponse.PricePoint>> pointsByStore = new LinkedHashMap<>();
+        for (PriceHistoryRepository.RollupRow row : rows) {
+            pointsByStore.computeIfAbsent(row.storeId(), id -> new ArrayList<>()).add(
+                    new PriceHistoryResponse.PricePoint(
+                            row.bucket(),
+                            row.minPrice(),
+                            row.maxPrice(),
+                            row.sumPrice().divide(BigDecimal.valueOf(row.count()), 2, RoundingMode.HALF_UP),
+                            row.count()));
+        }
+
+        List<PriceHistoryResponse.StoreSeries> series = new ArrayList<>();
+        pointsByStore.forEach((id, points) -> series.add(new PriceHistoryResponse.StoreSeries(
+                id == 0L ? null : id, storeNames.get(id), points)));
+
+        return new PriceHistoryResponse(productKey, resolved, start, end, series);
+    }
+
+    private PriceHistoryRepository.Observation toObservation(ProductPrice product) {
+        Store store = product.getStore();
+        LocalDateTime observedAt = product.getExtractedAt() != null ? product.getExtractedAt() : LocalDateTime.now();
+        return new PriceHistoryRepository.Observation(
+                ProductNameNormalizer.normalize(product.getProductName()),
+                product.getProductName(),
+                store != null && store.getId() != null ? store.getId() : 0L,
+                product.getPrice(),
+                observedAt,
+                product.getId());
+    }
+
+    /**
+     * 같은 (제품 키, 거래처, 구간) 관측값을 하나의 롤업 증분으로 합친다. 키 순서로 정렬해 동시 갱신 시 교착을 피한다.
+     */
+    private List<PriceHistoryRepository.RollupRow> rollup(List<PriceHistoryRepository.Observation> observations,
+                                                          Function<LocalDateTime, LocalDate> bucketOf) {
+        Map<String, PriceHistoryRepository.RollupRow> merged = new LinkedHashMap<>();
+        for (PriceHistoryRepository.Observation observation : observations) {
+            LocalDate bucket = bucketOf.apply(observation.observedAt());
+            PriceHistoryRepository.RollupRow row = new PriceHistoryRepository.RollupRow(
+                    observation.productKey(), observation.storeId(), bucket,
+                    observation.price(), observation.price(), observation.price(), 1);
+            merged.merge(observation.productKey() + "|" + observation.storeId() + "|" + bucket, row,
+                    (a, b) -> new PriceHistoryRepository.RollupRow(a.productKey(), a.storeId(), a.bucket(),
+                            a.minPrice().min(b.minPrice()), a.maxPrice().max(b.maxPrice()),
+                            a.sumPrice().add(b.sumPrice()), a.count() + b.count()));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparing(PriceHistoryRepository.RollupRow::productKey)
+                        .thenComparing(PriceHistoryRepository.RollupRow::bucket)
+                        .thenComparingLong(PriceHistoryRepository.RollupRow::storeId))
+                .toList();
+    }
+
+    private void ensurePartition(YearMonth month) {
+        if (knownPartitions.contains(month)) {
+            return;
+        }
+        synchronized (knownPartitions) {
+            if (!knownPartitions.contains(month)) {
+                partitionTransaction.executeWithoutResult(status -> historyRepository.createMonthPartition(month));
+                knownPartitions.add(month);
+            }
+        }
+    }
+
+    private static LocalDate weekStart(LocalDateTime observedAt) {
+        return observedAt.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
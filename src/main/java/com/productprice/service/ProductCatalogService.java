@@ -0,0 +1,157 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductCatalogConfig;
+import com.productprice.model.CatalogAlias;
+import com.productprice.model.CatalogProduct;
+import com.productprice.repository.CatalogAliasRepository;
+import com.productprice.repository.CatalogProductRepository;
+import com.productprice.util.FuzzyNameIndex;
+import com.productprice.util.ProductNameNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 추출된 제품명을 대표 카탈로그 항목에 연결한다. "코카콜라 500ml" / "코카 콜라500ML" 처럼 표기만 다른 이름은
+ * 정규화 후 같은 키가 되고, OCR 오독은 자모 단위 편집 거리로 가장 가까운 항목에 붙는다.
+ * 카탈로그와 별칭은 기동 시 메모리 색인에 올리고, 이후 생성/검수 수정분은 커밋되는 대로 색인에 반영한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogService {
+
+    private final CatalogProductRepository catalogRepository;
+    private final CatalogAliasRepository aliasRepository;
+    private final ProductCatalogConfig catalogConfig;
+
+    private final FuzzyNameIndex index = new FuzzyNameIndex();
+    private final Map<Long, String> canonicalNames = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public record CatalogMatch(Long catalogId, String canonicalName, int distance) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        if (!catalogConfig.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<CatalogProduct> products = catalogRepository.findAll();
+            products.forEach(this::addToIndex);
+            // 별칭이 같은 키의 자동 생성 항목보다 우선하도록 나중에 올린다
+            List<CatalogAlias> aliases = aliasRepository.findAll();
+            aliases.forEach(alias -> index.put(alias.getNormalizedName(), alias.getCatalogId()));
+            loaded = true;
+            log.info("Loaded {} catalog products and {} aliases into name index in {} ms",
+                    products.size(), aliases.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not load product catalog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 색인만 조회한다. 맞는 항목이 없으면 비어 있다.
+     */
+    public Optional<CatalogMatch> match(String productName) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        String key = ProductNameNormalizer.normalize(productName);
+        return index.find(key, maxDistanceFor(key))
+                .map(match -> new CatalogMatch(match.id(), canonicalNames.get(match.id()), match.distance()));
+    }
+
+    /**
+     * 추출된 이름의 카탈로그 ID. 맞는 항목이 없고 auto-create 가 켜져 있으면 새로 만든다.
+     * 색인이 아직 준비되지 않았으면 null (제품은 카탈로그 없이 저장된다).
+     */
+    public Long resolve(String productName) {
+        if (!loaded || ProductNameNormalizer.normalize(productName).isEmpty()) {
+            return null;
+        }
+        Optional<CatalogMatch> match = match(productName);
+        if (match.isPresent()) {
+            return match.get().catalogId();
+        }
+        return catalogConfig.isAutoCreate() ? create(productName) : null;
+    }
+
+    /**
+     * 검수자가 고친 이름의 카탈로그 ID 를 돌려주고, 원래 추출된 표기를 그 항목의 별칭으로 남긴다.
+     * 다음부터 같은 오독은 고친 이름으로 바로 연결된다. 색인은 트랜잭션이 커밋된 뒤에 갱신한다.
+     */
+    public Long learnCorrection(String extractedName, String correctedName) {
+        Long catalogId = resolve(correctedName);
+        String extractedKey = ProductNameNormalizer.normalize(extractedName);
+        if (catalogId == null || extractedKey.isEmpty()
+                || extractedKey.equals(ProductNameNormalizer.normalize(correctedName))) {
+            return catalogId;
+        }
+
+        CatalogAlias alias = aliasRepository.findByNormalizedName(extractedKey).orElseGet(CatalogAlias::new);
+        alias.setNormalizedName(extractedKey);
+        alias.setCatalogId(catalogId);
+        aliasRepository.save(alias);
+        runAfterCommit(() -> index.put(extractedKey, catalogId));
+        return catalogId;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 같은 이름이 동시에 들어오면(다른 인스턴스 포함) 먼저 만든 행을 쓴다. 충돌은 INSERT ... ON CONFLICT DO NOTHING 으로
+     * 넘기므로 예외가 나지 않아 제품 저장 트랜잭션이 깨지지 않고, 잠금 없이 여러 스레드가 동시에 만들 수 있다.
+     */
+    private Long create(String productName) {
+        String key = ProductNameNormalizer.normalize(productName);
+        Optional<FuzzyNameIndex.Match> existing = index.find(key, 0);
+        if (existing.isPresent()) {
+            return existing.get().id();
+        }
+
+        String canonicalName = productName.trim();
+        CatalogProduct created = catalogRepository.insertIfAbsent(canonicalName, key).stream()
+                .findFirst()
+                .map(id -> new CatalogProduct(id, canonicalName, key, null))
+                .orElseGet(() -> catalogRepository.findByNormalizedName(key)
+                        .orElseThrow(() -> new IllegalStateException("Catalog product not found: " + key)));
+        runAfterCommit(() -> addToIndex(created));
+        return created.getId();
+    }
+
+    private void addToIndex(CatalogProduct product) {
+        canonicalNames.put(product.getId(), product.getCanonicalName());
+        index.put(product.getNormalizedName(), product.getId());
+    }
+
+    private int maxDistanceFor(String key) {
+        int length = FuzzyNameIndex.toJamo(key).length();
+        return Math.min(catalogConfig.getMaxDistance(), (int) (length * catalogConfig.getMaxDistanceRatio()));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
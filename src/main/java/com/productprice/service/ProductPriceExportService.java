@@ -0,0 +1,290 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ProductPriceExportConfig;
+import com.productprice.repository.ProductPriceExportRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 기간 단위 제품 가격을 CSV 또는 NDJSON 으로 응답 스트림에 바로 써 내려간다.
+ * 서버 측 커서로 fetch size 만큼씩 읽고 행마다 즉시 기록하므로 행 수와 관계없이 메모리 사용량이 일정하다.
+ * HTTP 응답은 전용 실행기에서 쓰고, 시간 제한은 spring.mvc.async.request-timeout 이 아닌
+ * product-price.export.timeout-ms 를 따른다.
+ */
+@Service
+@Slf4j
+public class ProductPriceExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final Set<String> FORMATS = Set.of(FORMAT_CSV, FORMAT_NDJSON);
+
+    private final ProductPriceExportRepository exportRepository;
+    private final ProductPriceExportConfig exportConfig;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private ThreadPoolExecutor exportExecutor;
+
+    public ProductPriceExportService(ProductPriceExportRepository exportRepository,
+                                     ProductPriceExportConfig exportConfig,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.exportRepository = exportRepository;
+        this.exportConfig = exportConfig;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void initExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        exportExecutor = new ThreadPoolExecutor(
+                exportConfig.getConcurrency(),
+                exportConfig.getConcurrency(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(exportConfig.getMaxQueueDepth()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-export-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        exportExecutor.shutdownNow();
+    }
+
+    /**
+     * 내보내기를 시작하고 응답 본문을 흘려보낼 emitter 를 돌려준다. timeout-ms 가 0 이면 시간 제한이 없다.
+     * 대기열이 가득 찬 경우 RejectedExecutionException 을 던진다.
+     */
+    public ResponseBodyEmitter stream(LocalDateTime startDate, LocalDateTime endDate, Long storeId, String status,
+                                      String format, boolean gzip) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(exportConfig.getTimeoutMs());
+        exportExecutor.execute(() -> {
+            try {
+                export(startDate, endDate, storeId, status, format, gzip, new EmitterOutputStream(emitter));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * out 에 내보내고 기록한 행 수를 돌려준다. 클라이언트가 연결을 끊으면 IOException 으로 중단되고 커서도 닫힌다.
+     */
+    public long export(LocalDateTime startDate, LocalDateTime endDate, Long storeId, String status,
+                       String format, boolean gzip, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        AtomicLong written = new AtomicLong();
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = FORMAT_NDJSON.equals(format) ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+
+        try {
+            rowWriter.writeHeader();
+            // 커서(fetch size)는 자동 커밋이 꺼진 트랜잭션 안에서만 동작한다
+            transactionTemplate.executeWithoutResult(tx -> exportRepository.streamRows(
+                    startDate, endDate, storeId, status, exportConfig.getFetchSize(), rs -> {
+                        try {
+                            rowWriter.writeRow(rs);
+                            if (written.incrementAndGet() % exportConfig.getFlushRows() == 0) {
+                                writer.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            rowWriter.finish();
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        } catch (UncheckedIOException e) {
+            log.info("Product export aborted after {} rows: {}", written.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        long elapsedMs = System.currentTimeMillis() - start;
+        log.info("Exported {} product prices as {}{} in {} ms", written.get(), format, gzip ? "+gzip" : "", elapsedMs);
+        return written.get();
+    }
+
+    /**
+     * 쓰기 한 번을 emitter 의 청크 하나로 보낸다. 위의 64KB 버퍼 덕분에 청크는 flush 단위로 모인다.
+     */
+    static class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            emitter.send(new byte[]{(byte) b});
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                emitter.send(Arrays.copyOfRange(b, off, off + len));
+            }
+        }
+    }
+
+    private interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet rs) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", ProductPriceExportRepository.EXPORT_COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException {
+            try {
+                for (int i = 1; i <= ProductPriceExportRepository.EXPORT_COLUMNS.size(); i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    Object value = rs.getObject(i);
+                    if (value instanceof Timestamp timestamp) {
+                        writer.write(timestamp.toLocalDateTime().toString());
+                    } else if (value instanceof BigDecimal decimal) {
+                        writer.write(decimal.toPlainString());
+                    } else if (value != null) {
+                        writeField(value.toString());
+                    }
+                }
+                writer.write('\n');
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not read export row", e);
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeField(String value) throws IOException {
+            // 구분자/따옴표/줄바꿈이 있을 때만 따옴표로 감싼다 (RFC 4180)
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // 한 줄씩 바로 쓰고 writer 는 닫지 않는다 (응답 스트림은 컨테이너가 닫는다)
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            this.generator.configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, false);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("productName", rs.getString("product_name"));
+                generator.writeNumberField("price", rs.getBigDecimal("price"));
+                Timestamp extractedAt = rs.getTimestamp("extracted_at");
+                generator.writeStringField("extractedAt", extractedAt != null ? extractedAt.toLocalDateTime().toString() : null);
+                generator.writeStringField("status", rs.getString("status"));
+                writeNullableNumber("confidenceScore", rs.getObject("confidence_score"));
+                writeNullableNumber("storeId", rs.getObject("store_id"));
+                generator.writeStringField("storeName", rs.getString("store_name"));
+                generator.writeStringField("location", rs.getString("location"));
+                generator.writeStringField("imagePath", rs.getString("image_path"));
+                generator.writeEndObject();
+                generator.flush();
+                writer.write('\n');
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not read export row", e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+
+        private void writeNullableNumber(String field, Object value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else if (value instanceof Long || value instanceof Integer) {
+                generator.writeNumberField(field, ((Number) value).longValue());
+            } else if (value instanceof Number number) {
+                generator.writeNumberField(field, number.doubleValue());
+            }
+        }
+    }
+}
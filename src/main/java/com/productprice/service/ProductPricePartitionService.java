@@ -0,0 +1,211 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductPricePartitionConfig;
+import com.productprice.repository.ProductPricePartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * product_price 월 파티션 관리.
+ * 앞으로 쓸 월 파티션을 미리 만들고, 보관 기간이 지난 파티션은 gzip CSV 로 내보낸 뒤 분리해 삭제한다.
+ * 대시보드 카운터(product_price_daily_stat)는 삭제와 같은 트랜잭션에서 그 파티션의 행만큼 줄여 남은 제품과 맞춘다.
+ * 가격 추이 롤업은 별도 표에 있으므로 보관 처리 후에도 유지된다.
+ */
+@Service
+@Slf4j
+public class ProductPricePartitionService {
+
+    private static final int EXPORT_FETCH_SIZE = 1_000;
+
+    private final ProductPricePartitionRepository partitionRepository;
+    private final ProductPricePartitionConfig partitionConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean partitioned;
+
+    public ProductPricePartitionService(ProductPricePartitionRepository partitionRepository,
+                                        ProductPricePartitionConfig partitionConfig,
+                                        PlatformTransactionManager transactionManager) {
+        this.partitionRepository = partitionRepository;
+        this.partitionConfig = partitionConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!partitionConfig.isEnabled()) {
+            return;
+        }
+        try {
+            partitioned = partitionRepository.isPartitioned();
+        } catch (Exception e) {
+            log.warn("Could not inspect product_price partitioning: {}", e.getMessage());
+            return;
+        }
+        if (!partitioned) {
+            log.warn("product_price is not partitioned; run migrate_product_price_partitioning.sql to enable " +
+                    "monthly partitions and archival");
+            return;
+        }
+        createFuturePartitions();
+    }
+
+    /**
+     * 매일 새벽: 미래 파티션 보충 후 보관 기간이 지난 파티션을 정리한다.
+     */
+    @Scheduled(cron = "${product-price.partitioning.maintenance-cron:0 30 3 * * *}")
+    public void runMaintenance() {
+        if (!partitionConfig.isEnabled() || !partitioned) {
+            return;
+        }
+        createFuturePartitions();
+        archiveExpiredPartitions();
+    }
+
+    public List<ProductPricePartitionRepository.PartitionInfo> getPartitions() {
+        return partitioned ? partitionRepository.findPartitions() : List.of();
+    }
+
+    private void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionConfig.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.createMonthPartition(month));
+            } catch (Exception e) {
+                // default 파티션에 이미 그 달의 행이 있으면 생성이 거부된다
+                log.warn("Could not create partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    private void archiveExpiredPartitions() {
+        if (partitionConfig.getRetentionMonths() <= 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(partitionConfig.getRetentionMonths());
+        for (YearMonth month : findMonthPartitions()) {
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                archive(month);
+            } catch (Exception e) {
+                log.error("Could not archive product_price partition for {}", month, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 내보낸 행 수가 파티션 행 수와 같을 때만 분리/삭제한다.
+     */
+    void archive(YearMonth month) throws IOException {
+        Path dir = Paths.get(partitionConfig.getArchiveDir());
+        Files.createDirectories(dir);
+        String name = ProductPricePartitionRepository.partitionName(month);
+        Path target = dir.resolve(name + ".csv.gz");
+        Path temp = dir.resolve(name + ".csv.gz.tmp");
+
+        long expected = partitionRepository.countRows(month);
+        AtomicLong written = new AtomicLong();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            writer.write(ProductPricePartitionRepository.EXPORT_COLUMNS.replace(" ", ""));
+            writer.write('\n');
+            // 커서(fetch size)는 자동 커밋이 꺼진 트랜잭션 안에서만 동작한다
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.streamRows(
+                    month, EXPORT_FETCH_SIZE, rs -> {
+                        writeCsvRow(writer, rs);
+                        written.incrementAndGet();
+                    }));
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temp);
+            throw e.getCause();
+        }
+
+        if (written.get() != expected) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("Exported " + written.get() + " rows but partition " + name +
+                    " has " + expected);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 분리한 뒤에는 새 행이 들어올 수 없으므로, 내보내는 동안 끼어든 행이 있는지 여기서 다시 센다
+            partitionRepository.detachPartition(month);
+            long detached = partitionRepository.countRows(month);
+            if (detached != written.get()) {
+                throw new IllegalStateException("Partition " + name + " has " + detached +
+                        " rows after export of " + written.get() + "; keeping it");
+            }
+            partitionRepository.subtractDailyStats(month);
+            partitionRepository.dropPartition(month);
+        });
+        log.info("Archived {} rows of {} to {} and dropped the partition", written.get(), name, target);
+    }
+
+    private List<YearMonth> findMonthPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (ProductPricePartitionRepository.PartitionInfo partition : partitionRepository.findPartitions()) {
+            if (!partition.name().startsWith(ProductPricePartitionRepository.PARTITION_PREFIX)) {
+                continue;
+            }
+            try {
+                months.add(YearMonth.parse(
+                        partition.name().substring(ProductPricePartitionRepository.PARTITION_PREFIX.length()),
+                        ProductPricePartitionRepository.PARTITION_SUFFIX));
+            } catch (DateTimeParseException e) {
+                // product_price_default 등 월 파티션이 아닌 것은 건너뛴다
+            }
+        }
+        return months;
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) {
+        try {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i);
+                if (value != null) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                }
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read partition row", e);
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.productprice.service;
 
+import com.productprice.config.ProductListConfig;
+import com.productprice.config.ProductPriceWriteConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.dto.ProductPriceSummary;
 import com.productprice.model.ProductPrice;
 import com.productprice.model.Store;
+import com.productprice.repository.ProductPriceBulkRepository;
 import com.productprice.repository.ProductPriceRepository;
+import com.productprice.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,79 +38,240 @@ import java.util.stream.Collectors;
 public class ProductPriceService {
 
     private final ProductPriceRepository repository;
-    private final OpenAIService openAIService;
+    private final ExtractionEngineService extractionEngineService;
     private final StoreService storeService;
+    private final ProductPriceBulkRepository bulkRepository;
+    private final ProductPriceWriteConfig writeConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductListConfig listConfig;
+    private final ProductStatsService productStatsService;
+    private final PriceHistoryService priceHistoryService;
+    private final ExtractionMetrics extractionMetrics;
+    private final ProductCatalogService productCatalogService;
 
-    @Transactional
-    public List<ProductPrice> extractAndSaveProducts(byte[] imageBytes, String imagePath, Long storeId, String location) {
-        try {
-            // Extract products using OpenAI
-            List<OpenAIService.ProductInfo> extractedProducts = openAIService.extractProductsFromImage(imageBytes);
-
-            // Get store if storeId is provided
-            final Store store;
-            if (storeId != null) {
-                store = storeService.getStoreById(storeId)
-                        .orElseThrow(() -> new RuntimeException("Store not found with id: " + storeId));
-            } else {
-                store = null;
-            }
+    private final Map<String, CachedCount> approximateCounts = new ConcurrentHashMap<>();
+    private volatile boolean trigramAvailable;
+
+    /**
+     * 키셋 페이지 한 장. total 은 통계/캐시 기반의 대략적인 건수다.
+     */
+    public record ProductSlice(List<ProductPriceSummary> items, String nextCursor, long approximateTotal) {}
+
+    private record CachedCount(long value, long expiresAt) {}
 
-            final Store finalStore = store;
-            final String finalLocation = location;
+    /**
+     * 추출(수~수십 초 걸리는 외부 호출)은 트랜잭션 밖에서 하고, 저장만 짧은 트랜잭션으로 묶는다.
+     * 추출 중에 DB 커넥션을 붙잡지 않아 목록/검수 조회가 커넥션을 기다리지 않는다.
+     */
+    public List<ProductPrice> extractAndSaveProducts(byte[] imageBytes, String imagePath, Long storeId, String location,
+                                                     String engine) {
+        try {
+            // Extract products with the engine selected for this request/store
+            List<ProductInfo> extractedProducts = extractionEngineService.extract(
+                    imageBytes, UploadStorageService.contentHashOf(imagePath), storeId, engine);
 
             // Convert to ProductPrice entities
-            List<ProductPrice> products = extractedProducts.stream()
-                    .map(info -> {
-                        ProductPrice product = new ProductPrice();
-                        product.setProductName(info.productName());
-                        product.setPrice(BigDecimal.valueOf(info.price()));
-                        product.setImagePath(imagePath);
-                        product.setConfidenceScore(info.confidenceScore());
-                        product.setStatus(info.confidenceScore() != null && info.confidenceScore() >= 0.8 
-                                ? "AUTO_APPROVED" : "PENDING_REVIEW");
-                        product.setStore(finalStore);
-                        
-                        // Set metadata
-                        String metadata = String.format(
-                                "{\"location\":\"%s\"}",
-                                finalLocation != null ? finalLocation : ""
-                        );
-                        product.setMetadata(metadata);
-                        
-                        return product;
-                    })
-                    .collect(Collectors.toList());
-
-            // Save to database
-            return repository.saveAll(products);
+            List<ProductPrice> products = buildProductPrices(extractedProducts, imagePath, findStore(storeId), location);
+
+            // Save to database (short write transaction)
+            return saveInTransaction(products);
         } catch (Exception e) {
             log.error("Error extracting and saving products", e);
             throw new RuntimeException("Failed to extract products: " + e.getMessage(), e);
         }
     }
 
-    public Page<ProductPrice> getProductList(int page, int pageSize, String productName, 
-                                             Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+    /**
+     * 스트리밍 추출이 제품 일부를 넘긴 뒤 실패했을 때 던진다. savedProducts 는 그때까지 저장된 행이다.
+     */
+    public static class PartialExtractionException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ProductPrice> savedProducts;
+
+        public PartialExtractionException(List<ProductPrice> savedProducts, Throwable cause) {
+            super("Extraction stopped after " + savedProducts.size() + " products", cause);
+            this.savedProducts = savedProducts;
+        }
+
+        public List<ProductPrice> getSavedProducts() {
+            return savedProducts;
+        }
+    }
+
+    /**
+     * 추출 엔진이 제품을 읽는 대로 onExtracted 로 넘기고, batchSize 건씩 모아 짧은 트랜잭션으로 저장한 뒤
+     * 저장된 행을 onSaved 로 넘긴다. 남은 건은 추출이 끝나면 저장한다.
+     * 제품을 넘긴 뒤 추출이 끊기면 이미 읽은 제품까지 저장하고 PartialExtractionException 을 던진다.
+     */
+    public List<ProductPrice> extractAndSaveProductsStreaming(byte[] imageBytes, String imagePath, Long storeId,
+                                                              String location, String engine, int batchSize,
+                                                              Consumer<ProductInfo> onExtracted,
+                                                              Consumer<List<ProductPrice>> onSaved) {
+        Store store = findStore(storeId);
+        List<ProductPrice> saved = new ArrayList<>();
+        List<ProductInfo> pending = new ArrayList<>();
+        String imageHash = UploadStorageService.contentHashOf(imagePath);
+
+        try {
+            extractionEngineService.extractStreaming(imageBytes, imageHash, storeId, engine, info -> {
+                onExtracted.accept(info);
+                pending.add(info);
+                if (pending.size() >= batchSize) {
+                    saved.addAll(saveBatch(pending, imagePath, store, location, onSaved));
+                }
+            });
+        } catch (RuntimeException e) {
+            if (saved.isEmpty() && pending.isEmpty()) {
+                throw e;
+            }
+            // 클라이언트는 이미 product 이벤트를 받았으므로 읽은 제품은 남기고 결과가 일부라는 것만 알린다
+            try {
+                if (!pending.isEmpty()) {
+                    saved.addAll(saveBatch(pending, imagePath, store, location, onSaved));
+                }
+            } catch (RuntimeException saveError) {
+                e.addSuppressed(saveError);
+            }
+            throw new PartialExtractionException(saved, e);
+        }
+        if (!pending.isEmpty()) {
+            saved.addAll(saveBatch(pending, imagePath, store, location, onSaved));
+        }
+        return saved;
+    }
+
+    private List<ProductPrice> saveBatch(List<ProductInfo> pending, String imagePath, Store store, String location,
+                                         Consumer<List<ProductPrice>> onSaved) {
+        List<ProductPrice> batch = saveInTransaction(buildProductPrices(pending, imagePath, store, location));
+        pending.clear();
+        onSaved.accept(batch);
+        return batch;
+    }
+
+    private List<ProductPrice> saveInTransaction(List<ProductPrice> products) {
+        long saveStart = extractionMetrics.start();
+        try {
+            return transactionTemplate.execute(status -> saveAll(products));
+        } catch (RuntimeException e) {
+            extractionMetrics.recordError(ExtractionMetrics.STAGE_DB_SAVE, e);
+            throw e;
+        } finally {
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_DB_SAVE, saveStart);
+        }
+    }
+
+    /**
+     * 이미지 한 장에서 추출한 제품을 하나의 트랜잭션으로 저장한다. 일괄 추출은 이미지마다 추출이 끝나는 즉시 호출한다.
+     */
+    @Transactional
+    public List<ProductPrice> saveExtractedProducts(List<ProductPrice> products) {
+        return saveAll(products);
+    }
+
+    /**
+     * 건수가 적으면 JPA 배치 INSERT, 많으면 영속성 컨텍스트를 거치지 않는 JDBC 배치 INSERT 로 저장한다.
+     */
+    private List<ProductPrice> saveAll(List<ProductPrice> products) {
+        List<ProductPrice> saved = products.size() >= writeConfig.getBulkInsertThreshold()
+                ? bulkRepository.insertAll(products, writeConfig.getBulkInsertChunkSize())
+                : repository.saveAll(products);
+        productStatsService.recordInserted(saved);
+        priceHistoryService.recordTrusted(saved);
+        return saved;
+    }
+
+    public Store findStore(Long storeId) {
+        if (storeId == null) {
+            return null;
+        }
+        return storeService.getStoreById(storeId)
+                .orElseThrow(() -> new RuntimeException("Store not found with id: " + storeId));
+    }
+
+    public List<ProductPrice> buildProductPrices(List<ProductInfo> extractedProducts, String imagePath,
+                                                 Store store, String location) {
+        return extractedProducts.stream()
+                .map(info -> {
+                    ProductPrice product = new ProductPrice();
+                    product.setProductName(info.productName());
+                    product.setPrice(BigDecimal.valueOf(info.price()));
+                    product.setImagePath(imagePath);
+                    product.setConfidenceScore(info.confidenceScore());
+                    product.setStatus(info.confidenceScore() != null && info.confidenceScore() >= 0.8
+                            ? "AUTO_APPROVED" : "PENDING_REVIEW");
+                    product.setStore(store);
+                    product.setCatalogId(productCatalogService.resolve(info.productName()));
+
+                    // Set metadata
+                    String metadata = String.format(
+                            "{\"location\":\"%s\"}",
+                            location != null ? location : ""
+                    );
+                    product.setMetadata(metadata);
+
+                    return product;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectTrigramSearch() {
+        if (!listConfig.isTrigramSearch()) {
+            return;
+        }
+        try {
+            trigramAvailable = repository.isTrigramExtensionInstalled();
+        } catch (Exception e) {
+            log.warn("Could not check pg_trgm extension: {}", e.getMessage());
+        }
+        log.info("Product name search uses {}", trigramAvailable ? "pg_trgm index" : "LIKE scan (pg_trgm not installed)");
+    }
+
+    public Page<ProductPriceSummary> getProductList(int page, int pageSize, String productName,
+                                                    Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        
-        if (productName != null || storeId != null || startDate != null || endDate != null) {
-            return repository.findWithFilters(productName, storeId, startDate, endDate, pageable);
+
+        // 제품명 검색은 pg_trgm 이 있으면 GIN 인덱스 + 유사도 순, 없으면 기존 LIKE 전체 스캔
+        if (trigramAvailable && productName != null && !productName.isBlank()) {
+            Page<Long> ids = repository.searchIdsByProductName(productName.trim(), storeId, startDate, endDate, pageable);
+            return new PageImpl<>(inRankOrder(ids.getContent()), pageable, ids.getTotalElements());
         }
-        
-        return repository.findAll(pageable);
+
+        return repository.findSummariesWithFilters(productName, storeId, startDate, endDate, pageable);
     }
 
-    public List<ProductPrice> getProductsByStoreAndDate(Long storeId, LocalDateTime date) {
+    /**
+     * 유사도 순으로 받은 ID 들의 표시 컬럼을 한 번에 읽어 원래 순위대로 돌려준다.
+     * 두 조회 사이에 지워진 행은 결과에서 빠진다.
+     */
+    private List<ProductPriceSummary> inRankOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductPriceSummary> byId = repository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductPriceSummary::id, summary -> summary));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public List<ProductPriceSummary> getProductsByStoreAndDate(Long storeId, LocalDateTime date) {
         if (date != null) {
             LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
             LocalDateTime endOfDay = date.toLocalDate().atTime(23, 59, 59);
-            return repository.findByStoreIdAndExtractedAtBetweenOrderByExtractedAtDesc(storeId, startOfDay, endOfDay);
+            return repository.findSummariesByStore(storeId, startOfDay, endOfDay);
         } else {
-            return repository.findByStoreIdOrderByExtractedAtDesc(storeId);
+            return repository.findSummariesByStore(storeId, null, null);
         }
     }
 
+    public List<ProductPrice> getProductsByImagePath(String imagePath) {
+        return repository.findByImagePathOrderByIdAsc(imagePath);
+    }
+
     @Transactional
     public ProductPrice createProductManually(Long storeId, String productName, BigDecimal price, LocalDateTime extractedAt) {
         Store store = storeService.getStoreById(storeId)
@@ -104,23 +281,95 @@ public class ProductPriceService {
         product.setProductName(productName);
         product.setPrice(price);
         product.setStore(store);
+        product.setCatalogId(productCatalogService.resolve(productName));
         product.setExtractedAt(extractedAt != null ? extractedAt : LocalDateTime.now());
         product.setStatus("APPROVED");
-        
-        return repository.save(product);
+
+        ProductPrice saved = repository.save(product);
+        productStatsService.recordInserted(List.of(saved));
+        priceHistoryService.recordTrusted(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * OFFSET 대신 마지막 행의 (extractedAt, id) 다음부터 읽는다. 깊은 페이지도 인덱스 범위 스캔 한 번이면 된다.
+     */
+    public ProductSlice getProductListByCursor(String cursor, int pageSize, String productName,
+                                               Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ProductPriceSummary> rows = position == null
+                ? repository.findFirstSummariesWithFilters(productName, storeId, startDate, endDate, limit)
+                : repository.findSummariesWithFiltersAfter(productName, storeId, startDate, endDate,
+                        position.extractedAt(), position.id(), limit);
+
+        boolean filtered = (productName != null && !productName.isEmpty())
+                || storeId != null || startDate != null || endDate != null;
+        long total = filtered
+                ? approximateCount("list:" + productName + ":" + storeId + ":" + startDate + ":" + endDate,
+                        () -> repository.countWithFilters(productName, storeId, startDate, endDate))
+                : approximateCount("list", this::estimateTableRows);
+        return toSlice(rows, pageSize, total);
+    }
+
+    public ProductSlice getPendingReviewProductsByCursor(String cursor, int pageSize) {
+        CursorUtil.Cursor position = CursorUtil.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ProductPriceSummary> rows = position == null
+                ? repository.findFirstSummariesByStatus("PENDING_REVIEW", limit)
+                : repository.findSummariesByStatusAfter("PENDING_REVIEW", position.extractedAt(), position.id(), limit);
+        long total = approximateCount("status:PENDING_REVIEW", () -> repository.countByStatus("PENDING_REVIEW"));
+        return toSlice(rows, pageSize, total);
+    }
+
+    private ProductSlice toSlice(List<ProductPriceSummary> rows, int pageSize, long total) {
+        // pageSize + 1 건을 읽어 다음 페이지 존재 여부를 COUNT 없이 판단한다
+        if (rows.size() <= pageSize) {
+            return new ProductSlice(rows, null, total);
+        }
+        List<ProductPriceSummary> items = rows.subList(0, pageSize);
+        ProductPriceSummary last = items.get(items.size() - 1);
+        return new ProductSlice(items, CursorUtil.encode(last.extractedAt(), last.id()), total);
     }
 
-    public Page<ProductPrice> getPendingReviewProducts(int page, int pageSize) {
+    private long estimateTableRows() {
+        Long estimate = repository.estimateRowCount();
+        // 아직 ANALYZE 되지 않은 테이블은 추정치가 없으므로(PG13 이하는 0) 한 번 정확히 센다
+        return estimate != null && estimate > 0 ? estimate : repository.count();
+    }
+
+    private long approximateCount(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = approximateCounts.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        if (approximateCounts.size() > 1_000) {
+            approximateCounts.clear();
+        }
+        long value = counter.getAsLong();
+        approximateCounts.put(key, new CachedCount(value, now + listConfig.getCountCacheSeconds() * 1_000));
+        return value;
+    }
+
+    public Page<ProductPriceSummary> getProductsByCatalog(Long catalogId, int page, int pageSize) {
+        return repository.findSummariesByCatalogId(catalogId, PageRequest.of(page - 1, pageSize));
+    }
+
+    public Page<ProductPriceSummary> getPendingReviewProducts(int page, int pageSize) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return repository.findByStatus("PENDING_REVIEW", pageable);
+        return repository.findSummariesByStatus("PENDING_REVIEW", pageable);
     }
 
     @Transactional
     public ProductPrice updateProductReview(Long id, String productName, BigDecimal price, String action) {
         ProductPrice product = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        String previousStatus = product.getStatus();
 
         if (productName != null) {
+            // 고친 이름의 카탈로그에 연결하고, 원래 추출된 표기를 별칭으로 남긴다
+            product.setCatalogId(productCatalogService.learnCorrection(product.getProductName(), productName));
             product.setProductName(productName);
         }
         if (price != null) {
@@ -130,7 +379,13 @@ public class ProductPriceService {
             product.setStatus("APPROVED");
         }
 
-        return repository.save(product);
+        ProductPrice saved = repository.save(product);
+        productStatsService.recordStatusChange(saved, previousStatus);
+        if (!priceHistoryService.isTrusted(previousStatus)) {
+            // 검수로 처음 승인된 가격만 추이에 기록한다 (자동 승인 건은 저장 시 이미 기록됨)
+            priceHistoryService.recordTrusted(List.of(saved));
+        }
+        return saved;
     }
 }
 
@@ -0,0 +1,123 @@
+package com.productprice.service;
+
+import com.productprice.model.ProductPrice;
+import com.productprice.model.ProductPriceDailyStat;
+import com.productprice.model.Store;
+import com.productprice.repository.ProductPriceDailyStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 거래처 · 일자 · 상태별 제품 수를 저장/검수 시점에 증분으로 유지하고, 대시보드 통계를 그 요약 표에서 계산한다.
+ * 카운터 갱신은 호출한 쪽 트랜잭션에 합류하므로 제품 저장과 함께 커밋되거나 함께 롤백된다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStatsService {
+
+    private final ProductPriceDailyStatRepository statRepository;
+    private final StoreService storeService;
+
+    public record DashboardStats(long totalProducts, long totalStores, long pendingReviews,
+                                 Map<String, Long> statusCounts, Map<LocalDate, Long> dailyCounts) {}
+
+    private record CounterKey(long storeId, LocalDate statDate, String status) {}
+
+    /**
+     * 통계 표가 비어 있으면(최초 배포) 기존 제품으로 한 번 채운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        try {
+            if (statRepository.count() == 0) {
+                int rows = statRepository.rebuildFromProducts();
+                if (rows > 0) {
+                    log.info("Built {} daily product stat rows from existing products", rows);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not backfill daily product stats: {}", e.getMessage());
+        }
+    }
+
+    @Transactional
+    public void recordInserted(List<ProductPrice> products) {
+        // 한 번에 저장되는 제품은 대부분 같은 거래처/일자/상태이므로 묶어서 갱신 횟수를 줄인다
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        for (ProductPrice product : products) {
+            deltas.merge(keyOf(product, product.getStatus()), 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> statRepository.increment(key.storeId(), key.statDate(), key.status(), delta));
+    }
+
+    @Transactional
+    public void recordStatusChange(ProductPrice product, String previousStatus) {
+        if (previousStatus == null ? product.getStatus() == null : previousStatus.equals(product.getStatus())) {
+            return;
+        }
+        CounterKey removed = keyOf(product, previousStatus);
+        CounterKey added = keyOf(product, product.getStatus());
+        statRepository.increment(removed.storeId(), removed.statDate(), removed.status(), -1);
+        statRepository.increment(added.storeId(), added.statDate(), added.status(), 1);
+    }
+
+    public DashboardStats getDashboardStats(String storeName, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate start = startDate != null ? startDate.toLocalDate() : LocalDate.of(1970, 1, 1);
+        LocalDate end = endDate != null ? endDate.toLocalDate() : LocalDate.of(9999, 12, 31);
+
+        List<ProductPriceDailyStat> rows;
+        if (storeName != null && !storeName.isBlank()) {
+            Set<Long> storeIds = new HashSet<>();
+            storeService.searchStores(storeName, null, null).forEach(store -> storeIds.add(store.getId()));
+            if (storeIds.isEmpty()) {
+                return new DashboardStats(0, 0, 0, Map.of(), Map.of());
+            }
+            rows = statRepository.findByIdStoreIdInAndIdStatDateBetween(storeIds, start, end);
+        } else {
+            rows = statRepository.findByIdStatDateBetween(start, end);
+        }
+
+        long total = 0;
+        Set<Long> stores = new HashSet<>();
+        Map<String, Long> statusCounts = new TreeMap<>();
+        Map<LocalDate, Long> dailyCounts = new TreeMap<>();
+        for (ProductPriceDailyStat row : rows) {
+            if (row.getProductCount() <= 0) {
+                continue;
+            }
+            total += row.getProductCount();
+            if (row.getId().getStoreId() != ProductPriceDailyStat.NO_STORE) {
+                stores.add(row.getId().getStoreId());
+            }
+            statusCounts.merge(row.getId().getStatus(), row.getProductCount(), Long::sum);
+            dailyCounts.merge(row.getId().getStatDate(), row.getProductCount(), Long::sum);
+        }
+
+        return new DashboardStats(total, stores.size(), statusCounts.getOrDefault("PENDING_REVIEW", 0L),
+                statusCounts, dailyCounts);
+    }
+
+    private CounterKey keyOf(ProductPrice product, String status) {
+        Store store = product.getStore();
+        LocalDateTime extractedAt = product.getExtractedAt() != null ? product.getExtractedAt() : product.getCreatedAt();
+        return new CounterKey(
+                store != null && store.getId() != null ? store.getId() : ProductPriceDailyStat.NO_STORE,
+                extractedAt != null ? extractedAt.toLocalDate() : LocalDate.now(),
+                status != null ? status : "UNKNOWN");
+    }
+}
@@ -0,0 +1,196 @@
+package com.productprice.service;
+
+import com.productprice.config.DuplicateImageConfig;
+import com.productprice.dto.DuplicateClusterResponse;
+import com.productprice.model.ShelfImage;
+import com.productprice.repository.ShelfImageRepository;
+import com.productprice.util.HammingIndex;
+import com.productprice.util.ImageHashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 업로드된 매대 사진의 perceptual hash 를 기록하고, 같은 거래처에서 최근에 찍힌 거의 같은 사진을 찾는다.
+ * 거래처별 해밍 거리 색인(HammingIndex)을 메모리에 유지하여 해시 수가 많아도 조회가 전체 비교로 번지지 않게 한다.
+ * 색인에는 중복 판정 시간 창 안의 사진만 두고, 창을 벗어난 사진은 주기적으로 걷어낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShelfImageService {
+
+    private static final long NO_STORE = 0L;
+
+    private final ShelfImageRepository repository;
+    private final DuplicateImageConfig duplicateConfig;
+
+    private final Map<Long, HammingIndex<ShelfImage>> indexByStore = new ConcurrentHashMap<>();
+
+    public record Registration(ShelfImage image, Optional<ShelfImage> duplicateOf) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        if (!duplicateConfig.isEnabled()) {
+            return;
+        }
+        try {
+            List<ShelfImage> recent = repository.findByDhashIsNotNullAndCreatedAtAfter(windowStart());
+            recent.forEach(this::addToIndex);
+            log.info("Loaded {} shelf image hashes into duplicate index", recent.size());
+        } catch (Exception e) {
+            log.warn("Could not load shelf image hashes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 시간 창을 벗어난 사진을 색인에서 빼고, 비게 된 거래처 색인은 없앤다.
+     */
+    @Scheduled(fixedDelayString = "${duplicate-image.prune-interval-ms:300000}",
+            initialDelayString = "${duplicate-image.prune-interval-ms:300000}")
+    public void pruneIndex() {
+        LocalDateTime windowStart = windowStart();
+        int removed = 0;
+        for (Long storeKey : indexByStore.keySet()) {
+            HammingIndex<ShelfImage> index = indexByStore.get(storeKey);
+            if (index == null) {
+                continue;
+            }
+            removed += index.removeIf(image -> image.getCreatedAt() == null
+                    || !image.getCreatedAt().isAfter(windowStart));
+            // addToIndex 와 같은 compute 계열로 지워야 방금 추가된 사진이 버려진 색인에 들어가지 않는다
+            indexByStore.computeIfPresent(storeKey, (key, current) -> current.size() == 0 ? null : current);
+        }
+        if (removed > 0) {
+            log.debug("Pruned {} shelf image hashes outside the {} minute duplicate window",
+                    removed, duplicateConfig.getWindowMinutes());
+        }
+    }
+
+    /**
+     * 이미지의 dHash 를 계산해 저장하고, 시간 창 안에서 가장 가까운 유사 이미지를 함께 돌려준다.
+     */
+    public Registration register(byte[] imageBytes, String imagePath, Long storeId) {
+        ShelfImage image = new ShelfImage();
+        image.setImagePath(imagePath);
+        image.setStoreId(storeId);
+
+        if (!duplicateConfig.isEnabled()) {
+            return new Registration(repository.save(image), Optional.empty());
+        }
+
+        Long dhash = ImageHashUtil.dHash(imageBytes);
+        image.setDhash(dhash);
+
+        Optional<ShelfImage> duplicateOf = dhash != null ? findRecentDuplicate(dhash, storeId) : Optional.empty();
+        duplicateOf.ifPresent(duplicate -> image.setDuplicateOfId(duplicate.getId()));
+
+        ShelfImage saved = repository.save(image);
+        if (dhash != null) {
+            addToIndex(saved);
+        }
+        return new Registration(saved, duplicateOf);
+    }
+
+    public boolean isSkipExtraction() {
+        return duplicateConfig.isSkipExtraction();
+    }
+
+    /**
+     * 기간 내 거래처 사진을 유사도 기준으로 묶어 2장 이상인 묶음만 돌려준다.
+     */
+    public List<DuplicateClusterResponse> findDuplicateClusters(Long storeId, LocalDateTime startDate,
+                                                                LocalDateTime endDate, Integer maxDistance) {
+        int distance = maxDistance != null ? maxDistance : duplicateConfig.getMaxDistance();
+        List<ShelfImage> images = repository.findByStoreIdAndDhashIsNotNullAndCreatedAtBetweenOrderByCreatedAtAsc(
+                storeId,
+                startDate != null ? startDate : LocalDateTime.now().minusDays(duplicateConfig.getIndexDays()),
+                endDate != null ? endDate : LocalDateTime.now());
+
+        HammingIndex<Integer> index = new HammingIndex<>();
+        for (int i = 0; i < images.size(); i++) {
+            index.add(images.get(i).getDhash(), i);
+        }
+
+        // union-find 로 유사 쌍을 연결 요소로 합친다
+        int[] parent = new int[images.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < images.size(); i++) {
+            for (HammingIndex.Match<Integer> match : index.search(images.get(i).getDhash(), distance)) {
+                union(parent, i, match.value());
+            }
+        }
+
+        Map<Integer, List<ShelfImage>> groups = new HashMap<>();
+        for (int i = 0; i < images.size(); i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(images.get(i));
+        }
+
+        return groups.values().stream()
+                .filter(group -> group.size() > 1)
+                .map(group -> new DuplicateClusterResponse(storeId, group.size(), group))
+                .sorted(Comparator.comparing(
+                        (DuplicateClusterResponse cluster) -> cluster.getImages().get(0).getCreatedAt()).reversed())
+                .toList();
+    }
+
+    private Optional<ShelfImage> findRecentDuplicate(long dhash, Long storeId) {
+        HammingIndex<ShelfImage> index = indexByStore.get(storeKey(storeId));
+        if (index == null) {
+            return Optional.empty();
+        }
+
+        LocalDateTime windowStart = windowStart();
+        return index.search(dhash, duplicateConfig.getMaxDistance()).stream()
+                .filter(match -> match.value().getCreatedAt() != null
+                        && match.value().getCreatedAt().isAfter(windowStart))
+                .min(Comparator.comparingInt(HammingIndex.Match::distance))
+                .map(HammingIndex.Match::value);
+    }
+
+    private void addToIndex(ShelfImage image) {
+        indexByStore.compute(storeKey(image.getStoreId()), (key, current) -> {
+            HammingIndex<ShelfImage> target = current != null ? current : new HammingIndex<>();
+            target.add(image.getDhash(), image);
+            return target;
+        });
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minusMinutes(duplicateConfig.getWindowMinutes());
+    }
+
+    private long storeKey(Long storeId) {
+        return storeId != null ? storeId : NO_STORE;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+}
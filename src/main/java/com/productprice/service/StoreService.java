@@ -6,10 +6,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * 거래처 마스터는 거의 바뀌지 않으므로 전체를 메모리 디렉터리로 들고 조회는 DB 없이 처리한다.
+ * 생성/수정/삭제가 커밋되면 세대를 올려 디렉터리를 무효화하고 다음 조회 때 다시 읽는다.
+ * 디렉터리의 Store 객체는 여러 요청이 공유하므로 읽기 전용으로 다뤄야 한다.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -17,20 +37,55 @@ public class StoreService {
 
     private final StoreRepository repository;
 
+    // 무효화할 때마다 올라간다. 디렉터리는 읽기 시작한 시점의 세대가 현재 세대와 같을 때만 유효하다
+    private final AtomicLong generation = new AtomicLong();
+    private volatile LoadedDirectory directory;
+
+    /**
+     * 한 시점의 거래처 스냅샷. etag 는 내용 해시라 재시작 후에도 같은 데이터면 같은 값이다.
+     */
+    public record StoreDirectory(List<Store> stores, Map<Long, Store> byId, String etag,
+                                 LocalDateTime lastModified) {}
+
+    private record LoadedDirectory(long generation, StoreDirectory value) {}
+
+    public StoreDirectory getDirectory() {
+        LoadedDirectory current = directory;
+        if (current == null || current.generation() != generation.get()) {
+            synchronized (this) {
+                current = directory;
+                // 읽는 도중 쓰기가 커밋되면 그 스냅샷은 커밋 전 데이터일 수 있으므로 버리고 다시 읽는다
+                while (current == null || current.generation() != generation.get()) {
+                    long loading = generation.get();
+                    current = new LoadedDirectory(loading, loadDirectory());
+                    directory = current;
+                }
+            }
+        }
+        return current.value();
+    }
+
     public List<Store> getAllStores() {
-        return repository.findAll();
+        return getDirectory().stores();
     }
 
     public Optional<Store> getStoreById(Long id) {
-        return repository.findById(id);
+        return Optional.ofNullable(getDirectory().byId().get(id));
     }
 
     public Optional<Store> getStoreByName(String storeName) {
-        return repository.findByStoreName(storeName);
+        return getDirectory().stores().stream()
+                .filter(store -> store.getStoreName().equals(storeName))
+                .findFirst();
     }
 
     public List<Store> searchStores(String storeName, String channel, String branch) {
-        return repository.findWithFilters(storeName, channel, branch);
+        // StoreRepository.findWithFilters 와 같은 부분 일치(대소문자 무시) 조건을 메모리에서 적용한다
+        return getDirectory().stores().stream()
+                .filter(store -> containsIgnoreCase(store.getStoreName(), storeName)
+                        && containsIgnoreCase(store.getChannel(), channel)
+                        && containsIgnoreCase(store.getBranch(), branch))
+                .toList();
     }
 
     @Transactional
@@ -41,7 +96,9 @@ public class StoreService {
             log.info("거래처가 이미 존재합니다: {}", store.getStoreName());
             return existing.get();
         }
-        return repository.save(store);
+        Store saved = repository.save(store);
+        invalidateAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -61,13 +118,68 @@ public class StoreService {
         if (store.getManager() != null) {
             existing.setManager(store.getManager());
         }
-        
-        return repository.save(existing);
+
+        Store saved = repository.save(existing);
+        invalidateAfterCommit();
+        return saved;
     }
 
     @Transactional
     public void deleteStore(Long id) {
         repository.deleteById(id);
+        invalidateAfterCommit();
+    }
+
+    /**
+     * 커밋 전에 무효화하면 다른 요청이 커밋 전 데이터를 다시 읽어 캐시할 수 있으므로 커밋 후에 버린다.
+     */
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    private StoreDirectory loadDirectory() {
+        List<Store> stores = repository.findAll().stream()
+                .sorted(Comparator.comparing(Store::getId))
+                .toList();
+        Map<Long, Store> byId = stores.stream()
+                .collect(Collectors.toMap(Store::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        LocalDateTime lastModified = stores.stream()
+                .map(store -> store.getUpdatedAt() != null ? store.getUpdatedAt() : store.getCreatedAt())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        log.debug("Loaded {} stores into store directory", stores.size());
+        return new StoreDirectory(stores, byId, contentHash(stores), lastModified);
+    }
+
+    private static String contentHash(List<Store> stores) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Store store : stores) {
+                String row = store.getId() + "|" + store.getStoreName() + "|" + store.getChannel() + "|"
+                        + store.getBranch() + "|" + store.getManager() + "|" + store.getUpdatedAt() + "\n";
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean containsIgnoreCase(String value, String filter) {
+        if (filter == null) {
+            return true;
+        }
+        return value != null && value.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT));
     }
 }
 
@@ -0,0 +1,180 @@
+package com.productprice.service;
+
+import com.productprice.config.UploadStorageConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 사진을 내용 해시(SHA-256) 기준으로 저장한다.
+ * 멀티파트 파트를 힙에 올리지 않고 디스크로 스트리밍하면서 같은 패스에서 해시를 계산하고,
+ * uploads/ab/cd/&lt;hash&gt;.jpg 처럼 해시 앞자리로 나눈 디렉터리에 둔다. 같은 내용은 파일 하나만 남는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadStorageService {
+
+    // DB 의 image_path 와 웹 경로(/uploads/**)에 쓰는 논리 접두어. 실제 위치는 upload.storage.dir
+    public static final String PATH_PREFIX = "uploads/";
+
+    private static final String TEMP_DIR = ".tmp";
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final UploadStorageConfig storageConfig;
+    private final ExtractionMetrics extractionMetrics;
+
+    /**
+     * 저장된 업로드. duplicate 가 true 면 같은 내용의 파일이 이미 있어 새로 쓰지 않았다.
+     */
+    public record StoredUpload(String imagePath, String contentHash, long size, boolean duplicate) {}
+
+    public StoredUpload store(MultipartFile file) throws IOException {
+        long start = extractionMetrics.start();
+        try {
+            return write(file);
+        } finally {
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_UPLOAD_IO, start);
+        }
+    }
+
+    private StoredUpload write(MultipartFile file) throws IOException {
+        Path root = root();
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relative = shardPath(hash) + "." + extensionOf(temp, file.getOriginalFilename());
+            Path target = root.resolve(relative);
+
+            if (Files.exists(target)) {
+                Files.delete(temp);
+                log.debug("Upload {} has the same content as {}", file.getOriginalFilename(), relative);
+                return new StoredUpload(PATH_PREFIX + relative, hash, size, true);
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // 같은 내용이 동시에 올라온 경우. 먼저 옮긴 파일을 쓴다
+                Files.delete(temp);
+                return new StoredUpload(PATH_PREFIX + relative, hash, size, true);
+            }
+            return new StoredUpload(PATH_PREFIX + relative, hash, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 추출에 넘길 바이트를 저장된 파일에서 한 번만 읽는다.
+     */
+    public byte[] readBytes(String imagePath) throws IOException {
+        long start = extractionMetrics.start();
+        try {
+            return Files.readAllBytes(resolve(imagePath));
+        } finally {
+            extractionMetrics.recordStage(ExtractionMetrics.STAGE_UPLOAD_IO, start);
+        }
+    }
+
+    /**
+     * image_path 의 파일명에 들어 있는 내용 해시(SHA-256 hex)를 꺼낸다. 추출 캐시가 같은 바이트를 다시 해시하지 않도록 넘긴다.
+     * 해시로 저장하기 전 형식(uploads/product_*.jpg)이면 null 이다.
+     */
+    public static String contentHashOf(String imagePath) {
+        if (imagePath == null) {
+            return null;
+        }
+        String filename = imagePath.substring(imagePath.lastIndexOf('/') + 1);
+        int dot = filename.indexOf('.');
+        String stem = dot >= 0 ? filename.substring(0, dot) : filename;
+        return CONTENT_HASH.matcher(stem).matches() ? stem : null;
+    }
+
+    /**
+     * image_path(uploads/...)를 실제 파일 위치로 바꾼다. 이전 형식(uploads/product_*.jpg)도 그대로 동작한다.
+     */
+    public Path resolve(String imagePath) {
+        String relative = imagePath.startsWith(PATH_PREFIX) ? imagePath.substring(PATH_PREFIX.length()) : imagePath;
+        Path root = root();
+        Path resolved = root.resolve(relative).normalize();
+        if (!resolved.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid image path: " + imagePath);
+        }
+        return resolved;
+    }
+
+    public Path root() {
+        return Paths.get(storageConfig.getDir()).toAbsolutePath().normalize();
+    }
+
+    private String shardPath(String hash) {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < storageConfig.getShardDepth(); i++) {
+            path.append(hash, i * 2, i * 2 + 2).append('/');
+        }
+        return path.append(hash).toString();
+    }
+
+    /**
+     * 확장자는 파일 앞부분(매직 넘버)으로 정하고, 알 수 없는 형식이면 원래 파일명의 확장자를 쓴다.
+     */
+    private static String extensionOf(Path file, String originalFilename) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+            return "jpg";
+        }
+        if (read >= 8) {
+            switch (ImagePreprocessService.detectMediaType(header)) {
+                case "image/png" -> { return "png"; }
+                case "image/gif" -> { return "gif"; }
+                case "image/webp" -> { return "webp"; }
+                default -> { }
+            }
+        }
+        if (originalFilename != null) {
+            int dot = originalFilename.lastIndexOf('.');
+            String extension = dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+            if (extension.matches("[a-z0-9]{1,5}")) {
+                return extension;
+            }
+        }
+        return "img";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.productprice.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 연속 실패 횟수 기반의 단순 서킷 브레이커.
+ * 임계치를 넘으면 openMs 동안 요청을 막고(OPEN), 이후 한 건만 시험 삼아 통과시킨다(HALF_OPEN).
+ * 시험 요청은 recordSuccess / recordFailure 로 결과를 남기거나, 결과 없이 끝나면 releaseProbe 로 자리를 돌려줘야 한다.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    // HALF_OPEN 에서 시험 요청을 들고 있는 스레드 (없으면 다음 요청이 시험 요청이 된다)
+    private Thread probeOwner;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this(failureThreshold, openMs, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            // 시험 요청 결과가 나올 때까지 다른 요청을 막는다
+            if (probeOwner != null) {
+                return false;
+            }
+            probeOwner = Thread.currentThread();
+        }
+        return true;
+    }
+
+    /**
+     * 지금 요청하면 allowRequest 가 거절할 OPEN 상태인지 본다. 상태는 바꾸지 않는다.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && clock.getAsLong() - openedAt < openMs;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        probeOwner = null;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+        probeOwner = null;
+    }
+
+    /**
+     * 시험 요청이 결과를 남기지 못하고 끝났을 때 자리를 돌려줘 다음 요청이 다시 시험할 수 있게 한다.
+     * 호출한 스레드가 시험 요청을 들고 있을 때만 동작하므로 모든 요청의 finally 에서 불러도 된다.
+     */
+    public synchronized void releaseProbe() {
+        if (probeOwner == Thread.currentThread()) {
+            probeOwner = null;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,34 @@
+package com.productprice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * (extracted_at, id) 키셋 페이지네이션 커서를 불투명한 문자열로 인코딩/디코딩한다.
+ */
+public class CursorUtil {
+
+    public record Cursor(LocalDateTime extractedAt, Long id) {}
+
+    public static String encode(LocalDateTime extractedAt, Long id) {
+        String raw = extractedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 비어 있으면 첫 페이지를 뜻하는 null 을 돌려준다. 형식이 잘못되면 IllegalArgumentException.
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
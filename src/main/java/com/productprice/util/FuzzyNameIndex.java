@@ -0,0 +1,269 @@
+package com.productprice.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 정규화된 제품명 → ID 를 찾는 메모리 색인. 한글 음절을 초/중/종성 자모로 풀어 비교하므로
+ * OCR 이 모음 하나를 잘못 읽은 경우("콜라" / "콜리")도 편집 거리 1 로 잡힌다.
+ * 자모 3-gram 역색인에서 후보를 좁히고(q-gram 보조정리: 편집 1회는 gram 을 최대 3개 망가뜨린다),
+ * 길이 차이로 거른 뒤 거리 상한을 둔 Levenshtein 으로 확정한다. 정확히 같은 키는 해시 조회 한 번이다.
+ */
+public class FuzzyNameIndex {
+
+    private static final int Q = 3;
+
+    public record Match(long id, int distance) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private char[][] keys = new char[1024][];
+    private long[] ids = new long[1024];
+    private int size;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * key 는 ProductNameNormalizer 로 정규화된 이름. 같은 key 가 이미 있으면 ID 만 바꾼다.
+     */
+    public void put(String key, long id) {
+        String jamo = toJamo(key);
+        if (jamo.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByKey.get(jamo);
+            if (existing != null) {
+                ids[existing] = id;
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int doc = size++;
+            keys[doc] = jamo.toCharArray();
+            ids[doc] = id;
+            docByKey.put(jamo, doc);
+            for (long gram : distinctGrams(keys[doc])) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 정확히 같은 key 가 있으면 거리 0, 없으면 maxDistance 이내에서 가장 가까운 이름을 찾는다.
+     */
+    public Optional<Match> find(String key, int maxDistance) {
+        String jamo = toJamo(key);
+        if (jamo.isEmpty()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Integer exact = docByKey.get(jamo);
+            if (exact != null) {
+                return Optional.of(new Match(ids[exact], 0));
+            }
+            if (maxDistance <= 0 || size == 0) {
+                return Optional.empty();
+            }
+            // 거리 1 부터 한도를 넓혀 간다. 한도가 작을수록 q-gram 하한이 높아 후보가 적고,
+            // 각 단계는 그 거리 이내를 모두 찾으므로 처음 찾은 결과가 가장 가깝다
+            char[] query = jamo.toCharArray();
+            long[] grams = distinctGrams(query);
+            for (int distance = 1; distance <= maxDistance; distance++) {
+                Optional<Match> match = findFuzzy(query, grams, distance);
+                if (match.isPresent()) {
+                    return match;
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<Match> findFuzzy(char[] query, long[] grams, int maxDistance) {
+        // 편집 한 번이 망가뜨리는 gram 은 최대 Q 개. 짧은 이름은 하한이 0 이하가 되므로 최소 1개는 겹쳐야 후보로 본다
+        int minShared = Math.max(1, grams.length - maxDistance * Q);
+
+        IntList[] lists = new IntList[grams.length];
+        int listCount = 0;
+        for (long gram : grams) {
+            IntList docs = postings.get(gram);
+            if (docs != null) {
+                lists[listCount++] = docs;
+            }
+        }
+        if (listCount < minShared) {
+            return Optional.empty();
+        }
+        // prefix filter: minShared 개 이상 겹치려면 가장 드문 (listCount - minShared + 1) 개 중 하나에는 반드시 있다.
+        // 후보는 드문 목록에서만 모으고, 흔한 목록(브랜드/단위처럼 수천 건)은 훑지 않은 채 편집 거리로 바로 확정한다
+        Arrays.sort(lists, 0, listCount, (x, y) -> Integer.compare(x.size, y.size));
+        int prefix = listCount - minShared + 1;
+
+        Scratch s = scratch.get();
+        s.ensure(size);
+        int touchedCount = 0;
+        for (int l = 0; l < prefix; l++) {
+            IntList docs = lists[l];
+            for (int i = 0; i < docs.size; i++) {
+                int doc = docs.values[i];
+                if (!s.seen[doc]) {
+                    s.seen[doc] = true;
+                    s.touched = IntList.ensure(s.touched, touchedCount + 1);
+                    s.touched[touchedCount++] = doc;
+                }
+            }
+        }
+
+        int bestDoc = -1;
+        int bestDistance = maxDistance + 1;
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = s.touched[i];
+            s.seen[doc] = false;
+            if (Math.abs(keys[doc].length - query.length) > maxDistance) {
+                continue;
+            }
+            // 같은 거리면 ID 가 작은(먼저 등록된) 쪽을 고른다
+            int distance = boundedLevenshtein(query, keys[doc], maxDistance);
+            if (distance > maxDistance) {
+                continue;
+            }
+            if (distance < bestDistance || (distance == bestDistance && ids[doc] < ids[bestDoc])) {
+                bestDistance = distance;
+                bestDoc = doc;
+            }
+        }
+        return bestDoc >= 0 ? Optional.of(new Match(ids[bestDoc], bestDistance)) : Optional.empty();
+    }
+
+    /**
+     * 거리가 limit 를 넘으면 limit + 1 을 돌려준다. 대각선 ±limit 밴드만 계산한다.
+     */
+    static int boundedLevenshtein(char[] a, char[] b, int limit) {
+        if (Math.abs(a.length - b.length) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length + 1];
+        int[] current = new int[b.length + 1];
+        int outside = limit + 1;
+        for (int j = 0; j <= b.length; j++) {
+            previous[j] = j <= limit ? j : outside;
+        }
+
+        for (int i = 1; i <= a.length; i++) {
+            int from = Math.max(1, i - limit);
+            int to = Math.min(b.length, i + limit);
+            current[0] = i <= limit ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a[i - 1] == b[j - 1] ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > limit) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length], outside);
+    }
+
+    /**
+     * 한글 음절(가-힣)을 조합형 자모(U+1100 초성, U+1161 중성, U+11A7 종성)로 푼다. 나머지 문자는 그대로 둔다.
+     */
+    public static String toJamo(String text) {
+        StringBuilder jamo = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) {
+                int syllable = c - 0xAC00;
+                jamo.append((char) (0x1100 + syllable / 588));
+                jamo.append((char) (0x1161 + (syllable % 588) / 28));
+                int jongseong = syllable % 28;
+                if (jongseong > 0) {
+                    jamo.append((char) (0x11A7 + jongseong));
+                }
+            } else {
+                jamo.append(c);
+            }
+        }
+        return jamo.toString();
+    }
+
+    private static long[] distinctGrams(char[] text) {
+        if (text.length < Q) {
+            return new long[] {gram(text, 0, text.length)};
+        }
+        long[] grams = new long[text.length - Q + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(text, i, Q);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static long gram(char[] text, int from, int length) {
+        // 짧은 이름도 같은 공간에 넣도록 길이를 상위 비트에 함께 담는다
+        long value = length;
+        for (int i = 0; i < length; i++) {
+            value = (value << 16) | text[from + i];
+        }
+        return value;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            values = ensure(values, size + 1);
+            values[size++] = value;
+        }
+
+        private static int[] ensure(int[] array, int capacity) {
+            return array.length >= capacity ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+        }
+    }
+
+    /**
+     * 검색마다 색인 크기만큼 배열을 새로 잡지 않도록 스레드별로 재사용한다. 검색이 끝나면 seen 은 모두 false 로 되돌려져 있다.
+     */
+    private static final class Scratch {
+        private boolean[] seen = new boolean[0];
+        private int[] touched = new int[64];
+
+        private void ensure(int capacity) {
+            if (seen.length < capacity) {
+                seen = Arrays.copyOf(seen, Math.max(capacity, seen.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.productprice.util;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+public class ImageHashUtil {
+
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+    // 칸 경계를 정수 픽셀로 자르므로 칸마다 이 정도 픽셀은 남겨 두어야 사진 크기가 달라도 칸이 어긋나지 않는다
+    private static final int CELL_PIXELS = 8;
+
+    /**
+     * 64비트 dHash(difference hash)를 계산한다.
+     * 이미지를 9x8 흑백으로 줄인 뒤 가로로 인접한 픽셀의 밝기 비교 결과를 비트로 쌓는다.
+     * 디코딩할 수 없는 이미지면 null 을 반환한다.
+     */
+    public static Long dHash(byte[] imageBytes) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        } catch (IOException e) {
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+
+        // getScaledInstance(SCALE_AREA_AVERAGING) 는 큰 사진에서 수백 ms 가 걸린다. 흑백으로 바꾸면서 절반씩
+        // bilinear 로 줄이고, 마지막 9x8 은 남은 작은 이미지의 칸별 평균으로 구한다
+        BufferedImage gray = image;
+        while (gray.getWidth() / 2 >= HASH_WIDTH * CELL_PIXELS && gray.getHeight() / 2 >= HASH_HEIGHT * CELL_PIXELS) {
+            gray = toGray(gray, gray.getWidth() / 2, gray.getHeight() / 2);
+        }
+        if (gray.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+            gray = toGray(gray, gray.getWidth(), gray.getHeight());
+        }
+        int[][] cells = averageCells(gray.getRaster(), gray.getWidth(), gray.getHeight());
+
+        long hash = 0L;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (cells[y][x] > cells[y][x + 1]) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static int[][] averageCells(Raster raster, int width, int height) {
+        int[][] cells = new int[HASH_HEIGHT][HASH_WIDTH];
+        for (int cy = 0; cy < HASH_HEIGHT; cy++) {
+            int y0 = cy * height / HASH_HEIGHT;
+            int y1 = Math.max(y0 + 1, (cy + 1) * height / HASH_HEIGHT);
+            for (int cx = 0; cx < HASH_WIDTH; cx++) {
+                int x0 = cx * width / HASH_WIDTH;
+                int x1 = Math.max(x0 + 1, (cx + 1) * width / HASH_WIDTH);
+                int sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        sum += raster.getSample(x, y, 0);
+                    }
+                }
+                cells[cy][cx] = sum / ((y1 - y0) * (x1 - x0));
+            }
+        }
+        return cells;
+    }
+
+    private static BufferedImage toGray(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return resized;
+    }
+
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private ImageHashUtil() {
+        // Utility class
+    }
+}
@@ -0,0 +1,75 @@
+package com.productprice.util;
+
+import com.productprice.dto.ProductInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OCR 로 읽은 가격표 텍스트 줄에서 제품명과 가격을 짝지어 뽑는다.
+ * 한 줄에 "제품명 1,500원" 이 있거나, 제품명 줄 바로 다음 줄에 가격만 있는 경우를 처리한다.
+ */
+public class PriceTagParser {
+
+    // 숫자 뒤에 용량/수량 단위가 붙으면 가격이 아니다 (예: 500ml, 1.5L, 6입).
+    // 자릿수를 제한하고 더 긴 숫자의 앞부분만 잡지 않게 해, 바코드 같은 긴 숫자는 가격으로 보지 않는다
+    private static final Pattern PRICE = Pattern.compile(
+            "(?<![\\d.,])(\\d{1,3}(?:,\\d{3}){1,2}|\\d{3,7})(?!\\d|,\\d)"
+            + "(?![\\d.,]*\\s*(?:ml|mL|ML|l|L|g|G|kg|KG|개|입|매|%|cm|mm|p|P)(?![A-Za-z]))\\s*원?");
+    private static final Pattern HAS_LETTER = Pattern.compile("[\\p{IsHangul}A-Za-z]");
+    private static final int MIN_PRICE = 100;
+    private static final int MAX_PRICE = 10_000_000;
+
+    public record OcrLine(String text, double confidence) {}
+
+    public static List<ProductInfo> parse(List<OcrLine> lines) {
+        List<ProductInfo> products = new ArrayList<>();
+        OcrLine pendingName = null;
+
+        for (OcrLine line : lines) {
+            String text = line.text().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            Matcher matcher = PRICE.matcher(text);
+            Integer price = null;
+            int priceStart = -1;
+            while (matcher.find()) {
+                int value = Integer.parseInt(matcher.group(1).replace(",", ""));
+                if (value >= MIN_PRICE && value <= MAX_PRICE) {
+                    // 같은 줄에 여러 가격이 있으면 마지막(보통 판매가)을 쓴다
+                    price = value;
+                    priceStart = matcher.start();
+                }
+            }
+
+            if (price == null) {
+                pendingName = HAS_LETTER.matcher(text).find() ? line : null;
+                continue;
+            }
+
+            String name = cleanName(text.substring(0, priceStart));
+            double confidence = line.confidence();
+            if (!HAS_LETTER.matcher(name).find() && pendingName != null) {
+                name = cleanName(pendingName.text());
+                confidence = Math.min(confidence, pendingName.confidence());
+            }
+            if (HAS_LETTER.matcher(name).find()) {
+                products.add(new ProductInfo(name, (double) price, confidence));
+            }
+            pendingName = null;
+        }
+        return products;
+    }
+
+    private static String cleanName(String text) {
+        return text.replaceAll("[|:*#_~=]+", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    private PriceTagParser() {
+        // Utility class
+    }
+}
@@ -0,0 +1,17 @@
+package com.productprice.util;
+
+import java.util.Locale;
+
+/**
+ * 같은 제품을 같은 키로 묶기 위해 제품명을 정규화한다.
+ * 대소문자, 공백, 문장부호 차이("매일 우유!" / "매일우유")를 무시한다.
+ */
+public class ProductNameNormalizer {
+
+    public static String normalize(String productName) {
+        if (productName == null) {
+            return "";
+        }
+        return productName.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+}
@@ -2,6 +2,11 @@ package com.productprice.util;
 
 public class PromptUtil {
 
+    /**
+     * 프롬프트 내용을 바꾸면 함께 올려야 한다. 추출 결과 캐시 키에 포함되어 이전 결과를 무효화한다.
+     */
+    public static final String PRODUCT_PRICE_EXTRACTION_PROMPT_VERSION = "1";
+
     public static final String PRODUCT_PRICE_EXTRACTION_PROMPT = """
             이 이미지는 마트 매대의 가격표 사진입니다.
             이미지에서 보이는 모든 제품의 이름과 가격을 정확히 추출해주세요.
@@ -0,0 +1,108 @@
+package com.productprice.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.productprice.dto.ProductInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 조각조각 도착하는 {"products":[{"product_name":..,"price":..}, ...]} 문서를 Jackson 논블로킹 파서로 읽어
+ * 제품 객체 하나가 닫힐 때마다 onProduct 로 넘긴다. 문서 전체가 올 때까지 기다리지 않는다.
+ */
+public class StreamingProductParser {
+
+    private static final int PRODUCTS_ARRAY_DEPTH = 2;
+    private static final int PRODUCT_OBJECT_DEPTH = 3;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final double confidenceScore;
+    private final Consumer<ProductInfo> onProduct;
+
+    private int depth;
+    private boolean inProducts;
+    private String productName;
+    private Double price;
+    private int emitted;
+
+    public StreamingProductParser(JsonFactory factory, double confidenceScore, Consumer<ProductInfo> onProduct)
+            throws IOException {
+        this.parser = factory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.confidenceScore = confidenceScore;
+        this.onProduct = onProduct;
+    }
+
+    public void feed(String chunk) throws IOException {
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    public void end() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+    }
+
+    public int getEmitted() {
+        return emitted;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        switch (token) {
+            case START_ARRAY -> {
+                depth++;
+                if (depth == PRODUCTS_ARRAY_DEPTH && "products".equals(parser.currentName())) {
+                    inProducts = true;
+                }
+            }
+            case START_OBJECT -> {
+                depth++;
+                if (inProducts && depth == PRODUCT_OBJECT_DEPTH) {
+                    productName = null;
+                    price = null;
+                }
+            }
+            case END_OBJECT -> {
+                if (inProducts && depth == PRODUCT_OBJECT_DEPTH && productName != null) {
+                    emitted++;
+                    onProduct.accept(new ProductInfo(productName, price != null ? price : 0.0, confidenceScore));
+                }
+                depth--;
+            }
+            case END_ARRAY -> {
+                if (depth == PRODUCTS_ARRAY_DEPTH) {
+                    inProducts = false;
+                }
+                depth--;
+            }
+            case FIELD_NAME -> { }
+            default -> {
+                if (inProducts && depth == PRODUCT_OBJECT_DEPTH) {
+                    readField(parser.currentName());
+                }
+            }
+        }
+    }
+
+    private void readField(String field) throws IOException {
+        if ("product_name".equals(field)) {
+            productName = parser.getValueAsString();
+        } else if ("price".equals(field)) {
+            price = parser.getValueAsDouble(0.0);
+        }
+    }
+}
@@ -95,6 +95,138 @@ function removeFile(index) {
     document.getElementById('uploadBtn').disabled = selectedFiles.length === 0;
 }
 
+// 여러 이미지를 한 번에 업로드하고, 서버가 이미지별 결과를 완료되는 순서대로 보내주면 onImageResult 로 전달
+async function extractImagesBatch(files, storeId, location, onImageResult) {
+    const formData = new FormData();
+    files.forEach(file => formData.append('files', file));
+    if (storeId) formData.append('store_id', storeId);
+    if (location) formData.append('location', location);
+    
+    const response = await fetch('/api/products/extract/batch', {
+        method: 'POST',
+        body: formData
+    });
+    if (!response.ok || !response.body) {
+        throw new Error(`업로드 실패 (${response.status})`);
+    }
+    
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let summary = null;
+    
+    while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        
+        let newlineIndex;
+        while ((newlineIndex = buffer.indexOf('\n')) >= 0) {
+            const line = buffer.slice(0, newlineIndex).trim();
+            buffer = buffer.slice(newlineIndex + 1);
+            if (!line) continue;
+            
+            const event = JSON.parse(line);
+            if (event.type === 'IMAGE') {
+                onImageResult(event);
+            } else if (event.type === 'DONE') {
+                summary = event;
+            }
+        }
+    }
+    
+    return summary;
+}
+
+// 이미지 한 장을 업로드하고, 서버가 보내는 SSE 이벤트(product/saved/complete/error)를 onEvent 로 전달
+async function extractImageStream(file, storeId, location, onEvent) {
+    const formData = new FormData();
+    formData.append('file', file);
+    if (storeId) formData.append('store_id', storeId);
+    if (location) formData.append('location', location);
+    
+    const response = await fetch('/api/products/extract/stream', {
+        method: 'POST',
+        body: formData
+    });
+    if (!response.ok || !response.body) {
+        throw new Error(`업로드 실패 (${response.status})`);
+    }
+    
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    
+    while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true }).replace(/\r/g, '');
+        
+        // 이벤트는 빈 줄로 구분된다
+        let separatorIndex;
+        while ((separatorIndex = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, separatorIndex);
+            buffer = buffer.slice(separatorIndex + 2);
+            
+            let name = 'message';
+            const data = [];
+            block.split('\n').forEach(line => {
+                if (line.startsWith('event:')) name = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5));
+            });
+            if (data.length > 0) {
+                onEvent(name, JSON.parse(data.join('\n')));
+            }
+        }
+    }
+}
+
+// 한 장 업로드: 제품이 읽히는 대로 결과 영역에 바로 그린다
+async function uploadSingleImageStreaming(file, storeId, location, resultContainer) {
+    const item = document.createElement('div');
+    item.className = 'result-item success';
+    item.innerHTML = `<h3>⏳ ${file.name}</h3><p class="stream-count">제품을 읽는 중...</p><ul class="stream-products"></ul>`;
+    resultContainer.appendChild(item);
+    
+    const list = item.querySelector('.stream-products');
+    const countText = item.querySelector('.stream-count');
+    let received = 0;
+    let summary = null;
+    
+    await extractImageStream(file, storeId, location, (event, data) => {
+        if (event === 'product') {
+            received++;
+            countText.textContent = `${received}개 제품 읽음...`;
+            const li = document.createElement('li');
+            li.textContent = `${data.productName} - ${Number(data.price).toLocaleString('ko-KR')}원`;
+            list.appendChild(li);
+        } else if (event === 'complete' || event === 'partial' || event === 'error') {
+            summary = data;
+            summary.partial = event === 'partial';
+        }
+    });
+    
+    if (summary && summary.partial) {
+        item.className = 'result-item error';
+        item.querySelector('h3').textContent = `⚠️ ${file.name}`;
+        countText.textContent = `추출이 중간에 끊겨 ${summary.count}개 제품만 저장되었습니다`;
+        return summary.count;
+    }
+    if (summary && summary.success) {
+        item.querySelector('h3').textContent = `✅ ${file.name}`;
+        countText.textContent = `${summary.count}개 제품 추출 완료`;
+        if (summary.pendingReviewCount > 0) {
+            item.insertAdjacentHTML('beforeend',
+                `<p style="color: #f59e0b;">⚠️ ${summary.pendingReviewCount}개 항목 검수 필요</p>`);
+        }
+        return summary.count;
+    }
+    item.className = 'result-item error';
+    item.querySelector('h3').textContent = `❌ ${file.name}`;
+    countText.textContent = (summary && summary.message) || '추출 실패';
+    return null;
+}
+
 // 이미지 업로드 및 추출
 async function uploadImages() {
     if (selectedFiles.length === 0) {
@@ -212,7 +344,6 @@ function displayProductList(data) {
     
     let html = '';
     data.items.forEach(item => {
-        const metadata = item.metadata ? JSON.parse(item.metadata) : {};
         const statusClass = item.status === 'AUTO_APPROVED' || item.status === 'APPROVED' ? 'approved' : 
                            item.status === 'PENDING_REVIEW' ? 'pending' : 'review';
         const statusText = item.status === 'AUTO_APPROVED' ? '자동승인' : 
@@ -227,8 +358,8 @@ function displayProductList(data) {
                 </div>
                 <div class="product-meta">
                     <span>📅 ${new Date(item.extractedAt).toLocaleDateString('ko-KR')}</span>
-                    ${metadata.store_name ? `<span>🏪 ${metadata.store_name}</span>` : ''}
-                    ${metadata.location ? `<span>📍 ${metadata.location}</span>` : ''}
+                    ${item.storeName ? `<span>🏪 ${item.storeName}</span>` : ''}
+                    ${item.location ? `<span>📍 ${item.location}</span>` : ''}
                     <span class="status-badge status-${statusClass}">${statusText}</span>
                 </div>
             </div>
@@ -299,7 +430,7 @@ function displayReviewList(items) {
     
     let html = '';
     items.forEach(item => {
-        const storeName = item.store ? item.store.storeName : '거래처 미지정';
+        const storeName = item.storeName || '거래처 미지정';
         const imageInfo = item.imagePath ? item.imagePath.split('/').pop() : '사진 정보 없음';
         
         html += `
@@ -309,6 +440,7 @@ function displayReviewList(items) {
                     <span class="review-image">📷 ${imageInfo}</span>
                     <span class="review-date">📅 ${new Date(item.extractedAt).toLocaleDateString('ko-KR')}</span>
                 </div>
+                ${item.imagePath ? `<img class="review-thumbnail" src="${getImageVariantUrl(item.imagePath, 320)}" loading="lazy" alt="${imageInfo}">` : ''}
                 <div class="product-header">
                     <div class="product-name">${item.productName}</div>
                     <div class="product-price">${parseInt(item.price).toLocaleString()}원</div>
@@ -698,6 +830,16 @@ function getImageUrl(imagePath) {
     return '/uploads/' + imagePath;
 }
 
+// 미리보기용 축소본 URL (서버에서 허용 너비로 맞춰 디스크에 캐시)
+function getImageVariantUrl(imagePath, width) {
+    if (!imagePath) return '';
+    if (imagePath.startsWith('http://') || imagePath.startsWith('https://')) {
+        return imagePath;
+    }
+    const path = imagePath.startsWith('uploads/') ? imagePath : 'uploads/' + imagePath;
+    return `/api/images/variant?image_path=${encodeURIComponent(path)}&width=${width}`;
+}
+
 function displayImageSlideshow(images) {
     const slideshowContainer = document.getElementById('imageSlideshow');
     const slideshowImages = document.getElementById('slideshowImages');
@@ -719,7 +861,7 @@ function displayImageSlideshow(images) {
     
     let html = '';
     sortedImages.forEach((item, index) => {
-        const imageUrl = getImageUrl(item.imagePath);
+        const imageUrl = getImageVariantUrl(item.imagePath, 960);
         const escapedPath = item.imagePath.replace(/'/g, "\\'");
         const date = new Date(item.extractedAt).toLocaleDateString('ko-KR');
         const time = new Date(item.extractedAt).toLocaleTimeString('ko-KR', { hour: '2-digit', minute: '2-digit' });
@@ -727,7 +869,7 @@ function displayImageSlideshow(images) {
         html += `
             <div class="slide ${index === 0 ? 'active' : ''}" style="display: ${index === 0 ? 'block' : 'none'};">
                 <div class="slide-image-wrapper">
-                    <img src="${imageUrl}" alt="Product Image ${index + 1}" onclick="openImageModal('${escapedPath}', ${index})">
+                    <img src="${imageUrl}" loading="lazy" alt="Product Image ${index + 1}" onclick="openImageModal('${escapedPath}', ${index})">
                     <div class="slide-date-info">📅 ${date} ${time}</div>
                 </div>
             </div>
@@ -798,7 +940,7 @@ function displayModalImage() {
     if (modalImages.length === 0) return;
     
     const imagePath = modalImages[modalSlideIndex];
-    const imageUrl = getImageUrl(imagePath);
+    const imageUrl = getImageVariantUrl(imagePath, 1920);
     
     document.getElementById('modalImage').src = imageUrl;
     document.getElementById('modalCurrentSlide').textContent = modalSlideIndex + 1;
@@ -891,22 +1033,14 @@ async function uploadDetailImages() {
     let totalPendingReview = 0;
     const totalFiles = detailFiles.length;
     
-    for (let i = 0; i < detailFiles.length; i++) {
-        const file = detailFiles[i];
-        const formData = new FormData();
-        formData.append('file', file);
-        formData.append('store_id', selectedStoreId);
-        
-        progressText.textContent = `AI 분석 중... (${i + 1}/${totalFiles})`;
-        progressFill.style.width = `${((i + 1) / totalFiles) * 100}%`;
-        
-        try {
-            const response = await fetch('/api/products/extract', {
-                method: 'POST',
-                body: formData
-            });
-            
-            const result = await response.json();
+    let processed = 0;
+    progressText.textContent = `AI 분석 중... (0/${totalFiles})`;
+    
+    try {
+        await extractImagesBatch(detailFiles, selectedStoreId, null, result => {
+            processed++;
+            progressText.textContent = `AI 분석 중... (${processed}/${totalFiles})`;
+            progressFill.style.width = `${(processed / totalFiles) * 100}%`;
             
             if (result.success) {
                 successCount++;
@@ -915,8 +1049,8 @@ async function uploadDetailImages() {
                 
                 // 추출된 제품 상세 정보 표시
                 let productsHtml = '<ul style="margin: 10px 0; padding-left: 20px;">';
-                if (result.products && result.products.length > 0) {
-                    result.products.forEach(p => {
+                if (result.extractedProducts && result.extractedProducts.length > 0) {
+                    result.extractedProducts.forEach(p => {
                         productsHtml += `<li>${p.productName}: ${parseInt(p.price).toLocaleString()}원</li>`;
                     });
                 }
@@ -924,7 +1058,7 @@ async function uploadDetailImages() {
                 
                 resultContainer.innerHTML += `
                     <div class="result-item success">
-                        <h3>✅ ${file.name}</h3>
+                        <h3>✅ ${result.filename}</h3>
                         <p><strong>${result.count}개 제품 추출 완료</strong></p>
                         ${productsHtml}
                         ${result.pendingReviewCount > 0 ? `<p style="color: #f59e0b; margin-top: 10px;">⚠️ ${result.pendingReviewCount}개 항목 검수 필요</p>` : '<p style="color: #10b981; margin-top: 10px;">✅ 모든 항목 자동 승인</p>'}
@@ -934,20 +1068,20 @@ async function uploadDetailImages() {
                 failCount++;
                 resultContainer.innerHTML += `
                     <div class="result-item error">
-                        <h3>❌ ${file.name}</h3>
+                        <h3>❌ ${result.filename}</h3>
                         <p>${result.message || '추출 실패'}</p>
                     </div>
                 `;
             }
-        } catch (error) {
-            failCount++;
-            resultContainer.innerHTML += `
-                <div class="result-item error">
-                    <h3>❌ ${file.name}</h3>
-                    <p>오류: ${error.message}</p>
-                </div>
-            `;
-        }
+        });
+    } catch (error) {
+        failCount = totalFiles - successCount;
+        resultContainer.innerHTML += `
+            <div class="result-item error">
+                <h3>❌ 업로드 실패</h3>
+                <p>오류: ${error.message}</p>
+            </div>
+        `;
     }
     
     progressText.textContent = `분석 완료! 총 ${totalExtracted}개 제품 추출 (성공: ${successCount}장, 실패: ${failCount}장)`;
@@ -1095,28 +1229,20 @@ async function uploadStoreImages() {
     let failCount = 0;
     const totalFiles = storeFiles.length;
     
-    for (let i = 0; i < storeFiles.length; i++) {
-        const file = storeFiles[i];
-        const formData = new FormData();
-        formData.append('file', file);
-        formData.append('store_id', selectedStoreId);
-        
-        progressText.textContent = `처리 중... (${i + 1}/${totalFiles})`;
-        progressFill.style.width = `${((i + 1) / totalFiles) * 100}%`;
-        
-        try {
-            const response = await fetch('/api/products/extract', {
-                method: 'POST',
-                body: formData
-            });
-            
-            const result = await response.json();
+    let processed = 0;
+    progressText.textContent = `처리 중... (0/${totalFiles})`;
+    
+    try {
+        await extractImagesBatch(storeFiles, selectedStoreId, null, result => {
+            processed++;
+            progressText.textContent = `처리 중... (${processed}/${totalFiles})`;
+            progressFill.style.width = `${(processed / totalFiles) * 100}%`;
             
             if (result.success) {
                 successCount += result.count;
                 resultContainer.innerHTML += `
                     <div class="result-item success">
-                        <h3>✅ ${file.name}</h3>
+                        <h3>✅ ${result.filename}</h3>
                         <p>${result.count}개 제품 추출 완료</p>
                     </div>
                 `;
@@ -1124,20 +1250,20 @@ async function uploadStoreImages() {
                 failCount++;
                 resultContainer.innerHTML += `
                     <div class="result-item error">
-                        <h3>❌ ${file.name}</h3>
+                        <h3>❌ ${result.filename}</h3>
                         <p>${result.message || '추출 실패'}</p>
                     </div>
                 `;
             }
-        } catch (error) {
-            failCount++;
-            resultContainer.innerHTML += `
-                <div class="result-item error">
-                    <h3>❌ ${file.name}</h3>
-                    <p>오류: ${error.message}</p>
-                </div>
-            `;
-        }
+        });
+    } catch (error) {
+        failCount += totalFiles - processed;
+        resultContainer.innerHTML += `
+            <div class="result-item error">
+                <h3>❌ 업로드 실패</h3>
+                <p>오류: ${error.message}</p>
+            </div>
+        `;
     }
     
     progressText.textContent = `완료! 성공: ${successCount}, 실패: ${failCount}`;
@@ -1173,29 +1299,46 @@ async function uploadImages() {
     let failCount = 0;
     const totalFiles = selectedFiles.length;
     
-    for (let i = 0; i < selectedFiles.length; i++) {
-        const file = selectedFiles[i];
-        const formData = new FormData();
-        formData.append('file', file);
-        if (storeId) formData.append('store_id', storeId);
-        if (location) formData.append('location', location);
-        
-        progressText.textContent = `처리 중... (${i + 1}/${totalFiles})`;
-        progressFill.style.width = `${((i + 1) / totalFiles) * 100}%`;
-        
+    let processed = 0;
+    progressText.textContent = `처리 중... (0/${totalFiles})`;
+    
+    if (totalFiles === 1) {
         try {
-            const response = await fetch('/api/products/extract', {
-                method: 'POST',
-                body: formData
-            });
-            
-            const result = await response.json();
+            const count = await uploadSingleImageStreaming(selectedFiles[0], storeId, location, resultContainer);
+            if (count !== null) {
+                successCount += count;
+            } else {
+                failCount++;
+            }
+        } catch (error) {
+            failCount++;
+            resultContainer.innerHTML += `
+                <div class="result-item error">
+                    <h3>❌ 업로드 실패</h3>
+                    <p>오류: ${error.message}</p>
+                </div>
+            `;
+        }
+        progressFill.style.width = '100%';
+        progressText.textContent = `완료! 성공: ${successCount}, 실패: ${failCount}`;
+        document.getElementById('uploadBtn').disabled = false;
+        if (successCount > 0 && currentTab === 'list') {
+            loadProductList();
+        }
+        return;
+    }
+    
+    try {
+        await extractImagesBatch(selectedFiles, storeId, location, result => {
+            processed++;
+            progressText.textContent = `처리 중... (${processed}/${totalFiles})`;
+            progressFill.style.width = `${(processed / totalFiles) * 100}%`;
             
             if (result.success) {
                 successCount += result.count;
                 resultContainer.innerHTML += `
                     <div class="result-item success">
-                        <h3>✅ ${file.name}</h3>
+                        <h3>✅ ${result.filename}</h3>
                         <p>${result.count}개 제품 추출 완료</p>
                         ${result.pendingReviewCount > 0 ? `<p style="color: #f59e0b;">⚠️ ${result.pendingReviewCount}개 항목 검수 필요</p>` : ''}
                     </div>
@@ -1204,20 +1347,20 @@ async function uploadImages() {
                 failCount++;
                 resultContainer.innerHTML += `
                     <div class="result-item error">
-                        <h3>❌ ${file.name}</h3>
+                        <h3>❌ ${result.filename}</h3>
                         <p>${result.message || '추출 실패'}</p>
                     </div>
                 `;
             }
-        } catch (error) {
-            failCount++;
-            resultContainer.innerHTML += `
-                <div class="result-item error">
-                    <h3>❌ ${file.name}</h3>
-                    <p>오류: ${error.message}</p>
-                </div>
-            `;
-        }
+        });
+    } catch (error) {
+        failCount += totalFiles - processed;
+        resultContainer.innerHTML += `
+            <div class="result-item error">
+                <h3>❌ 업로드 실패</h3>
+                <p>오류: ${error.message}</p>
+            </div>
+        `;
     }
     
     progressText.textContent = `완료! 성공: ${successCount}, 실패: ${failCount}`;
@@ -1270,7 +1413,6 @@ function displayProductList(data) {
     
     let html = '';
     data.items.forEach(item => {
-        const metadata = item.metadata ? JSON.parse(item.metadata) : {};
         const statusClass = item.status === 'AUTO_APPROVED' || item.status === 'APPROVED' ? 'approved' : 
                            item.status === 'PENDING_REVIEW' ? 'pending' : 'review';
         const statusText = item.status === 'AUTO_APPROVED' ? '자동승인' : 
@@ -1285,8 +1427,8 @@ function displayProductList(data) {
                 </div>
                 <div class="product-meta">
                     <span>📅 ${new Date(item.extractedAt).toLocaleDateString('ko-KR')}</span>
-                    ${item.store ? `<span>🏪 ${item.store.storeName}</span>` : (metadata.store_name ? `<span>🏪 ${metadata.store_name}</span>` : '')}
-                    ${metadata.location ? `<span>📍 ${metadata.location}</span>` : ''}
+                    ${item.storeName ? `<span>🏪 ${item.storeName}</span>` : ''}
+                    ${item.location ? `<span>📍 ${item.location}</span>` : ''}
                     <span class="status-badge status-${statusClass}">${statusText}</span>
                 </div>
             </div>
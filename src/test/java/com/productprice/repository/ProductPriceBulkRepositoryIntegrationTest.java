@@ -0,0 +1,116 @@
+package com.productprice.repository;
+
+import com.productprice.model.ProductPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 PostgreSQL 에서 pooled 블록 단위 ID 할당과, reWriteBatchedInserts 로 합쳐진 INSERT 문 수를
+ * pg_stat_statements 로 확인한다. rows/s 벤치마크는 mvn test -Pbenchmark 로 실행한다.
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPriceBulkRepositoryIntegrationTest {
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUrlParam("reWriteBatchedInserts", "true")
+            .withCommand("postgres", "-c", "shared_preload_libraries=pg_stat_statements");
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductPriceBulkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product_price");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + ProductPrice.ID_SEQUENCE);
+        jdbcTemplate.execute("CREATE SEQUENCE " + ProductPrice.ID_SEQUENCE + " INCREMENT BY 50");
+        jdbcTemplate.execute("CREATE TABLE product_price (" +
+                "id BIGINT PRIMARY KEY, product_name VARCHAR(200) NOT NULL, price DECIMAL(10,2) NOT NULL, " +
+                "image_path VARCHAR(500), extracted_at TIMESTAMP NOT NULL, created_at TIMESTAMP, metadata JSONB, " +
+                "confidence_score DOUBLE PRECISION, status VARCHAR(50), store_id BIGINT, catalog_id BIGINT)");
+        repository = new ProductPriceBulkRepository(jdbcTemplate);
+    }
+
+    @Test
+    void allocatesIdsInPooledBlocksFromOneSeriesQuery() {
+        List<ProductPrice> saved = repository.insertAll(products(120), CHUNK_SIZE);
+
+        // 새 시퀀스: nextval 1 은 ID 1 만, 51 은 2..51, 101 은 52..101, 151 은 102..120 을 뜻한다
+        assertThat(saved).extracting(ProductPrice::getId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 120).boxed().toList());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM product_price", Long.class))
+                .isEqualTo(120L);
+
+        // JPA 가 다음에 받는 블록은 이미 쓴 ID 와 겹치지 않는다
+        Long nextHigh = jdbcTemplate.queryForObject("SELECT nextval('" + ProductPrice.ID_SEQUENCE + "')", Long.class);
+        assertThat(nextHigh - ProductPrice.ID_ALLOCATION_SIZE + 1).isGreaterThan(120L);
+    }
+
+    @Test
+    void sendsChunksAsMultiRowStatements() {
+        int rows = 2_500;
+        jdbcTemplate.execute("SELECT pg_stat_statements_reset()");
+
+        repository.insertAll(products(rows), CHUNK_SIZE);
+
+        Map<String, Object> inserts = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(SUM(calls), 0) AS statements, COALESCE(SUM(rows), 0) AS inserted " +
+                "FROM pg_stat_statements WHERE query LIKE 'INSERT INTO product_price%'");
+        long statements = ((Number) inserts.get("statements")).longValue();
+        assertThat(((Number) inserts.get("inserted")).longValue()).isEqualTo(rows);
+        // 드라이버는 청크(1000행)를 최대 128행짜리 multi-row INSERT 로 나눠 보낸다. 행마다 보내면 2500 번이다
+        assertThat(statements).isGreaterThanOrEqualTo((rows + 127) / 128).isLessThanOrEqualTo(rows / 64);
+        // ID 할당은 블록 수만큼의 nextval 을 generate_series 한 문장으로 받는다
+        Long seriesCalls = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(calls), 0) FROM pg_stat_statements WHERE query LIKE '%generate_series%'", Long.class);
+        assertThat(seriesCalls).isLessThanOrEqualTo(2L);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void insertThroughput() {
+        for (int size : new int[] {10, 100, 10_000}) {
+            repository.insertAll(products(size), CHUNK_SIZE); // 워밍업
+            long start = System.nanoTime();
+            repository.insertAll(products(size), CHUNK_SIZE);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("bulk insert %d products: %.1f ms (%.0f rows/s)%n", size, seconds * 1_000, size / seconds);
+        }
+    }
+
+    private static List<ProductPrice> products(int count) {
+        List<ProductPrice> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductPrice product = new ProductPrice();
+            product.setProductName("product " + i);
+            product.setPrice(BigDecimal.valueOf(1_000 + i));
+            product.setImagePath("uploads/" + i + ".jpg");
+            product.setMetadata("{\"location\":\"A-1\"}");
+            product.setConfidenceScore(0.9);
+            product.setStatus("PENDING_REVIEW");
+            products.add(product);
+        }
+        return products;
+    }
+}
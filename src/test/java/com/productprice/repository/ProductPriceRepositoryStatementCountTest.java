@@ -0,0 +1,131 @@
+package com.productprice.repository;
+
+import com.productprice.dto.ProductPriceSummary;
+import com.productprice.model.ProductPrice;
+import com.productprice.model.Store;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 목록 · 검수 · 거래처별 조회가 거래처 수와 상관없이 store 를 한 번의 조인으로 읽는지 Hibernate 통계의 SQL 실행 수로 확인한다.
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPriceRepositoryStatementCountTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+    private static final int STORES = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductPriceRepository repository;
+
+    private Statistics statistics;
+    private Long firstStoreId;
+
+    @BeforeEach
+    void setUp() {
+        // 거래처마다 제품 2건: 엔티티로 읽으면 거래처 수만큼 store 조회가 붙는다
+        for (int s = 0; s < STORES; s++) {
+            Store store = new Store();
+            store.setStoreName("store " + s);
+            entityManager.persist(store);
+            if (firstStoreId == null) {
+                firstStoreId = store.getId();
+            }
+            for (int p = 0; p < 2; p++) {
+                ProductPrice product = new ProductPrice();
+                product.setProductName("product " + s + "-" + p);
+                product.setPrice(BigDecimal.valueOf(1_000));
+                product.setStore(store);
+                product.setStatus("PENDING_REVIEW");
+                product.setMetadata("{\"location\":\"A-" + s + "\"}");
+                entityManager.persist(product);
+                product.setExtractedAt(BASE.minusMinutes(s * 2L + p));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void cursorListIsOneStatement() {
+        List<ProductPriceSummary> rows = repository.findFirstSummariesWithFilters(null, null, null, null,
+                PageRequest.of(0, 20));
+
+        assertThat(rows).hasSize(STORES * 2);
+        assertThat(rows).extracting(ProductPriceSummary::storeName).doesNotContainNull();
+        assertThat(rows.get(0).location()).isEqualTo("A-0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nextCursorPageIsOneStatement() {
+        List<ProductPriceSummary> first = repository.findFirstSummariesByStatus("PENDING_REVIEW", PageRequest.of(0, 3));
+        ProductPriceSummary last = first.get(first.size() - 1);
+        statistics.clear();
+
+        List<ProductPriceSummary> next = repository.findSummariesByStatusAfter("PENDING_REVIEW",
+                last.extractedAt(), last.id(), PageRequest.of(0, 20));
+
+        assertThat(next).hasSize(STORES * 2 - 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagedListIsDataPlusCountStatement() {
+        Page<ProductPriceSummary> page = repository.findSummariesWithFilters(null, null, null, null,
+                PageRequest.of(0, 4));
+
+        assertThat(page.getTotalElements()).isEqualTo(STORES * 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void storeViewIsOneStatement() {
+        List<ProductPriceSummary> rows = repository.findSummariesByStore(firstStoreId, null, null);
+
+        assertThat(rows).hasSize(2).allSatisfy(row -> assertThat(row.storeId()).isEqualTo(firstStoreId));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
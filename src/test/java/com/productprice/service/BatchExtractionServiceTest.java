@@ -0,0 +1,98 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ExtractionBatchConfig;
+import com.productprice.dto.ProductInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 일괄 추출 대기열이 가득 차면 응답을 시작하기 전에 거절하고, 이미 넣은 이미지는 추출하지 않는지 확인한다.
+ */
+class BatchExtractionServiceTest {
+
+    private static final byte[] BUSY = {1};
+    private static final byte[] QUEUED = {2};
+    private static final byte[] OVERFLOW = {3};
+    private static final byte[] PROBE = {4};
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExtractionEngineService extractionEngineService;
+    private ProductPriceService productPriceService;
+    private BatchExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        extractionEngineService = mock(ExtractionEngineService.class);
+        productPriceService = mock(ProductPriceService.class);
+        when(extractionEngineService.extract(any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of(new ProductInfo("콜라", 1_500.0, 0.9));
+        });
+        when(productPriceService.buildProductPrices(anyList(), any(), any(), any())).thenReturn(List.of());
+        when(productPriceService.saveExtractedProducts(anyList())).thenReturn(List.of());
+
+        ExtractionBatchConfig config = new ExtractionBatchConfig();
+        config.setConcurrency(1);
+        config.setMaxQueueDepth(1);
+        service = new BatchExtractionService(extractionEngineService, productPriceService, config, new ObjectMapper());
+        service.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdownExecutor();
+    }
+
+    @Test
+    void rejectsBatchThatDoesNotFitAndCancelsQueuedImages() throws Exception {
+        StreamingResponseBody first = service.extractAndStream(List.of(image(0, BUSY)), null, null, null);
+        verify(extractionEngineService, timeout(1_000)).extract(eq(BUSY), any(), any(), any());
+
+        // 작업 스레드 1개가 바쁘고 대기열 자리는 1개: 두 번째 이미지에서 거절된다
+        assertThatThrownBy(() -> service.extractAndStream(List.of(image(0, QUEUED), image(1, OVERFLOW)),
+                null, null, null))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        // 취소된 이미지는 대기열에서 빠져 다음 배치가 들어갈 수 있다
+        StreamingResponseBody probe = service.extractAndStream(List.of(image(0, PROBE)), null, null, null);
+        release.countDown();
+        assertThat(stream(first)).contains("\"type\":\"DONE\"");
+        assertThat(stream(probe)).contains("\"type\":\"DONE\"");
+
+        // 작업 스레드는 하나이고 대기열은 먼저 들어온 순서이므로, probe 가 끝났으면 앞선 이미지는 이미 실행됐어야 한다
+        verify(extractionEngineService, never()).extract(eq(QUEUED), any(), any(), any());
+        verify(extractionEngineService, never()).extract(eq(OVERFLOW), any(), any(), any());
+    }
+
+    private static String stream(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static BatchExtractionService.BatchImage image(int index, byte[] bytes) {
+        return new BatchExtractionService.BatchImage(index, "shelf-" + index + ".jpg", "uploads/" + index + ".jpg",
+                bytes, null);
+    }
+}
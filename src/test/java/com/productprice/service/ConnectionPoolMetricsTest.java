@@ -0,0 +1,46 @@
+package com.productprice.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolMetricsTest {
+
+    @Test
+    void recordsLocallyAndForwardsToMicrometer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(registry);
+
+        IMetricsTracker tracker = metrics.create("test-pool", new PoolStats(0) {
+            @Override
+            protected void update() {
+                maxConnections = 10;
+                activeConnections = 2;
+            }
+        });
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        tracker.recordConnectionUsageMillis(1_500);
+        tracker.recordConnectionTimeout();
+
+        ConnectionPoolMetrics.PoolMetricsSnapshot snapshot = metrics.getSnapshot();
+        assertThat(snapshot.poolName()).isEqualTo("test-pool");
+        assertThat(snapshot.acquireCount()).isEqualTo(1);
+        assertThat(snapshot.usageCount()).isEqualTo(1);
+        assertThat(snapshot.slowHolds()).isEqualTo(1);
+        assertThat(snapshot.timeouts()).isEqualTo(1);
+
+        assertThat(registry.get("hikaricp.connections.acquire").tag("pool", "test-pool").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("hikaricp.connections.usage").tag("pool", "test-pool").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("hikaricp.connections.timeout").tag("pool", "test-pool").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("hikaricp.connections.max").tag("pool", "test-pool").gauge().value())
+                .isEqualTo(10.0);
+    }
+}
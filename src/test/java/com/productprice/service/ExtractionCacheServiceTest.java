@@ -0,0 +1,74 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ExtractionCacheConfig;
+import com.productprice.config.OpenAIConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.repository.ExtractionCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 업로드 때 계산한 해시를 캐시 키에 그대로 쓰는지와, 적중/미스가 Micrometer 지표로 집계되는지 확인한다.
+ */
+class ExtractionCacheServiceTest {
+
+    private static final byte[] IMAGE = "shelf photo".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExtractionCacheRepository repository = mock(ExtractionCacheRepository.class);
+    private ExtractionCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        ExtractionCacheConfig cacheConfig = new ExtractionCacheConfig();
+        cacheConfig.setPersistent(false);
+        cache = new ExtractionCacheService(cacheConfig, new OpenAIConfig(), repository, new ObjectMapper(), meterRegistry);
+        cache.initMemoryCache();
+    }
+
+    @Test
+    void reusesUploadHashForCacheKey() throws Exception {
+        String uploadHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(IMAGE));
+        String imagePath = UploadStorageService.PATH_PREFIX + uploadHash.substring(0, 2) + "/"
+                + uploadHash.substring(2, 4) + "/" + uploadHash + ".jpg";
+
+        ExtractionCacheService.CacheKey reused = cache.keyFor(IMAGE, UploadStorageService.contentHashOf(imagePath));
+        ExtractionCacheService.CacheKey computed = cache.keyFor(IMAGE, null);
+
+        assertThat(reused.imageHash()).isEqualTo(uploadHash);
+        assertThat(reused).isEqualTo(computed);
+        // 해시로 저장하기 전 경로는 해시를 알 수 없으므로 바이트를 해시한다
+        assertThat(UploadStorageService.contentHashOf("uploads/product_1700000000000_shelf.jpg")).isNull();
+    }
+
+    @Test
+    void countsLookupsAsMeters() {
+        ExtractionCacheService.CacheKey key = cache.keyFor(IMAGE, null);
+        ProductInfo cola = new ProductInfo("콜라 500ml", 1500.0, 0.9);
+
+        assertThat(cache.get(key)).isEmpty();
+        cache.put(key, List.of(cola));
+        assertThat(cache.get(key)).contains(List.of(cola));
+        assertThat(cache.get(key)).isPresent();
+
+        assertThat(lookups("memory_hit")).isEqualTo(2);
+        assertThat(lookups("persistent_hit")).isZero();
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(meterRegistry.get("extraction.cache.size").gauge().value()).isEqualTo(1);
+        assertThat(cache.getStats()).isEqualTo(new ExtractionCacheService.CacheStats(2, 0, 1, 1));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("extraction.cache.lookups").tag("result", result).functionCounter().count();
+    }
+}
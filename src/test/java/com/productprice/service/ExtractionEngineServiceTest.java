@@ -0,0 +1,69 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionEngineConfig;
+import com.productprice.dto.ProductInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 업로드 해시는 원본 바이트를 그대로 넘길 때만 엔진에 전달되고, 타일에는 전달되지 않는지 확인한다.
+ */
+class ExtractionEngineServiceTest {
+
+    private static final byte[] IMAGE = {1, 2, 3};
+    private static final byte[] TILE = {4, 5};
+    private static final String HASH = "a".repeat(64);
+
+    private final ExtractionEngine openAI = mock(ExtractionEngine.class);
+    private final ImageTilingService imageTilingService = mock(ImageTilingService.class);
+    private ExtractionEngineService service;
+
+    @BeforeEach
+    void setUp() {
+        when(openAI.getName()).thenReturn(ExtractionEngine.ENGINE_OPENAI);
+        when(openAI.extract(any(), any(), any())).thenReturn(List.of(new ProductInfo("콜라 500ml", 1500.0, 0.9)));
+        service = new ExtractionEngineService(List.of(openAI), new ExtractionEngineConfig(), imageTilingService,
+                new ExtractionMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void passesUploadHashForWholeImage() {
+        when(imageTilingService.extract(eq(IMAGE), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<byte[], List<ProductInfo>>>getArgument(1).apply(IMAGE));
+
+        assertThat(service.extract(IMAGE, HASH, 7L, null)).hasSize(1);
+
+        verify(openAI).extract(IMAGE, HASH, 7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tilesAreHashedByEngine() {
+        when(imageTilingService.extract(eq(IMAGE), any(Function.class))).thenAnswer(invocation -> {
+            Function<byte[], List<ProductInfo>> extractor = invocation.getArgument(1);
+            List<ProductInfo> products = new ArrayList<>(extractor.apply(TILE));
+            products.addAll(extractor.apply(TILE.clone()));
+            return products;
+        });
+
+        assertThat(service.extract(IMAGE, HASH, 7L, null)).hasSize(2);
+
+        verify(openAI, times(2)).extract(TILE, null, 7L);
+        verify(openAI, never()).extract(any(), eq(HASH), any());
+    }
+}
@@ -0,0 +1,122 @@
+package com.productprice.service;
+
+import com.productprice.config.ImageTilingConfig;
+import com.productprice.dto.ProductInfo;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageTilingServiceTest {
+
+    private final ImageTilingConfig config = new ImageTilingConfig();
+    private final ImageTilingService service = new ImageTilingService(config);
+
+    @Test
+    void decidesWhichImagesToTile() {
+        assertThat(service.shouldTile(6000, 1000)).isTrue();
+        assertThat(service.shouldTile(4000, 3000)).isFalse();
+        assertThat(service.shouldTile(6500, 5000)).isTrue();
+        assertThat(service.shouldTile(2000, 500)).isFalse();
+    }
+
+    @Test
+    void splitsPanoramaIntoOverlappingTilesCoveringTheImage() {
+        List<Rectangle> tiles = service.computeTiles(6000, 1000);
+
+        assertThat(tiles).hasSize(4);
+        assertThat(tiles.get(0).x).isZero();
+        assertThat(tiles.get(tiles.size() - 1).getMaxX()).isEqualTo(6000);
+        for (int i = 0; i < tiles.size(); i++) {
+            Rectangle tile = tiles.get(i);
+            assertThat(tile.width).isLessThanOrEqualTo(config.getTileEdge());
+            assertThat(tile.y).isZero();
+            assertThat(tile.height).isEqualTo(1000);
+            if (i > 0) {
+                int overlap = (int) (tiles.get(i - 1).getMaxX() - tile.x);
+                assertThat(overlap).isGreaterThanOrEqualTo((int) (config.getTileEdge() * config.getOverlap()));
+            }
+        }
+        // 이웃하지 않는 타일은 겹치지 않는다
+        assertThat(tiles.get(0).intersects(tiles.get(2))).isFalse();
+    }
+
+    @Test
+    void buildsGridForLargeImages() {
+        List<Rectangle> tiles = service.computeTiles(4000, 3500);
+
+        assertThat(tiles).hasSize(6);
+        assertThat(tiles).allSatisfy(tile -> {
+            assertThat(tile.getMaxX()).isLessThanOrEqualTo(4000);
+            assertThat(tile.getMaxY()).isLessThanOrEqualTo(3500);
+        });
+        assertThat(tiles.stream().mapToDouble(Rectangle::getMaxY).max().orElseThrow()).isEqualTo(3500);
+    }
+
+    @Test
+    void growsTilesToStayWithinMaxTiles() {
+        List<Rectangle> tiles = service.computeTiles(30000, 1500);
+
+        assertThat(tiles).hasSizeLessThanOrEqualTo(config.getMaxTiles());
+        assertThat(tiles.get(tiles.size() - 1).getMaxX()).isEqualTo(30000);
+    }
+
+    @Test
+    void mergesDuplicateFromOverlappingTilesKeepingHighestConfidence() {
+        List<Rectangle> tiles = service.computeTiles(6000, 1000);
+
+        List<ProductInfo> merged = ImageTilingService.mergeTileResults(tiles, List.of(
+                List.of(product("코카콜라 500ml", 0.7)),
+                List.of(product("코카 콜라500ML", 0.95), product("새우깡", 0.9)),
+                List.of(),
+                List.of()));
+
+        assertThat(merged).extracting(ProductInfo::confidenceScore).containsExactly(0.95, 0.9);
+    }
+
+    @Test
+    void keepsSameProductFromNonOverlappingTiles() {
+        List<Rectangle> tiles = service.computeTiles(6000, 1000);
+
+        List<ProductInfo> merged = ImageTilingService.mergeTileResults(tiles, List.of(
+                List.of(product("코카콜라 500ml", 0.9)),
+                List.of(),
+                List.of(product("코카콜라 500ml", 0.9)),
+                List.of()));
+
+        assertThat(merged).hasSize(2);
+    }
+
+    @Test
+    void keepsRepeatedFacingsWithinOneTileAndMergesEachOnce() {
+        List<Rectangle> tiles = service.computeTiles(6000, 1000);
+
+        // 타일 0 에 두 페이싱, 그중 하나가 겹침 영역이라 타일 1 에서 한 번 더 읽혔다
+        List<ProductInfo> merged = ImageTilingService.mergeTileResults(tiles, List.of(
+                List.of(product("새우깡", 0.9), product("새우깡", 0.9)),
+                List.of(product("새우깡", 0.9)),
+                List.of(),
+                List.of()));
+
+        assertThat(merged).hasSize(2);
+    }
+
+    @Test
+    void differentPriceIsDifferentProduct() {
+        List<Rectangle> tiles = service.computeTiles(6000, 1000);
+
+        List<ProductInfo> merged = ImageTilingService.mergeTileResults(tiles, List.of(
+                List.of(new ProductInfo("새우깡", 1200.0, 0.9)),
+                List.of(new ProductInfo("새우깡", 1500.0, 0.9)),
+                List.of(),
+                List.of()));
+
+        assertThat(merged).hasSize(2);
+    }
+
+    private static ProductInfo product(String name, double confidence) {
+        return new ProductInfo(name, 1500.0, confidence);
+    }
+}
@@ -0,0 +1,79 @@
+package com.productprice.service;
+
+import com.productprice.config.ExtractionEngineConfig;
+import com.productprice.dto.ProductInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * tesseract 대신 같은 인자를 받는 셸 스크립트를 실행해 출력 처리와 시간 제한을 확인한다.
+ */
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class LocalOcrEngineTest {
+
+    private static final String VERSION_CHECK = """
+            #!/bin/sh
+            if [ "$1" = "--version" ]; then echo "tesseract 5.3.0"; exit 0; fi
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesTsvOutput() throws IOException {
+        String row = "5\t1\t1\t1\t1\t%d\t0\t0\t10\t10\t90\t%s";
+        LocalOcrEngine engine = engineFor(VERSION_CHECK
+                + "printf 'level\\tpage_num\\tblock_num\\tpar_num\\tline_num\\tword_num\\tleft\\ttop\\twidth\\theight\\tconf\\ttext\\n'\n"
+                + "printf '" + String.format(row, 1, "코카콜라") + "\\n'\n"
+                + "printf '" + String.format(row, 2, "1,500원") + "\\n'\n", 5);
+
+        List<ProductInfo> products = engine.extract(new byte[] {1}, null);
+
+        assertThat(products).hasSize(1);
+        assertThat(products.get(0).productName()).isEqualTo("코카콜라");
+        assertThat(products.get(0).price()).isEqualTo(1500.0);
+        assertThat(products.get(0).confidenceScore()).isEqualTo(0.9);
+    }
+
+    @Test
+    void killsHungProcessAfterTimeout() throws IOException {
+        LocalOcrEngine engine = engineFor(VERSION_CHECK + "exec sleep 30\n", 1);
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> engine.extract(new byte[] {1}, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("timed out");
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(10_000);
+    }
+
+    @Test
+    void reportsNonZeroExit() throws IOException {
+        LocalOcrEngine engine = engineFor(VERSION_CHECK + "exit 3\n", 5);
+
+        assertThatThrownBy(() -> engine.extract(new byte[] {1}, null))
+                .hasMessageContaining("exited with 3");
+    }
+
+    private LocalOcrEngine engineFor(String script, long timeoutSeconds) throws IOException {
+        Path tesseract = tempDir.resolve("tesseract");
+        Files.writeString(tesseract, script, StandardCharsets.UTF_8);
+        assertThat(tesseract.toFile().setExecutable(true)).isTrue();
+
+        ExtractionEngineConfig config = new ExtractionEngineConfig();
+        config.setTesseractPath(tesseract.toString());
+        config.setTesseractTimeoutSeconds(timeoutSeconds);
+        return new LocalOcrEngine(config);
+    }
+}
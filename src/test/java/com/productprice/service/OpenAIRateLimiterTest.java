@@ -0,0 +1,112 @@
+package com.productprice.service;
+
+import com.productprice.config.OpenAIConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAIRateLimiterTest {
+
+    private OpenAIConfig config;
+    private OpenAIRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new OpenAIConfig();
+        config.setTokensPerMinute(1_000_000);
+        config.setEstimatedTokensPerRequest(1);
+        config.setRateLimitMaxWaitMs(5_000);
+    }
+
+    @Test
+    void servesKeysRoundRobin() throws InterruptedException {
+        // 100ms 마다 1건씩 충전
+        config.setRequestsPerMinute(600);
+        startDrained();
+
+        List<String> served = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> callers = new ArrayList<>();
+        for (String caller : List.of("a:1", "a:2", "a:3", "b:1")) {
+            Thread thread = new Thread(() -> {
+                try {
+                    limiter.acquire(caller.substring(0, 1));
+                    served.add(caller);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            callers.add(thread);
+            awaitQueued(callers.size());
+        }
+        for (Thread caller : callers) {
+            caller.join(5_000);
+        }
+
+        assertThat(served).containsExactly("a:1", "b:1", "a:2", "a:3");
+        assertThat(limiter.getStats().queuedCallers()).isZero();
+    }
+
+    @Test
+    void timesOutAndLeavesTheQueue() {
+        config.setRequestsPerMinute(1);
+        config.setRateLimitMaxWaitMs(100);
+        startDrained();
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> limiter.acquire("a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Timed out");
+
+        assertThat(System.currentTimeMillis() - start).isBetween(100L, 2_000L);
+        assertThat(limiter.getStats().queuedCallers()).isZero();
+    }
+
+    @Test
+    void releasedPermitIsAvailableAgain() throws InterruptedException {
+        // 10초에 1건씩 충전되므로 대기 없이 받으려면 돌려받은 예산이어야 한다
+        config.setRequestsPerMinute(6);
+        config.setRateLimitMaxWaitMs(200);
+        limiter = new OpenAIRateLimiter(config);
+        limiter.initBuckets();
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire("a");
+        }
+
+        OpenAIRateLimiter.Permit permit = new OpenAIRateLimiter.Permit(1, 0);
+        limiter.release(permit);
+
+        assertThat(limiter.acquire("b").waitMs()).isLessThan(200);
+        assertThatThrownBy(() -> limiter.acquire("c")).hasMessageContaining("Timed out");
+    }
+
+    @Test
+    void parsesResetDurations() {
+        assertThat(OpenAIRateLimiter.parseDurationMs("20ms")).isEqualTo(20L);
+        assertThat(OpenAIRateLimiter.parseDurationMs("1.5s")).isEqualTo(1_500L);
+        assertThat(OpenAIRateLimiter.parseDurationMs("6m0s")).isEqualTo(360_000L);
+        assertThat(OpenAIRateLimiter.parseDurationMs("soon")).isNull();
+    }
+
+    private void startDrained() {
+        limiter = new OpenAIRateLimiter(config);
+        limiter.initBuckets();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-remaining-requests", "0");
+        limiter.updateFromHeaders(headers);
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (limiter.getStats().queuedCallers() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
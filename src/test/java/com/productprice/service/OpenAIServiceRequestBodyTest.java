@@ -0,0 +1,115 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.OpenAIConfig;
+import com.productprice.util.PromptUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OpenAIServiceRequestBodyTest {
+
+    private static final String DATA_URL_PREFIX = "data:image/jpeg;base64,";
+    private static final int LARGE_IMAGE_SIZE = 8 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OpenAIConfig config;
+    private OpenAIService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new OpenAIConfig();
+        service = new OpenAIService(config, objectMapper, null, null, null, null, null);
+    }
+
+    @Test
+    void writesImageAsBase64DataUrl() throws IOException {
+        byte[] image = randomBytes(100_001);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeRequestBody(out, image, "image/jpeg", false);
+
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertThat(body.path("model").asText()).isEqualTo(config.getModel());
+        assertThat(body.at("/messages/0/content/0/text").asText())
+                .isEqualTo(PromptUtil.PRODUCT_PRICE_EXTRACTION_PROMPT);
+        assertThat(body.at("/response_format/type").asText()).isEqualTo("json_object");
+        assertThat(body.has("stream")).isFalse();
+
+        String url = body.at("/messages/0/content/1/image_url/url").asText();
+        assertThat(url).startsWith(DATA_URL_PREFIX);
+        assertThat(Base64.getDecoder().decode(url.substring(DATA_URL_PREFIX.length()))).isEqualTo(image);
+    }
+
+    @Test
+    void streamingRequestAsksForUsage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeRequestBody(out, randomBytes(1_000), "image/jpeg", true);
+
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertThat(body.path("stream").asBoolean()).isTrue();
+        assertThat(body.at("/stream_options/include_usage").asBoolean()).isTrue();
+    }
+
+    /**
+     * 8 MB 이미지 한 장을 보낼 때 요청 본문을 만드는 데 할당되는 바이트를 이전 방식(Base64 String + String.format)과 비교한다.
+     */
+    @Test
+    void streamedBodyAllocatesFarLessThanTheImage() throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        byte[] image = randomBytes(LARGE_IMAGE_SIZE);
+        OutputStream socket = OutputStream.nullOutputStream();
+        for (int i = 0; i < 3; i++) {
+            service.writeRequestBody(socket, image, "image/jpeg", false);
+            socket.write(formattedBody(image).getBytes(StandardCharsets.UTF_8));
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        service.writeRequestBody(socket, image, "image/jpeg", false);
+        long streamed = threads.getCurrentThreadAllocatedBytes() - before;
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        socket.write(formattedBody(image).getBytes(StandardCharsets.UTF_8));
+        long formatted = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(formatted).isGreaterThan(4L * LARGE_IMAGE_SIZE);
+        assertThat(streamed)
+                .as("bytes allocated per request: streamed=%d, String.format=%d", streamed, formatted)
+                .isLessThan(LARGE_IMAGE_SIZE / 50);
+    }
+
+    /**
+     * 스트리밍 이전의 buildRequestBody 와 같은 방식. RestTemplate 이 String 본문을 다시 byte[] 로 바꾸는 것까지 포함한다.
+     */
+    private String formattedBody(byte[] image) {
+        String content = String.format(
+                "{\"role\":\"user\",\"content\":[{\"type\":\"text\",\"text\":\"%s\"},"
+                        + "{\"type\":\"image_url\",\"image_url\":{\"url\":\"data:image/jpeg;base64,%s\"}}]}",
+                PromptUtil.PRODUCT_PRICE_EXTRACTION_PROMPT.replace("\"", "\\\"").replace("\n", "\\n"),
+                Base64.getEncoder().encodeToString(image));
+        return String.format(
+                "{\"model\":\"%s\",\"messages\":[%s],\"temperature\":%f,\"response_format\":{\"type\":\"json_object\"}}",
+                config.getModel(), content, config.getTemperature());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,241 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.OpenAIConfig;
+import com.productprice.config.OpenAIHttpClientConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 지연과 오류를 주입하는 로컬 스텁 서버에 실제 HttpClient 5 풀을 붙여 재시도와 서킷 브레이커 동작을 확인한다.
+ */
+class OpenAIServiceRetryTest {
+
+    private static final String PRODUCTS = "{\"products\":[{\"product_name\":\"콜라 500ml\",\"price\":1500}]}";
+    private static final byte[] IMAGE = {1, 2, 3};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<StubResponse> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private OpenAIConfig config;
+    private OpenAIRateLimiter rateLimiter;
+
+    @FunctionalInterface
+    private interface StubResponse {
+        void write(HttpExchange exchange) throws Exception;
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            StubResponse response = script.poll();
+            try {
+                if (response == null) {
+                    respond(exchange, 500, "{}", "application/json");
+                } else {
+                    response.write(exchange);
+                }
+            } catch (Exception e) {
+                // 클라이언트가 읽기 시간 초과로 먼저 끊은 경우
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+
+        config = new OpenAIConfig();
+        config.setApiKey("test-key");
+        config.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/v1");
+        config.setReadTimeoutMs(300);
+        config.setRetryBaseDelayMs(10);
+        config.setMaxRetries(2);
+        config.setRateLimitEnabled(false);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.stop(0);
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void retriesServerErrorHonoringRetryAfter() {
+        script.add(exchange -> {
+            exchange.getResponseHeaders().add("retry-after-ms", "200");
+            respond(exchange, 503, "{}", "application/json");
+        });
+        script.add(exchange -> respond(exchange, 200, completion(PRODUCTS), "application/json"));
+        OpenAIService service = newService();
+
+        long start = System.currentTimeMillis();
+        List<ProductInfo> products = service.extractProductsFromImage(IMAGE);
+
+        assertThat(products).extracting(ProductInfo::productName).containsExactly("콜라 500ml");
+        assertThat(requestCount).hasValue(2);
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(200);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void retriesReadTimeout() {
+        script.add(exchange -> {
+            Thread.sleep(1_000);
+            respond(exchange, 200, completion(PRODUCTS), "application/json");
+        });
+        script.add(exchange -> respond(exchange, 200, completion(PRODUCTS), "application/json"));
+        OpenAIService service = newService();
+
+        List<ProductInfo> products = service.extractProductsFromImage(IMAGE);
+
+        assertThat(products).hasSize(1);
+        assertThat(requestCount).hasValue(2);
+    }
+
+    @Test
+    void doesNotRetryClientError() {
+        script.add(exchange -> respond(exchange, 400, "{\"error\":{}}", "application/json"));
+        OpenAIService service = newService();
+
+        assertThatThrownBy(() -> service.extractProductsFromImage(IMAGE)).hasMessageContaining("400");
+        assertThat(requestCount).hasValue(1);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        config.setCircuitFailureThreshold(2);
+        config.setMaxRetries(1);
+        OpenAIService service = newService();
+
+        assertThatThrownBy(() -> service.extractProductsFromImage(IMAGE)).hasMessageContaining("500");
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> service.extractProductsFromImage(IMAGE)).hasMessageContaining("circuit breaker");
+        assertThat(requestCount).hasValue(2);
+    }
+
+    @Test
+    void probeThatFailsUnexpectedlyReopensCircuit() throws InterruptedException {
+        OpenAIService service = openCircuit();
+        script.add(exchange -> respond(exchange, 200, sse(PRODUCTS), "text/event-stream"));
+
+        assertThatThrownBy(() -> service.extractStreaming(IMAGE, null, product -> {
+            throw new IllegalStateException("consumer failed");
+        })).hasMessageContaining("consumer failed");
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(config.getCircuitOpenMs() + 20);
+        script.add(exchange -> respond(exchange, 200, completion(PRODUCTS), "application/json"));
+        assertThat(service.extractProductsFromImage(IMAGE)).hasSize(1);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void probeThatNeverReachesTheServerIsReleased() throws InterruptedException {
+        config.setRateLimitEnabled(true);
+        config.setRequestsPerMinute(1);
+        config.setRateLimitMaxWaitMs(50);
+        // 첫 요청이 분당 한도 1건을 다 쓰고 서킷을 연다
+        OpenAIService service = openCircuit();
+
+        // 한도 대기는 시험 요청 자리를 잡기 전에 끝나므로 서킷은 그대로 다음 시험 요청을 기다린다
+        assertThatThrownBy(() -> service.extractProductsFromImage(IMAGE))
+                .hasMessageContaining("rate limit budget");
+        assertThat(requestCount).hasValue(1);
+
+        config.setRateLimitEnabled(false);
+        script.add(exchange -> respond(exchange, 200, completion(PRODUCTS), "application/json"));
+        assertThat(service.extractProductsFromImage(IMAGE)).hasSize(1);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private OpenAIService openCircuit() throws InterruptedException {
+        config.setCircuitFailureThreshold(1);
+        config.setCircuitOpenMs(100);
+        config.setMaxRetries(0);
+        OpenAIService service = newService();
+        script.add(exchange -> respond(exchange, 500, "{}", "application/json"));
+        assertThatThrownBy(() -> service.extractProductsFromImage(IMAGE)).hasMessageContaining("500");
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Thread.sleep(config.getCircuitOpenMs() + 20);
+        return service;
+    }
+
+    private OpenAIService newService() {
+        OpenAIHttpClientConfig clientConfig = new OpenAIHttpClientConfig();
+        httpClient = clientConfig.openAIHttpClient(config);
+
+        ExtractionCacheService cache = mock(ExtractionCacheService.class);
+        when(cache.keyFor(any(), any())).thenReturn(new ExtractionCacheService.CacheKey("hash", "model", "v1", "key"));
+        when(cache.get(any())).thenReturn(Optional.empty());
+        ImagePreprocessService preprocess = mock(ImagePreprocessService.class);
+        when(preprocess.prepare(any(), any()))
+                .thenReturn(new ImagePreprocessService.PreparedImage(IMAGE, "image/jpeg", IMAGE.length));
+
+        rateLimiter = new OpenAIRateLimiter(config);
+        rateLimiter.initBuckets();
+
+        OpenAIService service = new OpenAIService(config, objectMapper, cache, preprocess,
+                clientConfig.openAIRestTemplate(httpClient), rateLimiter,
+                new ExtractionMetrics(new SimpleMeterRegistry()));
+        service.initCircuitBreaker();
+        return service;
+    }
+
+    private String completion(String content) throws IOException {
+        return objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .<com.fasterxml.jackson.databind.node.ObjectNode>set("choices", objectMapper.createArrayNode()
+                        .add(objectMapper.createObjectNode()
+                                .set("message", objectMapper.createObjectNode().put("content", content))))
+                .set("usage", objectMapper.createObjectNode().put("total_tokens", 100)));
+    }
+
+    private String sse(String content) throws IOException {
+        String chunk = objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .set("choices", objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                        .set("delta", objectMapper.createObjectNode().put("content", content)))));
+        return "data: " + chunk + "\n\ndata: [DONE]\n\n";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, String contentType)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.productprice.service;
+
+import com.productprice.config.PriceHistoryConfig;
+import com.productprice.dto.PriceHistoryResponse;
+import com.productprice.model.ProductPrice;
+import com.productprice.model.Store;
+import com.productprice.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실제 PostgreSQL 에서 recordTrusted → getSeries 를 확인한다: 여러 번 나눠 기록한 관측값의 롤업 병합
+ * (LEAST/GREATEST/합계), 월요일 시작 주 단위 구간, 조회 기간에 따른 일/주 자동 선택.
+ * 조회 지연(목표 100 ms 미만) 측정은 mvn test -Pbenchmark 로 실행한다.
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PriceHistoryServiceIntegrationTest {
+
+    private static final String COLA = "코카콜라 500ml";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private PriceHistoryService service;
+    private Store mart;
+    private Store market;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS price_observation, price_rollup_daily, price_rollup_weekly CASCADE");
+
+        mart = store(1L, "본점");
+        market = store(2L, "시장점");
+        StoreService storeService = mock(StoreService.class);
+        when(storeService.getAllStores()).thenReturn(List.of(mart, market));
+
+        service = new PriceHistoryService(new PriceHistoryRepository(jdbcTemplate), new PriceHistoryConfig(),
+                storeService, new DataSourceTransactionManager(dataSource));
+        service.initSchema();
+    }
+
+    @Test
+    void mergesRollupsAcrossRecordCalls() {
+        LocalDateTime day = LocalDateTime.of(2024, 3, 5, 9, 0);
+        service.recordTrusted(List.of(product(COLA, "1000", "APPROVED", mart, day),
+                product(COLA, "1200", "AUTO_APPROVED", mart, day.plusHours(2)),
+                product(COLA, "500", "PENDING_REVIEW", mart, day.plusHours(3))));
+        service.recordTrusted(List.of(product("코카 콜라500ML", "900", "APPROVED", mart, day.plusHours(5))));
+
+        PriceHistoryResponse response = service.getSeries(COLA, null,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null);
+
+        assertThat(response.getGranularity()).isEqualTo(PriceHistoryRepository.GRANULARITY_DAILY);
+        assertThat(response.getSeries()).hasSize(1);
+        PriceHistoryResponse.StoreSeries series = response.getSeries().get(0);
+        assertThat(series.storeName()).isEqualTo("본점");
+        // 검수 대기 가격(500)은 빠지고, 표기가 다른 이름도 같은 제품 키로 합쳐진다
+        assertThat(series.points()).singleElement().satisfies(point -> {
+            assertThat(point.date()).isEqualTo(LocalDate.of(2024, 3, 5));
+            assertThat(point.minPrice()).isEqualByComparingTo("900");
+            assertThat(point.maxPrice()).isEqualByComparingTo("1200");
+            assertThat(point.avgPrice()).isEqualByComparingTo("1033.33");
+            assertThat(point.count()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void bucketsWeeksFromMonday() {
+        service.recordTrusted(List.of(
+                product(COLA, "1000", "APPROVED", mart, LocalDateTime.of(2024, 3, 4, 10, 0)),   // 월
+                product(COLA, "1400", "APPROVED", mart, LocalDateTime.of(2024, 3, 10, 22, 0)),  // 일
+                product(COLA, "1100", "APPROVED", mart, LocalDateTime.of(2024, 3, 11, 8, 0)),   // 다음 주 월
+                product(COLA, "1300", "APPROVED", market, LocalDateTime.of(2024, 3, 6, 12, 0))));
+
+        PriceHistoryResponse response = service.getSeries(COLA, null,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), PriceHistoryRepository.GRANULARITY_WEEKLY);
+
+        assertThat(response.getSeries()).extracting(PriceHistoryResponse.StoreSeries::storeId).containsExactly(1L, 2L);
+        List<PriceHistoryResponse.PricePoint> martPoints = response.getSeries().get(0).points();
+        assertThat(martPoints).extracting(PriceHistoryResponse.PricePoint::date)
+                .containsExactly(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11));
+        assertThat(martPoints.get(0).count()).isEqualTo(2);
+        assertThat(martPoints.get(0).minPrice()).isEqualByComparingTo("1000");
+        assertThat(martPoints.get(0).maxPrice()).isEqualByComparingTo("1400");
+        assertThat(response.getSeries().get(1).points()).extracting(PriceHistoryResponse.PricePoint::date)
+                .containsExactly(LocalDate.of(2024, 3, 4));
+    }
+
+    @Test
+    void choosesGranularityByRangeLength() {
+        service.recordTrusted(List.of(product(COLA, "1000", "APPROVED", mart, LocalDateTime.of(2024, 3, 6, 10, 0))));
+        LocalDate end = LocalDate.of(2024, 3, 31);
+
+        PriceHistoryResponse shortRange = service.getSeries(COLA, null, end.minusDays(92), end, null);
+        PriceHistoryResponse longRange = service.getSeries(COLA, null, end.minusDays(93), end, null);
+
+        assertThat(shortRange.getGranularity()).isEqualTo(PriceHistoryRepository.GRANULARITY_DAILY);
+        assertThat(shortRange.getSeries().get(0).points()).extracting(PriceHistoryResponse.PricePoint::date)
+                .containsExactly(LocalDate.of(2024, 3, 6));
+        assertThat(longRange.getGranularity()).isEqualTo(PriceHistoryRepository.GRANULARITY_WEEKLY);
+        assertThat(longRange.getSeries().get(0).points()).extracting(PriceHistoryResponse.PricePoint::date)
+                .containsExactly(LocalDate.of(2024, 3, 4));
+        // 지정한 granularity 가 기간 길이보다 우선한다
+        assertThat(service.getSeries(COLA, null, end.minusYears(1), end, "DAILY").getGranularity())
+                .isEqualTo(PriceHistoryRepository.GRANULARITY_DAILY);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void seriesLatencyAtScale() {
+        // 축소 규모: 제품 500개 x 거래처 3곳 x 1년 일 단위 롤업 (약 55만 행) + 주 단위 롤업
+        int products = 500;
+        jdbcTemplate.update("INSERT INTO price_rollup_daily " +
+                "(product_key, bucket_date, store_id, min_price, max_price, sum_price, observation_count) " +
+                "SELECT 'product' || p, DATE '2024-01-01' + d, s, 1000, 1200, 3300, 3 " +
+                "FROM generate_series(1, ?) p, generate_series(0, 364) d, generate_series(1, 3) s", products);
+        jdbcTemplate.update("INSERT INTO price_rollup_weekly " +
+                "(product_key, bucket_date, store_id, min_price, max_price, sum_price, observation_count) " +
+                "SELECT 'product' || p, DATE '2024-01-01' + 7 * w, s, 1000, 1200, 23100, 21 " +
+                "FROM generate_series(1, ?) p, generate_series(0, 52) w, generate_series(1, 3) s", products);
+        jdbcTemplate.execute("ANALYZE price_rollup_daily");
+        jdbcTemplate.execute("ANALYZE price_rollup_weekly");
+
+        LocalDate end = LocalDate.of(2024, 12, 31);
+        double yearMs = medianMs(() -> service.getSeries("product250", null, end.minusYears(1), end, null));
+        double quarterMs = medianMs(() -> service.getSeries("product250", null, end.minusDays(90), end, null));
+
+        System.out.printf("price history %d products: 1 year (weekly) %.1f ms, 90 days (daily) %.1f ms%n",
+                products, yearMs, quarterMs);
+        assertThat(yearMs).isLessThan(100);
+        assertThat(quarterMs).isLessThan(100);
+    }
+
+    private static double medianMs(Runnable query) {
+        for (int i = 0; i < 10; i++) {
+            query.run();
+        }
+        double[] samples = new double[21];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static Store store(Long id, String name) {
+        Store store = new Store();
+        store.setId(id);
+        store.setStoreName(name);
+        return store;
+    }
+
+    private static ProductPrice product(String name, String price, String status, Store store, LocalDateTime extractedAt) {
+        ProductPrice product = new ProductPrice();
+        product.setProductName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStatus(status);
+        product.setStore(store);
+        product.setExtractedAt(extractedAt);
+        return product;
+    }
+}
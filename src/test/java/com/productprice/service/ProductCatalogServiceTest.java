@@ -0,0 +1,70 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductCatalogConfig;
+import com.productprice.model.CatalogProduct;
+import com.productprice.repository.CatalogAliasRepository;
+import com.productprice.repository.CatalogProductRepository;
+import com.productprice.util.ProductNameNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogServiceTest {
+
+    private CatalogProductRepository catalogRepository;
+    private ProductCatalogService service;
+
+    @BeforeEach
+    void setUp() {
+        catalogRepository = mock(CatalogProductRepository.class);
+        service = new ProductCatalogService(catalogRepository, mock(CatalogAliasRepository.class),
+                new ProductCatalogConfig());
+        service.loadIndex();
+    }
+
+    @Test
+    void createsUnknownNameOnceAndIndexesIt() {
+        String key = ProductNameNormalizer.normalize("코카콜라 500ml");
+        when(catalogRepository.insertIfAbsent("코카콜라 500ml", key)).thenReturn(List.of(7L));
+
+        assertThat(service.resolve("코카콜라 500ml")).isEqualTo(7L);
+        assertThat(service.resolve("코카 콜라500ML")).isEqualTo(7L);
+
+        verify(catalogRepository, times(1)).insertIfAbsent(any(), any());
+        assertThat(service.match("코카콜라 500ml")).get()
+                .extracting(ProductCatalogService.CatalogMatch::canonicalName).isEqualTo("코카콜라 500ml");
+    }
+
+    @Test
+    void usesExistingRowWhenAnotherWriterCreatedItFirst() {
+        String key = ProductNameNormalizer.normalize("칠성사이다");
+        when(catalogRepository.insertIfAbsent("칠성사이다", key)).thenReturn(List.of());
+        when(catalogRepository.findByNormalizedName(key))
+                .thenReturn(Optional.of(new CatalogProduct(3L, "칠성 사이다", key, null)));
+
+        assertThat(service.resolve("칠성사이다")).isEqualTo(3L);
+        assertThat(service.match("칠성사이다")).get()
+                .extracting(ProductCatalogService.CatalogMatch::canonicalName).isEqualTo("칠성 사이다");
+    }
+
+    @Test
+    void doesNotCreateWhenAutoCreateIsOff() {
+        ProductCatalogConfig config = new ProductCatalogConfig();
+        config.setAutoCreate(false);
+        service = new ProductCatalogService(catalogRepository, mock(CatalogAliasRepository.class), config);
+        service.loadIndex();
+
+        assertThat(service.resolve("새 제품")).isNull();
+        verify(catalogRepository, never()).insertIfAbsent(any(), any());
+    }
+}
@@ -0,0 +1,131 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ProductPriceExportConfig;
+import com.productprice.repository.ProductPriceExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 PostgreSQL 에서 내보내기가 커서로 나눠 읽으며 청크 단위로 흘려보내는지 확인한다.
+ * 행 수를 네 배로 늘려도 flush 시점마다 잰 힙 사용량이 거의 늘지 않아야 한다 (전체를 버퍼링하면 수십 MB 가 늘어난다).
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPriceExportIntegrationTest {
+
+    private static final int SMALL = 50_000;
+    private static final int LARGE = 200_000;
+    private static final long MAX_HEAP_GROWTH = 16L * 1024 * 1024;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductPriceExportConfig config;
+    private ProductPriceExportService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product_price, store");
+        jdbcTemplate.execute("CREATE TABLE store (id BIGINT PRIMARY KEY, store_name VARCHAR(200))");
+        jdbcTemplate.execute("CREATE TABLE product_price (" +
+                "id BIGINT NOT NULL, product_name VARCHAR(200) NOT NULL, price DECIMAL(10,2) NOT NULL, " +
+                "image_path VARCHAR(500), extracted_at TIMESTAMP NOT NULL, metadata JSONB, " +
+                "confidence_score DOUBLE PRECISION, status VARCHAR(50), store_id BIGINT, " +
+                "PRIMARY KEY (id, extracted_at))");
+        jdbcTemplate.update("INSERT INTO store (id, store_name) VALUES (1, '본점')");
+        jdbcTemplate.update("INSERT INTO product_price (id, product_name, price, image_path, extracted_at, metadata, " +
+                "confidence_score, status, store_id) " +
+                "SELECT g, '제품 ' || g, 1000 + g % 5000, 'uploads/' || g || '.jpg', " +
+                "TIMESTAMP '2024-01-01' + g * INTERVAL '1 second', '{\"location\":\"A-1\"}', 0.9, 'APPROVED', 1 " +
+                "FROM generate_series(1, ?) g", LARGE);
+        jdbcTemplate.execute("ANALYZE product_price");
+
+        config = new ProductPriceExportConfig();
+        service = new ProductPriceExportService(new ProductPriceExportRepository(jdbcTemplate), config,
+                new ObjectMapper(), new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void streamsInChunksWithFlatMemory() throws IOException {
+        HeapSamplingOutputStream small = export(SMALL);
+        HeapSamplingOutputStream large = export(LARGE);
+
+        assertThat(small.newlines).isEqualTo(SMALL + 1);
+        assertThat(large.newlines).isEqualTo(LARGE + 1);
+        // flush-rows 마다 청크가 나간다
+        assertThat(large.flushes).isGreaterThanOrEqualTo(LARGE / config.getFlushRows());
+        assertThat(large.peakUsedHeap - small.peakUsedHeap).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    @Test
+    void exportThroughput() throws IOException {
+        long start = System.nanoTime();
+        long rows = service.export(null, null, null, null, ProductPriceExportService.FORMAT_NDJSON, true,
+                OutputStream.nullOutputStream());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(rows).isEqualTo(LARGE);
+        System.out.printf("export ndjson+gzip: %d rows in %.2f s (%.0f rows/s)%n", rows, seconds, rows / seconds);
+    }
+
+    private HeapSamplingOutputStream export(int rows) throws IOException {
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+        // 행 g 의 extracted_at 은 기준 시각 + g 초이므로 종료 시각으로 앞의 rows 건만 고른다
+        long written = service.export(null, BASE.plusSeconds(rows), null, null,
+                ProductPriceExportService.FORMAT_CSV, false, out);
+        assertThat(written).isEqualTo(rows);
+        return out;
+    }
+
+    /**
+     * 본문은 버리고 줄 수만 센다. flush 때마다 GC 후 힙 사용량을 재서 최댓값을 남긴다.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        long newlines;
+        int flushes;
+        long peakUsedHeap;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                newlines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    newlines++;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            peakUsedHeap = Math.max(peakUsedHeap, runtime.totalMemory() - runtime.freeMemory());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.productprice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productprice.config.ProductPriceExportConfig;
+import com.productprice.repository.ProductPriceExportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 내보내기 응답이 전역 async 시간 제한이 아닌 자체 시간 제한을 쓰고, 실행기가 가득 차면 거절되는지 확인한다.
+ */
+class ProductPriceExportServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ProductPriceExportConfig config;
+    private ProductPriceExportService service;
+
+    @BeforeEach
+    void setUp() {
+        ProductPriceExportRepository repository = mock(ProductPriceExportRepository.class);
+        // 내보내기가 끝나지 않은 채 실행기를 붙잡고 있게 한다
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(repository).streamRows(any(), any(), any(), any(), anyInt(), any());
+
+        config = new ProductPriceExportConfig();
+        config.setTimeoutMs(0L);
+        config.setConcurrency(1);
+        config.setMaxQueueDepth(1);
+        service = new ProductPriceExportService(repository, config, new ObjectMapper(),
+                mock(PlatformTransactionManager.class));
+        service.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdownExecutor();
+    }
+
+    @Test
+    void emitterUsesExportTimeout() {
+        ResponseBodyEmitter emitter = service.stream(null, null, null, null, ProductPriceExportService.FORMAT_CSV, false);
+
+        assertThat(emitter.getTimeout()).isEqualTo(0L);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        service.stream(null, null, null, null, ProductPriceExportService.FORMAT_CSV, false);
+        service.stream(null, null, null, null, ProductPriceExportService.FORMAT_CSV, false);
+
+        assertThatThrownBy(() -> service.stream(null, null, null, null, ProductPriceExportService.FORMAT_CSV, false))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductPricePartitionConfig;
+import com.productprice.repository.ProductPricePartitionRepository;
+import com.productprice.repository.ProductPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 PostgreSQL 에서 월 파티션 라우팅, 기간 조건의 파티션 프루닝, 보관 처리 후 통계 카운터와
+ * 파티션 통계 기반 행 수 추정을 확인한다.
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPricePartitionIntegrationTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    Path archiveDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductPricePartitionRepository repository;
+    private ProductPricePartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product_price, product_price_2024_01, product_price_daily_stat");
+        jdbcTemplate.execute("CREATE TABLE product_price (" +
+                "id BIGINT NOT NULL, product_name VARCHAR(200) NOT NULL, price DECIMAL(10,2) NOT NULL, " +
+                "image_path VARCHAR(500), extracted_at TIMESTAMP NOT NULL, created_at TIMESTAMP, metadata JSONB, " +
+                "confidence_score DOUBLE PRECISION, status VARCHAR(50), store_id BIGINT, catalog_id BIGINT, " +
+                "PRIMARY KEY (id, extracted_at)) PARTITION BY RANGE (extracted_at)");
+        jdbcTemplate.execute("CREATE TABLE product_price_default PARTITION OF product_price DEFAULT");
+        jdbcTemplate.execute("CREATE TABLE product_price_daily_stat (store_id BIGINT NOT NULL, stat_date DATE NOT NULL, " +
+                "status VARCHAR(50) NOT NULL, product_count BIGINT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (store_id, stat_date, status))");
+
+        repository = new ProductPricePartitionRepository(jdbcTemplate);
+        repository.createMonthPartition(JANUARY);
+        repository.createMonthPartition(FEBRUARY);
+
+        ProductPricePartitionConfig config = new ProductPricePartitionConfig();
+        config.setArchiveDir(archiveDir.toString());
+        service = new ProductPricePartitionService(repository, config, new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void routesRowsByExtractedAtMonth() {
+        insert(1, "2024-01-31 23:59:59", "APPROVED");
+        insert(2, "2024-02-01 00:00:00", "APPROVED");
+        insert(3, "2023-12-15 10:00:00", "APPROVED");
+
+        assertThat(partitionOf(1)).isEqualTo("product_price_2024_01");
+        assertThat(partitionOf(2)).isEqualTo("product_price_2024_02");
+        assertThat(partitionOf(3)).isEqualTo("product_price_default");
+    }
+
+    @Test
+    void prunesPartitionsOutsideTheDateRange() {
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM product_price " +
+                "WHERE extracted_at >= '2024-02-01' AND extracted_at < '2024-03-01'", String.class));
+
+        assertThat(plan).contains("product_price_2024_02")
+                .doesNotContain("product_price_2024_01")
+                .doesNotContain("product_price_default");
+    }
+
+    @Test
+    void archiveRemovesPartitionAndItsDailyCounts() throws Exception {
+        insert(1, "2024-01-10 09:00:00", "APPROVED");
+        insert(2, "2024-01-10 10:00:00", "APPROVED");
+        insert(3, "2024-01-11 10:00:00", "PENDING_REVIEW");
+        insert(4, "2024-02-01 10:00:00", "APPROVED");
+        jdbcTemplate.update("INSERT INTO product_price_daily_stat (store_id, stat_date, status, product_count) " +
+                "SELECT COALESCE(store_id, 0), CAST(extracted_at AS DATE), status, COUNT(*) " +
+                "FROM product_price GROUP BY 1, 2, 3");
+
+        service.archive(JANUARY);
+
+        assertThat(archiveDir.resolve("product_price_2024_01.csv.gz")).exists();
+        assertThat(repository.findPartitions()).extracting(ProductPricePartitionRepository.PartitionInfo::name)
+                .containsExactly("product_price_2024_02", "product_price_default");
+        assertThat(jdbcTemplate.queryForList("SELECT stat_date FROM product_price_daily_stat", LocalDate.class))
+                .containsExactly(LocalDate.of(2024, 2, 1));
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(product_count) FROM product_price_daily_stat", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_price", Long.class));
+    }
+
+    @Test
+    void estimatesRowCountFromAnalyzedPartitions() {
+        for (int i = 1; i <= 30; i++) {
+            insert(i, i % 2 == 0 ? "2024-01-15 10:00:00" : "2024-02-15 10:00:00", "APPROVED");
+        }
+        // 분석 전에는 추정치가 없다
+        assertThat(jdbcTemplate.queryForObject(ProductPriceRepository.ESTIMATE_ROW_COUNT, Long.class))
+                .isLessThanOrEqualTo(0L);
+
+        // autovacuum 처럼 파티션만 분석한다. 부모의 reltuples 는 비어 있는 채로 남는다
+        jdbcTemplate.execute("ANALYZE product_price_2024_01");
+        jdbcTemplate.execute("ANALYZE product_price_2024_02");
+
+        assertThat(jdbcTemplate.queryForObject(ProductPriceRepository.ESTIMATE_ROW_COUNT, Long.class))
+                .isEqualTo(30L);
+    }
+
+    private void insert(long id, String extractedAt, String status) {
+        jdbcTemplate.update("INSERT INTO product_price (id, product_name, price, extracted_at, status) " +
+                "VALUES (?, ?, 1000, CAST(? AS TIMESTAMP), ?)", id, "product " + id, extractedAt, status);
+    }
+
+    private String partitionOf(long id) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT CAST(tableoid::regclass AS TEXT) FROM product_price WHERE id = ?", String.class, id);
+        return names.get(0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductPricePartitionConfig;
+import com.productprice.repository.ProductPricePartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 보관 처리의 행 수 확인과 분리 · 카운터 차감 · 삭제 순서를 JDBC 없이 확인한다.
+ * 실제 파티션 라우팅과 프루닝은 ProductPricePartitionIntegrationTest 에서 본다.
+ */
+class ProductPricePartitionServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+
+    @TempDir
+    Path archiveDir;
+
+    private ProductPricePartitionRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus transaction;
+    private ProductPricePartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductPricePartitionRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        transaction = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+
+        ProductPricePartitionConfig config = new ProductPricePartitionConfig();
+        config.setArchiveDir(archiveDir.toString());
+        service = new ProductPricePartitionService(repository, config, transactionManager);
+    }
+
+    @Test
+    void exportsThenDetachesSubtractsStatsAndDrops() throws Exception {
+        when(repository.countRows(MONTH)).thenReturn(2L);
+        streamRows(2);
+
+        service.archive(MONTH);
+
+        InOrder order = inOrder(repository, transactionManager);
+        order.verify(repository).detachPartition(MONTH);
+        order.verify(repository).countRows(MONTH);
+        order.verify(repository).subtractDailyStats(MONTH);
+        order.verify(repository).dropPartition(MONTH);
+        order.verify(transactionManager).commit(transaction);
+
+        assertThat(readArchive()).containsExactly(
+                ProductPricePartitionRepository.EXPORT_COLUMNS.replace(" ", ""),
+                "\"1\",\"콜라 \"\"500ml\"\"\"",
+                "\"1\",\"콜라 \"\"500ml\"\"\"");
+        assertThat(archiveDir.resolve("product_price_2024_01.csv.gz.tmp")).doesNotExist();
+    }
+
+    @Test
+    void keepsPartitionWhenExportIsShort() throws Exception {
+        when(repository.countRows(MONTH)).thenReturn(3L);
+        streamRows(2);
+
+        assertThatThrownBy(() -> service.archive(MONTH))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Exported 2 rows");
+
+        verify(repository, never()).detachPartition(any());
+        verify(repository, never()).dropPartition(any());
+        try (var files = Files.list(archiveDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void rollsBackWhenRowsArriveDuringExport() throws Exception {
+        // 내보내기 전에는 2건, 분리한 뒤에는 그 사이에 들어온 1건이 더 있다
+        when(repository.countRows(MONTH)).thenReturn(2L, 3L);
+        streamRows(2);
+
+        assertThatThrownBy(() -> service.archive(MONTH))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("3 rows after export of 2");
+
+        verify(repository).detachPartition(MONTH);
+        verify(repository, never()).subtractDailyStats(any());
+        verify(repository, never()).dropPartition(any());
+        verify(transactionManager).rollback(transaction);
+    }
+
+    private void streamRows(int count) throws SQLException {
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(2);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(meta);
+        when(rs.getString(1)).thenReturn("1");
+        when(rs.getString(2)).thenReturn("콜라 \"500ml\"");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(repository).streamRows(eq(MONTH), anyInt(), any());
+    }
+
+    private List<String> readArchive() throws IOException {
+        try (InputStream in = new GZIPInputStream(
+                Files.newInputStream(archiveDir.resolve("product_price_2024_01.csv.gz")))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
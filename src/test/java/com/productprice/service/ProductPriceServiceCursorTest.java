@@ -0,0 +1,123 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductListConfig;
+import com.productprice.config.ProductPriceWriteConfig;
+import com.productprice.dto.ProductPriceSummary;
+import com.productprice.repository.ProductPriceBulkRepository;
+import com.productprice.repository.ProductPriceRepository;
+import com.productprice.util.CursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 첫 페이지와 다음 페이지가 서로 다른 쿼리로 나가고, 페이지 경계에서 커서가 올바르게 만들어지는지 확인한다.
+ */
+class ProductPriceServiceCursorTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private ProductPriceRepository repository;
+    private ProductPriceService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductPriceRepository.class);
+        when(repository.estimateRowCount()).thenReturn(100L);
+        service = new ProductPriceService(repository, mock(ExtractionEngineService.class), mock(StoreService.class),
+                mock(ProductPriceBulkRepository.class), new ProductPriceWriteConfig(), mock(TransactionTemplate.class),
+                new ProductListConfig(), mock(ProductStatsService.class), mock(PriceHistoryService.class),
+                mock(ExtractionMetrics.class), mock(ProductCatalogService.class));
+    }
+
+    @Test
+    void firstPageUsesQueryWithoutCursor() {
+        when(repository.findFirstSummariesWithFilters(any(), any(), any(), any(), any())).thenReturn(rows(3, 100));
+
+        ProductPriceService.ProductSlice slice = service.getProductListByCursor("", 3, null, null, null, null);
+
+        verify(repository).findFirstSummariesWithFilters(null, null, null, null, PageRequest.of(0, 4));
+        verify(repository, never()).findSummariesWithFiltersAfter(any(), any(), any(), any(), any(), any(), any());
+        assertThat(slice.items()).hasSize(3);
+        assertThat(slice.nextCursor()).isNull();
+        assertThat(slice.approximateTotal()).isEqualTo(100);
+    }
+
+    @Test
+    void countsExactlyWhenStatisticsAreMissing() {
+        // 분석 전 파티션 테이블: PG14 이상은 -1, PG13 이하는 0
+        when(repository.estimateRowCount()).thenReturn(0L);
+        when(repository.count()).thenReturn(7L);
+        when(repository.findFirstSummariesWithFilters(any(), any(), any(), any(), any())).thenReturn(rows(3, 100));
+
+        assertThat(service.getProductListByCursor(null, 3, null, null, null, null).approximateTotal()).isEqualTo(7);
+    }
+
+    @Test
+    void extraRowProducesCursorOfLastReturnedItem() {
+        List<ProductPriceSummary> rows = rows(4, 100);
+        when(repository.findFirstSummariesWithFilters(any(), any(), any(), any(), any())).thenReturn(rows);
+
+        ProductPriceService.ProductSlice slice = service.getProductListByCursor(null, 3, null, null, null, null);
+
+        assertThat(slice.items()).extracting(ProductPriceSummary::id).containsExactly(100L, 99L, 98L);
+        CursorUtil.Cursor next = CursorUtil.decode(slice.nextCursor());
+        assertThat(next.id()).isEqualTo(98L);
+        assertThat(next.extractedAt()).isEqualTo(rows.get(2).extractedAt());
+    }
+
+    @Test
+    void nextPagePassesDecodedCursor() {
+        String cursor = CursorUtil.encode(BASE, 98L);
+        when(repository.findSummariesWithFiltersAfter(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(rows(2, 97));
+
+        ProductPriceService.ProductSlice slice = service.getProductListByCursor(cursor, 3, "콜라", 1L, null, null);
+
+        verify(repository).findSummariesWithFiltersAfter("콜라", 1L, null, null, BASE, 98L, PageRequest.of(0, 4));
+        verify(repository, never()).findFirstSummariesWithFilters(any(), any(), any(), any(), any());
+        assertThat(slice.nextCursor()).isNull();
+    }
+
+    @Test
+    void pendingReviewSplitsFirstAndNextPage() {
+        when(repository.findFirstSummariesByStatus(any(), any())).thenReturn(rows(3, 50));
+        when(repository.findSummariesByStatusAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        ProductPriceService.ProductSlice first = service.getPendingReviewProductsByCursor(null, 2);
+        ProductPriceService.ProductSlice second = service.getPendingReviewProductsByCursor(first.nextCursor(), 2);
+
+        verify(repository).findFirstSummariesByStatus("PENDING_REVIEW", PageRequest.of(0, 3));
+        // 경계 행(49)은 앞 행과 시각이 같으므로 다음 페이지는 같은 시각의 더 작은 id 부터 이어진다
+        verify(repository).findSummariesByStatusAfter(eq("PENDING_REVIEW"), eq(BASE), eq(49L),
+                eq(PageRequest.of(0, 3)));
+        assertThat(second.items()).isEmpty();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    /**
+     * id 가 firstId 부터 1씩 줄고 extractedAt 은 두 행마다 1분씩 줄어드는 (같은 시각이 섞인) 정렬된 행.
+     */
+    private static List<ProductPriceSummary> rows(int count, long firstId) {
+        List<ProductPriceSummary> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new ProductPriceSummary(firstId - i, "product " + i, BigDecimal.ONE, null,
+                    BASE.minusMinutes(i / 2), null, "PENDING_REVIEW", null, null, null));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,72 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductListConfig;
+import com.productprice.config.ProductPriceWriteConfig;
+import com.productprice.dto.ProductPriceSummary;
+import com.productprice.repository.ProductPriceBulkRepository;
+import com.productprice.repository.ProductPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * pg_trgm 제품명 검색이 유사도 순위를 유지하고, ID 조회 뒤 지워진 행을 null 로 내보내지 않는지 확인한다.
+ */
+class ProductPriceServiceSearchTest {
+
+    private ProductPriceRepository repository;
+    private ProductPriceService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductPriceRepository.class);
+        when(repository.isTrigramExtensionInstalled()).thenReturn(true);
+        service = new ProductPriceService(repository, mock(ExtractionEngineService.class), mock(StoreService.class),
+                mock(ProductPriceBulkRepository.class), new ProductPriceWriteConfig(), mock(TransactionTemplate.class),
+                new ProductListConfig(), mock(ProductStatsService.class), mock(PriceHistoryService.class),
+                mock(ExtractionMetrics.class), mock(ProductCatalogService.class));
+        service.detectTrigramSearch();
+    }
+
+    @Test
+    void keepsRankOrderAndSkipsDeletedRows() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(repository.searchIdsByProductName(eq("콜라"), any(), any(), any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(3L, 1L, 2L), pageable, 3));
+        // 2 는 두 조회 사이에 지워졌다. IN 조회는 순위와 다른 순서로 돌아온다
+        when(repository.findSummariesByIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(summary(1), summary(3)));
+
+        Page<ProductPriceSummary> page = service.getProductList(1, 20, " 콜라 ", null, null, null);
+
+        assertThat(page.getContent()).extracting(ProductPriceSummary::id).containsExactly(3L, 1L);
+        // 마지막 페이지이므로 PageImpl 이 전체 건수를 실제 행 수로 맞춘다
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void emptySearchSkipsSummaryQuery() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(repository.searchIdsByProductName(any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        assertThat(service.getProductList(1, 20, "없는제품", null, null, null).getContent()).isEmpty();
+    }
+
+    private static ProductPriceSummary summary(long id) {
+        return new ProductPriceSummary(id, "product " + id, BigDecimal.valueOf(1_000), null,
+                LocalDateTime.of(2024, 3, 1, 12, 0), 0.9, "APPROVED", null, null, null);
+    }
+}
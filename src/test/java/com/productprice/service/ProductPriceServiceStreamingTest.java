@@ -0,0 +1,115 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductListConfig;
+import com.productprice.config.ProductPriceWriteConfig;
+import com.productprice.dto.ProductInfo;
+import com.productprice.model.ProductPrice;
+import com.productprice.repository.ProductPriceBulkRepository;
+import com.productprice.repository.ProductPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 스트리밍 추출이 중간에 끊겼을 때 이미 읽은 제품을 저장하고 일부 결과로 알리는지 확인한다.
+ */
+class ProductPriceServiceStreamingTest {
+
+    private static final byte[] IMAGE = {1, 2, 3};
+
+    private ProductPriceRepository repository;
+    private ExtractionEngineService extractionEngineService;
+    private ProductPriceService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(ProductPriceRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+        extractionEngineService = mock(ExtractionEngineService.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+
+        service = new ProductPriceService(repository, extractionEngineService, mock(StoreService.class),
+                mock(ProductPriceBulkRepository.class), new ProductPriceWriteConfig(), transactionTemplate,
+                new ProductListConfig(), mock(ProductStatsService.class), mock(PriceHistoryService.class),
+                mock(ExtractionMetrics.class), mock(ProductCatalogService.class));
+    }
+
+    @Test
+    void savesEverythingOnSuccess() {
+        streamThenFail(3, null);
+        List<List<ProductPrice>> batches = new ArrayList<>();
+
+        List<ProductPrice> saved = service.extractAndSaveProductsStreaming(IMAGE, "a.jpg", null, null, null, 2,
+                product -> { }, batches::add);
+
+        assertThat(saved).hasSize(3);
+        assertThat(batches).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void savesReadProductsAndReportsPartialResultWhenStreamBreaks() {
+        RuntimeException broken = new RuntimeException("OpenAI extraction failed",
+                new UncheckedIOException(new IOException("connection reset")));
+        streamThenFail(3, broken);
+        List<List<ProductPrice>> batches = new ArrayList<>();
+
+        assertThatThrownBy(() -> service.extractAndSaveProductsStreaming(IMAGE, "a.jpg", null, null, null, 2,
+                product -> { }, batches::add))
+                .isInstanceOfSatisfying(ProductPriceService.PartialExtractionException.class, e -> {
+                    assertThat(e.getSavedProducts()).extracting(ProductPrice::getProductName)
+                            .containsExactly("product 0", "product 1", "product 2");
+                    assertThat(e.getCause()).isSameAs(broken);
+                });
+        // 끊기기 전 배치 하나와, 끊긴 뒤 남은 제품을 저장한 배치 하나
+        assertThat(batches).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void rethrowsWhenNothingWasRead() {
+        RuntimeException broken = new RuntimeException("OpenAI extraction failed");
+        streamThenFail(0, broken);
+
+        assertThatThrownBy(() -> service.extractAndSaveProductsStreaming(IMAGE, "a.jpg", null, null, null, 2,
+                product -> { }, batch -> { }))
+                .isSameAs(broken);
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamThenFail(int products, RuntimeException failure) {
+        doAnswer(invocation -> {
+            Consumer<ProductInfo> onProduct = invocation.getArgument(4);
+            List<ProductInfo> emitted = new ArrayList<>();
+            for (int i = 0; i < products; i++) {
+                ProductInfo info = new ProductInfo("product " + i, 1_000.0 + i, 0.9);
+                onProduct.accept(info);
+                emitted.add(info);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return emitted;
+        }).when(extractionEngineService).extractStreaming(eq(IMAGE), any(), any(), any(), any(Consumer.class));
+    }
+}
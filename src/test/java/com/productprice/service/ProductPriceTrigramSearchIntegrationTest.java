@@ -0,0 +1,97 @@
+package com.productprice.service;
+
+import com.productprice.config.ProductListConfig;
+import com.productprice.config.ProductPriceWriteConfig;
+import com.productprice.dto.ProductPriceSummary;
+import com.productprice.model.ProductPrice;
+import com.productprice.repository.ProductPriceBulkRepository;
+import com.productprice.repository.ProductPriceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 실제 PostgreSQL + pg_trgm 에서 제품명 검색이 부분 일치와 단어 유사도 후보를 모두 찾고,
+ * ID 조회의 유사도 순위를 표시 컬럼 조회 뒤에도 유지하는지 확인한다.
+ * Docker 가 없는 환경에서는 건너뛴다.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductPriceTrigramSearchIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductPriceRepository repository;
+
+    private ProductPriceService service;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManager().createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm").executeUpdate();
+        // 가장 유사도가 낮은 이름을 마지막(가장 큰 ID)에 넣어 ID 순서와 순위가 다르게 한다
+        for (String name : new String[] {"Cola", "Coca Cola 500ml", "Pepsi Cola", "Cola Gummy", "Cider", "Colla Zero"}) {
+            ProductPrice product = new ProductPrice();
+            product.setProductName(name);
+            product.setPrice(BigDecimal.valueOf(1_500));
+            product.setStatus("APPROVED");
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        service = new ProductPriceService(repository, mock(ExtractionEngineService.class), mock(StoreService.class),
+                mock(ProductPriceBulkRepository.class), new ProductPriceWriteConfig(), mock(TransactionTemplate.class),
+                new ProductListConfig(), mock(ProductStatsService.class), mock(PriceHistoryService.class),
+                mock(ExtractionMetrics.class), mock(ProductCatalogService.class));
+        service.detectTrigramSearch();
+    }
+
+    @Test
+    void ranksBySimilarityThenNewestFirst() {
+        Page<ProductPriceSummary> page = service.getProductList(1, 20, "cola", null, null, null);
+
+        // 'cola' 를 단어로 포함하면 word_similarity 1 이라 ID 내림차순, 오타("colla")는 유사도(<%)로만 찾혀 마지막
+        assertThat(page.getContent()).extracting(ProductPriceSummary::productName)
+                .containsExactly("Cola Gummy", "Pepsi Cola", "Coca Cola 500ml", "Cola", "Colla Zero");
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void pagesKeepRankOrder() {
+        Page<ProductPriceSummary> first = service.getProductList(1, 2, "cola", null, null, null);
+        Page<ProductPriceSummary> last = service.getProductList(3, 2, "cola", null, null, null);
+
+        assertThat(first.getContent()).extracting(ProductPriceSummary::productName)
+                .containsExactly("Cola Gummy", "Pepsi Cola");
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(last.getContent()).extracting(ProductPriceSummary::productName).containsExactly("Colla Zero");
+    }
+}
@@ -0,0 +1,63 @@
+package com.productprice.service;
+
+import com.productprice.model.Store;
+import com.productprice.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoreServiceTest {
+
+    private StoreRepository repository;
+    private StoreService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StoreRepository.class);
+        service = new StoreService(repository);
+    }
+
+    @Test
+    void servesDirectoryFromMemoryUntilInvalidated() {
+        when(repository.findAll()).thenReturn(List.of(store(1L, "이마트")), List.of(store(1L, "이마트"), store(2L, "홈플러스")));
+
+        String etag = service.getDirectory().etag();
+        assertThat(service.getAllStores()).hasSize(1);
+        verify(repository, times(1)).findAll();
+
+        service.deleteStore(3L);
+
+        assertThat(service.getAllStores()).hasSize(2);
+        assertThat(service.getDirectory().etag()).isNotEqualTo(etag);
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void discardsSnapshotLoadedWhileAWriteCommitted() {
+        // 첫 번째 읽기 도중 다른 요청의 쓰기가 커밋된다
+        when(repository.findAll())
+                .thenAnswer(invocation -> {
+                    service.deleteStore(2L);
+                    return List.of(store(1L, "이마트"), store(2L, "홈플러스"));
+                })
+                .thenReturn(List.of(store(1L, "이마트")));
+
+        assertThat(service.getAllStores()).extracting(Store::getId).containsExactly(1L);
+        assertThat(service.getAllStores()).extracting(Store::getId).containsExactly(1L);
+        verify(repository, times(2)).findAll();
+    }
+
+    private static Store store(Long id, String name) {
+        Store store = new Store();
+        store.setId(id);
+        store.setStoreName(name);
+        return store;
+    }
+}
@@ -0,0 +1,146 @@
+package com.productprice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_MS = 1_000;
+
+    private final AtomicLong now = new AtomicLong(10_000);
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(THRESHOLD, OPEN_MS, now::get);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            assertThat(breaker.allowRequest()).isTrue();
+            breaker.recordFailure();
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneProbeThroughAfterOpenPeriod() {
+        open();
+
+        now.addAndGet(OPEN_MS - 1);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        now.addAndGet(1);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void probeSuccessCloses() {
+        open();
+        now.addAndGet(OPEN_MS);
+        breaker.allowRequest();
+
+        breaker.recordSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void probeFailureReopensForAnotherPeriod() {
+        open();
+        now.addAndGet(OPEN_MS);
+        breaker.allowRequest();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        now.addAndGet(OPEN_MS - 1);
+        assertThat(breaker.allowRequest()).isFalse();
+        now.addAndGet(1);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void releasedProbeLetsTheNextRequestProbe() {
+        open();
+        now.addAndGet(OPEN_MS);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.releaseProbe();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void releaseFromAnotherThreadKeepsTheProbe() throws InterruptedException {
+        open();
+        now.addAndGet(OPEN_MS);
+        assertThat(breaker.allowRequest()).isTrue();
+
+        Thread other = new Thread(breaker::releaseProbe);
+        other.start();
+        other.join();
+
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void releaseAfterRecordedResultDoesNothing() throws InterruptedException {
+        open();
+        now.addAndGet(OPEN_MS);
+        breaker.allowRequest();
+        breaker.recordFailure();
+
+        breaker.releaseProbe();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        // 다른 스레드가 새 시험 요청을 들고 있으면 이전 시험 요청 스레드의 release 는 영향이 없다
+        now.addAndGet(OPEN_MS);
+        AtomicBoolean otherProbe = new AtomicBoolean();
+        Thread other = new Thread(() -> otherProbe.set(breaker.allowRequest()));
+        other.start();
+        other.join();
+        breaker.releaseProbe();
+
+        assertThat(otherProbe).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.recordFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,52 @@
+package com.productprice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilTest {
+
+    @Test
+    void roundTripsTimestampAndId() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123_456_000);
+
+        CursorUtil.Cursor cursor = CursorUtil.decode(CursorUtil.encode(at, 42L));
+
+        assertThat(cursor.extractedAt()).isEqualTo(at);
+        assertThat(cursor.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void keepsWholeSecondsAndMinutes() {
+        // LocalDateTime.toString 은 0초를 생략하므로 파싱이 그대로 되돌리는지 확인한다
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 12, 30);
+
+        assertThat(CursorUtil.decode(CursorUtil.encode(at, 1L)).extractedAt()).isEqualTo(at);
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String encoded = CursorUtil.encode(LocalDateTime.of(2024, 3, 1, 12, 30, 5), Long.MAX_VALUE);
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(CursorUtil.decode(null)).isNull();
+        assertThat(CursorUtil.decode("")).isNull();
+        assertThat(CursorUtil.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> CursorUtil.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        String missingId = java.util.Base64.getUrlEncoder().encodeToString("2024-03-01T12:30".getBytes());
+        assertThatThrownBy(() -> CursorUtil.decode(missingId))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.productprice.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 퍼지 색인이 전수 비교와 같은 결과를 내는지 확인하고, 10만 건에서 조회 지연을 잰다.
+ * 벤치마크는 기본 빌드에서 빠지며 mvn test -Pbenchmark 로 실행한다.
+ */
+class FuzzyNameIndexTest {
+
+    private static final String[] BRANDS = {
+            "코카", "펩시", "롯데", "해태", "오리온", "농심", "오뚜기", "빙그레", "매일", "남양",
+            "동원", "청정원", "풀무원", "삼양", "크라운", "광동", "웅진", "서울", "비락", "일화"};
+    private static final String[] ITEMS = {
+            "콜라", "사이다", "우유", "두유", "라면", "짜장", "참치", "햄", "김치", "만두",
+            "과자", "쿠키", "초코", "커피", "녹차", "생수", "주스", "요구르트", "식혜", "캔디",
+            "젤리", "아이스", "소시지", "카레", "국수"};
+    private static final String[] FLAVOURS = {
+            "오리지널", "제로", "라이트", "딸기", "바나나", "포도", "사과", "복숭아", "레몬",
+            "매운맛", "순한맛", "치즈", "양파", "새우", "불고기", "고소한", "달콤한"};
+    private static final String[] UNITS = {
+            "190ml", "250ml", "355ml", "500ml", "1l", "1.5l", "2l", "100g", "200g", "500g", "1kg", "5입"};
+    private static final String[] NEW_ITEMS = {"떡볶이", "호떡", "순대", "어묵", "붕어빵", "찐빵", "약과", "누룽지"};
+    private static final int MAX_DISTANCE = 2;
+
+    @Test
+    void exactAndOneTypoMatches() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.put("코카콜라500ml", 1);
+        index.put("펩시콜라500ml", 2);
+
+        assertThat(index.find("코카콜라500ml", MAX_DISTANCE)).contains(new FuzzyNameIndex.Match(1, 0));
+        // 모음 하나를 잘못 읽은 경우 (ㅏ → ㅣ)
+        assertThat(index.find("코카콜리500ml", MAX_DISTANCE)).contains(new FuzzyNameIndex.Match(1, 1));
+        assertThat(index.find("칠성사이다", MAX_DISTANCE)).isEmpty();
+    }
+
+    @Test
+    void agreesWithBruteForce() {
+        List<String> names = names(5_000);
+        FuzzyNameIndex index = build(names);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 300; i++) {
+            String query = i % 3 == 0 ? unmatched(random) : typo(names.get(random.nextInt(names.size())), random);
+            assertThat(index.find(query, MAX_DISTANCE)).as(query).isEqualTo(bruteForce(names, query));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void lookupLatencyAt100k() {
+        List<String> names = names(100_000);
+        FuzzyNameIndex index = build(names);
+        assertThat(index.size()).isEqualTo(names.size());
+        Random random = new Random(42);
+
+        List<String> exact = new ArrayList<>();
+        List<String> typos = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            exact.add(name);
+            typos.add(typo(name, random));
+            misses.add(unmatched(random));
+        }
+
+        // 정확성: 전수 비교와 300건이 모두 같아야 한다
+        for (int i = 0; i < 300; i++) {
+            String query = i % 2 == 0 ? typos.get(i) : misses.get(i);
+            assertThat(index.find(query, MAX_DISTANCE)).as(query).isEqualTo(bruteForce(names, query));
+        }
+
+        double exactUs = measure(index, exact);
+        double typoUs = measure(index, typos);
+        double missUs = measure(index, misses);
+        System.out.printf("FuzzyNameIndex %d names: exact %.1f us, one typo %.1f us, unmatched %.1f us%n",
+                names.size(), exactUs, typoUs, missUs);
+
+        // 전수 비교(수십 ms)와 구분되는 느슨한 상한
+        assertThat(typoUs).isLessThan(1_000);
+        assertThat(missUs).isLessThan(1_000);
+    }
+
+    private static double measure(FuzzyNameIndex index, List<String> queries) {
+        // JIT 워밍업
+        for (int round = 0; round < 5; round++) {
+            for (String query : queries) {
+                index.find(query, MAX_DISTANCE);
+            }
+        }
+        int rounds = 10;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String query : queries) {
+                index.find(query, MAX_DISTANCE);
+            }
+        }
+        return (System.nanoTime() - start) / 1_000.0 / rounds / queries.size();
+    }
+
+    /**
+     * 브랜드 20 x 품목 25 x 맛 17 x 단위 12 조합. 앞부분이 같은 이름이 많은 일부러 빽빽한 분포다.
+     */
+    private static List<String> names(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (String unit : UNITS) {
+            for (String flavour : FLAVOURS) {
+                for (String item : ITEMS) {
+                    for (String brand : BRANDS) {
+                        if (names.size() == count) {
+                            return names;
+                        }
+                        names.add(brand + item + flavour + unit);
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private static FuzzyNameIndex build(List<String> names) {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i), i + 1);
+        }
+        return index;
+    }
+
+    /**
+     * 한글 음절 하나의 중성을 바꾼다 (OCR 이 모음을 잘못 읽은 경우).
+     */
+    private static String typo(String name, Random random) {
+        char[] chars = name.toCharArray();
+        for (int attempt = 0; attempt < 20; attempt++) {
+            int i = random.nextInt(chars.length);
+            if (chars[i] >= 0xAC00 && chars[i] <= 0xD7A3) {
+                int syllable = chars[i] - 0xAC00;
+                int vowel = (syllable % 588) / 28;
+                int replaced = (vowel + 1 + random.nextInt(20)) % 21;
+                chars[i] = (char) (0xAC00 + syllable - vowel * 28 + replaced * 28);
+                return new String(chars);
+            }
+        }
+        return name + "x";
+    }
+
+    /**
+     * 색인에 없는 품목. 브랜드/맛/단위 gram 은 흔하게 겹쳐 후보 목록이 긴 경우다.
+     */
+    private static String unmatched(Random random) {
+        return BRANDS[random.nextInt(BRANDS.length)] + NEW_ITEMS[random.nextInt(NEW_ITEMS.length)]
+                + FLAVOURS[random.nextInt(FLAVOURS.length)] + UNITS[random.nextInt(UNITS.length)];
+    }
+
+    /**
+     * 색인과 같은 규칙의 전수 비교: 가장 가까운 거리, 같은 거리면 작은 ID.
+     */
+    private static Optional<FuzzyNameIndex.Match> bruteForce(List<String> names, String query) {
+        char[] target = FuzzyNameIndex.toJamo(query).toCharArray();
+        long bestId = -1;
+        int bestDistance = MAX_DISTANCE + 1;
+        for (int i = 0; i < names.size(); i++) {
+            char[] candidate = FuzzyNameIndex.toJamo(names.get(i)).toCharArray();
+            int distance = FuzzyNameIndex.boundedLevenshtein(target, candidate, MAX_DISTANCE);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestId = i + 1;
+            }
+        }
+        return bestId >= 0 ? Optional.of(new FuzzyNameIndex.Match(bestId, bestDistance)) : Optional.empty();
+    }
+}
@@ -0,0 +1,177 @@
+package com.productprice.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조각 목록으로 후보를 좁힌 검색이 전수 비교와 같은지 (반경 8 이상의 전체 비교 포함) 확인하고, removeIf 후 다시 만든 색인을 확인한다.
+ * 100만 건 조회 벤치마크는 기본 빌드에서 빠지며 mvn test -Pbenchmark 로 실행한다.
+ */
+class HammingIndexTest {
+
+    @Test
+    void searchIncludesRadiusBoundaryOnly() {
+        HammingIndex<String> index = new HammingIndex<>();
+        long base = 0L;
+        index.add(base, "base");
+        index.add(flip(base, 3), "three");
+        index.add(flip(base, 4), "four");
+
+        assertThat(index.search(base, 3)).extracting(HammingIndex.Match::value).containsExactlyInAnyOrder("base", "three");
+        assertThat(index.search(base, 3)).filteredOn(match -> match.value().equals("three"))
+                .extracting(HammingIndex.Match::distance).containsExactly(3);
+        assertThat(index.search(base, 0)).extracting(HammingIndex.Match::value).containsExactly("base");
+    }
+
+    @Test
+    void searchMatchesBruteForceAtEveryRadius() {
+        Random random = new Random(11);
+        List<Long> hashes = clustered(random, 5_000);
+        HammingIndex<Integer> index = build(hashes);
+
+        for (int q = 0; q < 200; q++) {
+            long query = flip(hashes.get(random.nextInt(hashes.size())), random.nextInt(8), random);
+            for (int radius = 0; radius <= 10; radius += 2) {
+                assertThat(sorted(index.search(query, radius))).as("radius %d", radius)
+                        .isEqualTo(bruteForce(hashes, query, radius));
+            }
+        }
+    }
+
+    @Test
+    void removeIfRebuildsWithRemainingValues() {
+        Random random = new Random(5);
+        List<Long> hashes = clustered(random, 1_999);
+        // 같은 해시에 값이 둘인 경우도 만든다
+        hashes.add(hashes.get(0));
+        HammingIndex<Integer> index = build(hashes);
+
+        // 첫 값을 포함해 짝수 번째 값을 지운다
+        int removed = index.removeIf(value -> value % 2 == 0);
+
+        assertThat(removed).isEqualTo(hashes.size() / 2);
+        assertThat(index.size()).isEqualTo(hashes.size() - removed);
+        List<Long> remaining = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            remaining.add(i % 2 == 0 ? null : hashes.get(i));
+        }
+        for (int q = 0; q < 100; q++) {
+            long query = flip(hashes.get(random.nextInt(hashes.size())), random.nextInt(4), random);
+            assertThat(sorted(index.search(query, 6))).isEqualTo(bruteForce(remaining, query, 6));
+        }
+        assertThat(index.search(hashes.get(0), 0)).extracting(HammingIndex.Match::value)
+                .contains(hashes.size() - 1)
+                .doesNotContain(0);
+
+        // 다시 만든 색인에 이어서 추가할 수 있다
+        index.add(hashes.get(0), -1);
+        assertThat(index.search(hashes.get(0), 0)).extracting(HammingIndex.Match::value).contains(-1, hashes.size() - 1);
+    }
+
+    @Test
+    void removeIfOnEmptyIndex() {
+        HammingIndex<String> index = new HammingIndex<>();
+
+        assertThat(index.removeIf(value -> true)).isZero();
+        assertThat(index.search(0L, 64)).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void lookupLatencyAt1M() {
+        Random random = new Random(42);
+        List<Long> hashes = clustered(random, 1_000_000);
+        long buildStart = System.nanoTime();
+        HammingIndex<Integer> index = build(hashes);
+        double buildSeconds = (System.nanoTime() - buildStart) / 1e9;
+
+        List<Long> queries = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            queries.add(flip(hashes.get(random.nextInt(hashes.size())), random.nextInt(4), random));
+        }
+        for (int i = 0; i < 20; i++) {
+            long query = queries.get(i);
+            assertThat(sorted(index.search(query, 6))).isEqualTo(bruteForce(hashes, query, 6));
+        }
+
+        // JIT 워밍업
+        for (long query : queries) {
+            index.search(query, 6);
+        }
+        long start = System.nanoTime();
+        for (long query : queries) {
+            index.search(query, 6);
+        }
+        double indexUs = (System.nanoTime() - start) / 1_000.0 / queries.size();
+
+        start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            bruteForce(hashes, queries.get(i), 6);
+        }
+        double scanUs = (System.nanoTime() - start) / 1_000.0 / 50;
+
+        System.out.printf("HammingIndex %d hashes: build %.1f s, radius-6 lookup %.1f us, linear scan %.1f us%n",
+                hashes.size(), buildSeconds, indexUs, scanUs);
+        assertThat(indexUs).isLessThan(scanUs);
+    }
+
+    /**
+     * 실제 dHash 처럼 비슷한 사진끼리 모이도록 중심 해시 주변에 몇 비트씩 뒤집은 해시를 만든다.
+     */
+    private static List<Long> clustered(Random random, int count) {
+        List<Long> hashes = new ArrayList<>(count);
+        long center = random.nextLong();
+        for (int i = 0; i < count; i++) {
+            if (i % 20 == 0) {
+                center = random.nextLong();
+            }
+            hashes.add(flip(center, random.nextInt(10), random));
+        }
+        return hashes;
+    }
+
+    private static HammingIndex<Integer> build(List<Long> hashes) {
+        HammingIndex<Integer> index = new HammingIndex<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            index.add(hashes.get(i), i);
+        }
+        return index;
+    }
+
+    private static long flip(long hash, int bits) {
+        return hash ^ ((1L << bits) - 1);
+    }
+
+    private static long flip(long hash, int bits, Random random) {
+        long result = hash;
+        for (int i = 0; i < bits; i++) {
+            result ^= 1L << random.nextInt(64);
+        }
+        return result;
+    }
+
+    private static List<Integer> sorted(List<HammingIndex.Match<Integer>> matches) {
+        return matches.stream().map(HammingIndex.Match::value).sorted(Comparator.naturalOrder()).toList();
+    }
+
+    /**
+     * null 은 지워진 자리다.
+     */
+    private static List<Integer> bruteForce(List<Long> hashes, long query, int radius) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            Long hash = hashes.get(i);
+            if (hash != null && ImageHashUtil.hammingDistance(hash, query) <= radius) {
+                values.add(i);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+package com.productprice.util;
+
+import com.productprice.dto.ProductInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceTagParserTest {
+
+    @Test
+    void readsNameAndPriceOnOneLine() {
+        List<ProductInfo> products = parse("코카콜라 1,500원");
+
+        assertThat(products).containsExactly(new ProductInfo("코카콜라", 1500.0, 0.9));
+    }
+
+    @Test
+    void ignoresNumbersWithUnitSuffix() {
+        assertThat(parse("코카콜라 500ml 1,500원"))
+                .containsExactly(new ProductInfo("코카콜라 500ml", 1500.0, 0.9));
+        assertThat(parse("생수 2L 6입")).isEmpty();
+        assertThat(parse("삼겹살 600g", "12,900"))
+                .containsExactly(new ProductInfo("삼겹살 600g", 12900.0, 0.9));
+        assertThat(parse("할인 30%")).isEmpty();
+    }
+
+    @Test
+    void takesLastPriceOnLineWithSeveralPrices() {
+        List<ProductInfo> products = parse("칠성사이다 2,000원 1,700원");
+
+        assertThat(products).hasSize(1);
+        assertThat(products.get(0).price()).isEqualTo(1700.0);
+        assertThat(products.get(0).productName()).startsWith("칠성사이다");
+    }
+
+    @Test
+    void pairsPriceOnlyLineWithPreviousName() {
+        List<ProductInfo> products = PriceTagParser.parse(List.of(
+                new PriceTagParser.OcrLine("신라면 멀티팩", 0.95),
+                new PriceTagParser.OcrLine("4,380원", 0.8)));
+
+        assertThat(products).containsExactly(new ProductInfo("신라면 멀티팩", 4380.0, 0.8));
+    }
+
+    @Test
+    void skipsOversizedNumbersInsteadOfFailing() {
+        assertThat(parse("바코드 1,234,567,890,123")).isEmpty();
+        assertThat(parse("바코드 8801234567890")).isEmpty();
+        assertThat(parse("상품코드 12345678원")).isEmpty();
+        // 긴 숫자 줄이 섞여도 나머지 줄은 그대로 읽는다
+        assertThat(parse("바코드 1,234,567,890,123", "새우깡 1,200원"))
+                .containsExactly(new ProductInfo("새우깡", 1200.0, 0.9));
+    }
+
+    @Test
+    void ignoresPricesBelowMinimum() {
+        assertThat(parse("사탕 50원")).isEmpty();
+    }
+
+    private static List<ProductInfo> parse(String... lines) {
+        return PriceTagParser.parse(Arrays.stream(lines)
+                .map(text -> new PriceTagParser.OcrLine(text, 0.9))
+                .toList());
+    }
+}